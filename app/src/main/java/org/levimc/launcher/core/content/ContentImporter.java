@@ -8,9 +8,11 @@ import android.util.Log;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.levimc.launcher.util.FileIOUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -18,23 +20,39 @@ import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 public class ContentImporter {
     private static final String TAG = "ContentImporter";
-    private static final int BUFFER_SIZE = 8192;
+    private static final String MANIFEST_JSON = "manifest.json";
+    private static final String LEVEL_DAT = "level.dat";
+    private static final String STAGING_PREFIX = ".import_";
+
+    private static final int IMPORT_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int READ_WEIGHT = 30;
 
     private final Context context;
     private final ExecutorService executor;
+    private final ExecutorService importPool;
 
     public interface ImportCallback {
         void onSuccess(String message);
         void onError(String error);
         void onProgress(int progress);
+        default void onItemProgress(ImportItem item) {}
+        default void onComplete(ImportResult result) {}
     }
 
     public static class ImportResult {
@@ -42,11 +60,66 @@ public class ContentImporter {
         public int behaviorPacksImported = 0;
         public int skinPacksImported = 0;
         public int worldsImported = 0;
+        public final List<ImportItem> items = new ArrayList<>();
+
+        public int getProgress() {
+            if (items.isEmpty()) return 100;
+            int sum = 0;
+            for (ImportItem item : items) {
+                sum += item.progress;
+            }
+            return sum / items.size();
+        }
+
+        public int getFinishedCount() {
+            int count = 0;
+            for (ImportItem item : items) {
+                if (item.finished) count++;
+            }
+            return count;
+        }
+
+        void add(ImportResult other) {
+            resourcePacksImported += other.resourcePacksImported;
+            behaviorPacksImported += other.behaviorPacksImported;
+            skinPacksImported += other.skinPacksImported;
+            worldsImported += other.worldsImported;
+        }
+    }
+
+    public static class ImportItem {
+        public final Uri uri;
+        public final ImportResult result = new ImportResult();
+        public volatile String fileName;
+        public volatile int progress = 0;
+        public volatile boolean finished = false;
+        public volatile String error;
+        private boolean spooled;
+        private boolean opened;
+        private long sourceBytes = -1;
+        private long readBytes;
+        private long archiveBytes;
+        private long extractedBytes;
+
+        ImportItem(Uri uri) {
+            this.uri = uri;
+        }
+
+        private int computeProgress() {
+            if (finished) return 100;
+            int extract = archiveBytes > 0 ? (int) (Math.min(extractedBytes, archiveBytes) * 100 / archiveBytes) : 0;
+            if (!spooled) {
+                return Math.min(99, extract);
+            }
+            int read = opened ? 100 : sourceBytes > 0 ? (int) (Math.min(readBytes, sourceBytes) * 100 / sourceBytes) : 0;
+            return Math.min(99, (read * READ_WEIGHT + extract * (100 - READ_WEIGHT)) / 100);
+        }
     }
 
     public ContentImporter(Context context) {
         this.context = context;
         this.executor = Executors.newSingleThreadExecutor();
+        this.importPool = Executors.newFixedThreadPool(IMPORT_THREADS);
     }
 
     public void importContent(List<Uri> uris, File resourcePacksDir, File behaviorPacksDir, 
@@ -54,58 +127,28 @@ public class ContentImporter {
         executor.execute(() -> {
             try {
                 ImportResult totalResult = new ImportResult();
-                StringBuilder errors = new StringBuilder();
-
                 for (Uri uri : uris) {
-                    try {
-                        String fileName = getFileName(uri);
-                        if (fileName == null || fileName.isEmpty()) {
-                            fileName = "content.mcpack";
-                        }
-                        String lowerName = fileName.toLowerCase();
-                        Log.d(TAG, "Importing file: " + fileName);
-
-                        InputStream inputStream = context.getContentResolver().openInputStream(uri);
-                        if (inputStream == null) {
-                            errors.append("Cannot open file: ").append(fileName).append("\n");
-                            continue;
-                        }
-
-                        File tempFile = new File(context.getCacheDir(), "temp_import_" + System.currentTimeMillis());
-                        copyStreamToFile(inputStream, tempFile);
-                        inputStream.close();
-
-                        ImportResult result = new ImportResult();
-
-                        if (lowerName.endsWith(".mcworld")) {
-                            importMcworld(tempFile, worldsDir, result);
-                        } else if (lowerName.endsWith(".mcaddon")) {
-                            importMcaddon(tempFile, resourcePacksDir, behaviorPacksDir, skinPacksDir, result);
-                        } else if (lowerName.endsWith(".mcpack")) {
-                            importMcpack(tempFile, resourcePacksDir, behaviorPacksDir, skinPacksDir, result);
-                        } else {
-                            importMcpack(tempFile, resourcePacksDir, behaviorPacksDir, skinPacksDir, result);
-                            if (result.resourcePacksImported == 0 && result.behaviorPacksImported == 0 && result.skinPacksImported == 0) {
-                                importMcaddon(tempFile, resourcePacksDir, behaviorPacksDir, skinPacksDir, result);
-                            }
-                            if (result.resourcePacksImported == 0 && result.behaviorPacksImported == 0 && 
-                                result.skinPacksImported == 0 && result.worldsImported == 0) {
-                                importMcworld(tempFile, worldsDir, result);
-                            }
-                        }
-
-                        totalResult.resourcePacksImported += result.resourcePacksImported;
-                        totalResult.behaviorPacksImported += result.behaviorPacksImported;
-                        totalResult.skinPacksImported += result.skinPacksImported;
-                        totalResult.worldsImported += result.worldsImported;
+                    totalResult.items.add(new ImportItem(uri));
+                }
+                ImportProgress progress = new ImportProgress(totalResult, callback);
 
-                        tempFile.delete();
+                List<Future<?>> futures = new ArrayList<>(totalResult.items.size());
+                for (ImportItem item : totalResult.items) {
+                    futures.add(importPool.submit(() -> importItem(item, resourcePacksDir, behaviorPacksDir,
+                            skinPacksDir, worldsDir, progress)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
 
-                    } catch (Exception e) {
-                        Log.e(TAG, "Import failed for uri: " + uri, e);
-                        errors.append("Failed for ").append(uri.getLastPathSegment()).append(": ").append(e.getMessage()).append("\n");
+                StringBuilder errors = new StringBuilder();
+                for (ImportItem item : totalResult.items) {
+                    totalResult.add(item.result);
+                    if (item.error != null) {
+                        errors.append(item.error).append("\n");
                     }
                 }
+                callback.onComplete(totalResult);
 
                 StringBuilder message = new StringBuilder();
                 if (totalResult.worldsImported > 0) {
@@ -138,121 +181,328 @@ public class ContentImporter {
         });
     }
 
-    private void importMcworld(File zipFile, File worldsDir, ImportResult result) throws IOException {
-        if (worldsDir == null) return;
-        if (!worldsDir.exists()) worldsDir.mkdirs();
-
-        File tempDir = new File(context.getCacheDir(), "temp_world_" + System.currentTimeMillis());
-        tempDir.mkdirs();
-
+    private void importItem(ImportItem item, File resourcePacksDir, File behaviorPacksDir,
+                            File skinPacksDir, File worldsDir, ImportProgress progress) {
+        Uri uri = item.uri;
         try {
-            extractZip(zipFile, tempDir);
-            File worldDir = findWorldDirectory(tempDir);
-            if (worldDir == null) {
-                return;
+            String fileName = getFileName(uri);
+            if (fileName == null || fileName.isEmpty()) {
+                fileName = "content.mcpack";
+            }
+            item.fileName = fileName;
+            String lowerName = fileName.toLowerCase();
+            Log.d(TAG, "Importing file: " + fileName);
+
+            File archiveFile = getLocalFile(uri);
+            item.spooled = archiveFile == null;
+            if (item.spooled) {
+                InputStream inputStream = context.getContentResolver().openInputStream(uri);
+                if (inputStream == null) {
+                    item.error = "Cannot open file: " + fileName;
+                    return;
+                }
+                item.sourceBytes = getFileSize(uri);
+                archiveFile = File.createTempFile("temp_import_", null, context.getCacheDir());
+                try {
+                    FileIOUtils.copyToFile(inputStream, archiveFile, bytes -> {
+                        item.readBytes += bytes;
+                        progress.update(item);
+                    });
+                } finally {
+                    inputStream.close();
+                }
             }
 
-            String worldName = generateRandomName();
-            File targetDir = new File(worldsDir, worldName);
-            copyDirectory(worldDir, targetDir);
-            result.worldsImported++;
+            ImportResult result = item.result;
+            try (Archive archive = new Archive(archiveFile)) {
+                item.archiveBytes = archive.totalBytes;
+                item.opened = true;
+                progress.update(item);
+
+                if (lowerName.endsWith(".mcworld")) {
+                    importMcworld(archive, worldsDir, item, progress);
+                } else if (lowerName.endsWith(".mcaddon")) {
+                    importMcaddon(archive, resourcePacksDir, behaviorPacksDir, skinPacksDir, item, progress);
+                } else if (lowerName.endsWith(".mcpack")) {
+                    importMcpack(archive, resourcePacksDir, behaviorPacksDir, skinPacksDir, item, progress);
+                } else {
+                    importMcpack(archive, resourcePacksDir, behaviorPacksDir, skinPacksDir, item, progress);
+                    if (result.resourcePacksImported == 0 && result.behaviorPacksImported == 0 && result.skinPacksImported == 0) {
+                        importMcaddon(archive, resourcePacksDir, behaviorPacksDir, skinPacksDir, item, progress);
+                    }
+                    if (result.resourcePacksImported == 0 && result.behaviorPacksImported == 0 && 
+                        result.skinPacksImported == 0 && result.worldsImported == 0) {
+                        importMcworld(archive, worldsDir, item, progress);
+                    }
+                }
+            } finally {
+                if (item.spooled) {
+                    archiveFile.delete();
+                }
+            }
+
+        } catch (Exception e) {
+            Log.e(TAG, "Import failed for uri: " + uri, e);
+            item.error = "Failed for " + uri.getLastPathSegment() + ": " + e.getMessage();
         } finally {
-            deleteDirectory(tempDir);
+            item.finished = true;
+            progress.update(item);
         }
     }
 
-    private void importMcpack(File zipFile, File resourcePacksDir, File behaviorPacksDir, 
-                              File skinPacksDir, ImportResult result) throws IOException {
-        File tempDir = new File(context.getCacheDir(), "temp_pack_" + System.currentTimeMillis());
-        tempDir.mkdirs();
+    private static final class ImportProgress {
+        private final ImportResult total;
+        private final ImportCallback callback;
+        private int lastPercent = -1;
 
-        try {
-            extractZip(zipFile, tempDir);
-            File packDir = findPackDirectory(tempDir);
-            if (packDir == null) {
-                return;
-            }
+        ImportProgress(ImportResult total, ImportCallback callback) {
+            this.total = total;
+            this.callback = callback;
+        }
 
-            File manifestFile = new File(packDir, "manifest.json");
-            if (!manifestFile.exists()) {
+        synchronized void update(ImportItem item) {
+            int itemPercent = item.computeProgress();
+            if (itemPercent == item.progress && !item.finished) {
                 return;
             }
+            item.progress = itemPercent;
+            callback.onItemProgress(item);
+            int percent = total.getProgress();
+            if (percent != lastPercent) {
+                lastPercent = percent;
+                callback.onProgress(percent);
+            }
+        }
+    }
 
-            PackInfo packInfo = parseManifest(manifestFile);
-            if (packInfo == null) {
-                return;
+    private void importMcworld(Archive archive, File worldsDir, ImportItem item, ImportProgress progress)
+            throws IOException {
+        if (worldsDir == null) return;
+
+        String root = archive.findRoot(LEVEL_DAT);
+        if (root == null) {
+            return;
+        }
+
+        if (!worldsDir.exists()) worldsDir.mkdirs();
+        extractDirectory(archive, root, LEVEL_DAT, worldsDir, generateRandomName(), item, progress);
+        item.result.worldsImported++;
+    }
+
+    private void importMcpack(Archive archive, File resourcePacksDir, File behaviorPacksDir, 
+                              File skinPacksDir, ImportItem item, ImportProgress progress) throws IOException {
+        String root = archive.findRoot(MANIFEST_JSON);
+        if (root == null) {
+            return;
+        }
+        importPack(archive, root, resourcePacksDir, behaviorPacksDir, skinPacksDir, item, progress);
+    }
+
+    private void importMcaddon(Archive archive, File resourcePacksDir, File behaviorPacksDir, 
+                               File skinPacksDir, ImportItem item, ImportProgress progress) throws IOException {
+        for (Map.Entry<String, ZipEntry> entry : archive.files.entrySet()) {
+            String name = entry.getKey();
+            if (name.indexOf('/') >= 0 || !name.toLowerCase().endsWith(".mcpack")) {
+                continue;
+            }
+            File nestedFile = File.createTempFile("temp_pack_", null, context.getCacheDir());
+            try {
+                try (InputStream in = archive.zip.getInputStream(entry.getValue())) {
+                    FileIOUtils.copyToFile(in, nestedFile);
+                }
+                try (Archive nested = new Archive(nestedFile)) {
+                    importMcpack(nested, resourcePacksDir, behaviorPacksDir, skinPacksDir, item, progress);
+                }
+            } finally {
+                nestedFile.delete();
             }
+        }
 
-            String packName = generateRandomName();
+        for (String root : archive.findPackRoots()) {
+            importPack(archive, root, resourcePacksDir, behaviorPacksDir, skinPacksDir, item, progress);
+        }
+    }
 
-            if (packInfo.isResourcePack && resourcePacksDir != null) {
-                if (!resourcePacksDir.exists()) resourcePacksDir.mkdirs();
-                File targetDir = new File(resourcePacksDir, packName);
-                copyDirectory(packDir, targetDir);
-                result.resourcePacksImported++;
+    private void importPack(Archive archive, String root, File resourcePacksDir, File behaviorPacksDir,
+                            File skinPacksDir, ImportItem item, ImportProgress progress) throws IOException {
+        PackInfo packInfo = parseManifest(archive.read(root + MANIFEST_JSON));
+        if (packInfo == null) {
+            return;
+        }
+
+        String packName = generateRandomName();
+
+        if (packInfo.isResourcePack && resourcePacksDir != null) {
+            if (!resourcePacksDir.exists()) resourcePacksDir.mkdirs();
+            extractDirectory(archive, root, MANIFEST_JSON, resourcePacksDir, packName, item, progress);
+            item.result.resourcePacksImported++;
+        }
+        if (packInfo.isBehaviorPack && behaviorPacksDir != null) {
+            if (!behaviorPacksDir.exists()) behaviorPacksDir.mkdirs();
+            extractDirectory(archive, root, MANIFEST_JSON, behaviorPacksDir, packName, item, progress);
+            item.result.behaviorPacksImported++;
+        }
+        if (packInfo.isSkinPack && skinPacksDir != null) {
+            if (!skinPacksDir.exists()) skinPacksDir.mkdirs();
+            extractDirectory(archive, root, MANIFEST_JSON, skinPacksDir, packName, item, progress);
+            item.result.skinPacksImported++;
+        }
+    }
+
+    private void extractDirectory(Archive archive, String root, String marker, File parentDir, String name,
+                                  ImportItem item, ImportProgress progress) throws IOException {
+        File stagingDir = new File(parentDir, STAGING_PREFIX + name);
+        File targetDir = new File(parentDir, name);
+        boolean moved = false;
+        try {
+            if (!stagingDir.mkdirs()) {
+                throw new IOException("Failed to create " + stagingDir.getAbsolutePath());
             }
-            if (packInfo.isBehaviorPack && behaviorPacksDir != null) {
-                if (!behaviorPacksDir.exists()) behaviorPacksDir.mkdirs();
-                File targetDir = new File(behaviorPacksDir, packName);
-                copyDirectory(packDir, targetDir);
-                result.behaviorPacksImported++;
+            Set<File> createdDirs = new HashSet<>();
+            createdDirs.add(stagingDir);
+            for (String dir : archive.directories) {
+                if (dir.length() > root.length() && dir.startsWith(root)) {
+                    ensureDirectory(new File(stagingDir, dir.substring(root.length())), createdDirs);
+                }
             }
-            if (packInfo.isSkinPack && skinPacksDir != null) {
-                if (!skinPacksDir.exists()) skinPacksDir.mkdirs();
-                File targetDir = new File(skinPacksDir, packName);
-                copyDirectory(packDir, targetDir);
-                result.skinPacksImported++;
+
+            ZipEntry markerEntry = null;
+            for (Map.Entry<String, ZipEntry> entry : archive.files.entrySet()) {
+                String entryName = entry.getKey();
+                if (!entryName.startsWith(root)) {
+                    continue;
+                }
+                String relative = entryName.substring(root.length());
+                if (relative.equals(marker)) {
+                    markerEntry = entry.getValue();
+                    continue;
+                }
+                extractEntry(archive.zip, entry.getValue(), new File(stagingDir, relative), createdDirs, item, progress);
+            }
+            if (markerEntry != null) {
+                extractEntry(archive.zip, markerEntry, new File(stagingDir, marker), createdDirs, item, progress);
             }
+
+            if (!stagingDir.renameTo(targetDir)) {
+                throw new IOException("Failed to move imported content to " + targetDir.getAbsolutePath());
+            }
+            moved = true;
         } finally {
-            deleteDirectory(tempDir);
+            if (!moved) {
+                FileIOUtils.deleteRecursively(stagingDir);
+            }
         }
     }
 
-    private void importMcaddon(File zipFile, File resourcePacksDir, File behaviorPacksDir, 
-                               File skinPacksDir, ImportResult result) throws IOException {
-        File tempDir = new File(context.getCacheDir(), "temp_addon_" + System.currentTimeMillis());
-        tempDir.mkdirs();
+    private void extractEntry(ZipFile zip, ZipEntry entry, File target, Set<File> createdDirs,
+                              ImportItem item, ImportProgress progress) throws IOException {
+        ensureDirectory(target.getParentFile(), createdDirs);
+        try (InputStream in = zip.getInputStream(entry);
+             FileOutputStream fos = new FileOutputStream(target)) {
+            FileIOUtils.copy(in, fos, bytes -> {
+                item.extractedBytes += bytes;
+                progress.update(item);
+            });
+        }
+    }
 
-        try {
-            extractZip(zipFile, tempDir);
+    private void ensureDirectory(File dir, Set<File> createdDirs) throws IOException {
+        if (createdDirs.add(dir) && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Failed to create " + dir.getAbsolutePath());
+        }
+    }
 
-            File[] files = tempDir.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isFile() && file.getName().toLowerCase().endsWith(".mcpack")) {
-                        importMcpack(file, resourcePacksDir, behaviorPacksDir, skinPacksDir, result);
-                    }
+    private static final class Archive implements Closeable {
+        final ZipFile zip;
+        final Map<String, ZipEntry> files = new LinkedHashMap<>();
+        final Set<String> directories = new LinkedHashSet<>();
+        long totalBytes;
+
+        Archive(File file) throws IOException {
+            zip = new ZipFile(file);
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = FileIOUtils.normalizeZipEntryName(entry.getName());
+                if (name.endsWith("/")) {
+                    name = name.substring(0, name.length() - 1);
+                }
+                if (name.isEmpty() || !FileIOUtils.isSafeZipEntryName(name)) {
+                    continue;
+                }
+                if (entry.isDirectory()) {
+                    directories.add(name + "/");
+                } else {
+                    files.put(name, entry);
+                    totalBytes += Math.max(0, entry.getSize());
                 }
             }
+        }
 
-            List<PackDirectory> packDirs = findAllPackDirectories(tempDir);
-            for (PackDirectory packDirectory : packDirs) {
-                PackInfo packInfo = parseManifest(new File(packDirectory.dir, "manifest.json"));
-                if (packInfo == null) continue;
-
-                String packName = generateRandomName();
+        String findRoot(String marker) {
+            String root = null;
+            int rootDepth = Integer.MAX_VALUE;
+            for (String name : files.keySet()) {
+                if (!name.equals(marker) && !name.endsWith("/" + marker)) {
+                    continue;
+                }
+                String prefix = name.substring(0, name.length() - marker.length());
+                int depth = depth(prefix);
+                if (depth < rootDepth) {
+                    root = prefix;
+                    rootDepth = depth;
+                }
+            }
+            return root;
+        }
 
-                if (packInfo.isResourcePack && resourcePacksDir != null) {
-                    if (!resourcePacksDir.exists()) resourcePacksDir.mkdirs();
-                    File targetDir = new File(resourcePacksDir, packName);
-                    copyDirectory(packDirectory.dir, targetDir);
-                    result.resourcePacksImported++;
+        List<String> findPackRoots() {
+            List<String> candidates = new ArrayList<>();
+            for (String name : files.keySet()) {
+                if (name.endsWith("/" + MANIFEST_JSON)) {
+                    candidates.add(name.substring(0, name.length() - MANIFEST_JSON.length()));
                 }
-                if (packInfo.isBehaviorPack && behaviorPacksDir != null) {
-                    if (!behaviorPacksDir.exists()) behaviorPacksDir.mkdirs();
-                    File targetDir = new File(behaviorPacksDir, packName);
-                    copyDirectory(packDirectory.dir, targetDir);
-                    result.behaviorPacksImported++;
+            }
+            candidates.sort(Comparator.comparingInt(Archive::depth));
+            List<String> roots = new ArrayList<>();
+            for (String candidate : candidates) {
+                boolean nested = false;
+                for (String root : roots) {
+                    if (candidate.startsWith(root)) {
+                        nested = true;
+                        break;
+                    }
                 }
-                if (packInfo.isSkinPack && skinPacksDir != null) {
-                    if (!skinPacksDir.exists()) skinPacksDir.mkdirs();
-                    File targetDir = new File(skinPacksDir, packName);
-                    copyDirectory(packDirectory.dir, targetDir);
-                    result.skinPacksImported++;
+                if (!nested) {
+                    roots.add(candidate);
                 }
             }
-        } finally {
-            deleteDirectory(tempDir);
+            return roots;
+        }
+
+        byte[] read(String name) throws IOException {
+            ZipEntry entry = files.get(name);
+            if (entry == null) {
+                throw new IOException("Missing " + name);
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                FileIOUtils.copy(in, out);
+                return out.toByteArray();
+            }
+        }
+
+        private static int depth(String prefix) {
+            int depth = 0;
+            for (int i = 0; i < prefix.length(); i++) {
+                if (prefix.charAt(i) == '/') depth++;
+            }
+            return depth;
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
         }
     }
 
@@ -262,19 +512,8 @@ public class ContentImporter {
         boolean isSkinPack = false;
     }
 
-    private static class PackDirectory {
-        File dir;
-        PackDirectory(File dir) {
-            this.dir = dir;
-        }
-    }
-
-    private PackInfo parseManifest(File manifestFile) {
+    private PackInfo parseManifest(byte[] data) {
         try {
-            byte[] data = new byte[(int) manifestFile.length()];
-            try (FileInputStream fis = new FileInputStream(manifestFile)) {
-                fis.read(data);
-            }
             String jsonStr = new String(data, StandardCharsets.UTF_8);
             jsonStr = removeJsonComments(jsonStr);
             JSONObject manifest = new JSONObject(jsonStr);
@@ -368,170 +607,35 @@ public class ContentImporter {
         return result.toString();
     }
 
-    private List<PackDirectory> findAllPackDirectories(File searchDir) {
-        List<PackDirectory> result = new ArrayList<>();
-        findPackDirectoriesRecursive(searchDir, result, searchDir);
-        return result;
-    }
-
-    private void findPackDirectoriesRecursive(File dir, List<PackDirectory> result, File rootDir) {
-        if (dir == null || !dir.isDirectory()) return;
-
-        File manifest = new File(dir, "manifest.json");
-        if (manifest.exists() && !dir.equals(rootDir)) {
-            result.add(new PackDirectory(dir));
-            return;
-        }
-
-        File[] files = dir.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    findPackDirectoriesRecursive(file, result, rootDir);
-                }
-            }
-        }
-    }
-
-    private File findWorldDirectory(File searchDir) {
-        File levelDat = new File(searchDir, "level.dat");
-        if (levelDat.exists()) {
-            return searchDir;
-        }
-
-        File[] files = searchDir.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    File found = findWorldDirectory(file);
-                    if (found != null) {
-                        return found;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    private File findPackDirectory(File searchDir) {
-        File manifest = new File(searchDir, "manifest.json");
-        if (manifest.exists()) {
-            return searchDir;
-        }
-
-        File[] files = searchDir.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    File found = findPackDirectory(file);
-                    if (found != null) {
-                        return found;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
     private String generateRandomName() {
         byte[] bytes = new byte[8];
         new SecureRandom().nextBytes(bytes);
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
-    private void extractZip(File zipFile, File targetDir) throws IOException {
-        try (FileInputStream fis = new FileInputStream(zipFile);
-             ZipInputStream zis = new ZipInputStream(fis)) {
-            ZipEntry entry;
-            byte[] buffer = new byte[BUFFER_SIZE];
-
-            while ((entry = zis.getNextEntry()) != null) {
-                String entryName = normalizeZipEntryName(entry.getName());
-                File entryFile = new File(targetDir, entryName);
-
-                if (!entryFile.getCanonicalPath().startsWith(targetDir.getCanonicalPath())) {
-                    continue;
-                }
-
-                if (entry.isDirectory()) {
-                    entryFile.mkdirs();
-                } else {
-                    entryFile.getParentFile().mkdirs();
-                    try (FileOutputStream fos = new FileOutputStream(entryFile)) {
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            fos.write(buffer, 0, len);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    private String normalizeZipEntryName(String name) {
-        String n = name.trim();
-        n = n.replace("\\", "/");
-        if (n.startsWith("./")) n = n.substring(2);
-        if (n.startsWith("/")) n = n.substring(1);
-        while (n.contains("//")) {
-            n = n.replace("//", "/");
-        }
-        return n;
-    }
-
-    private void copyStreamToFile(InputStream input, File output) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(output)) {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = input.read(buffer)) > 0) {
-                fos.write(buffer, 0, len);
-            }
-        }
-    }
-
-    private void copyDirectory(File source, File target) throws IOException {
-        if (source.isDirectory()) {
-            if (!target.exists()) {
-                target.mkdirs();
-            }
-
-            File[] files = source.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    copyDirectory(file, new File(target, file.getName()));
-                }
-            }
-        } else {
-            copyFile(source, target);
+    private File getLocalFile(Uri uri) {
+        if (!"file".equals(uri.getScheme()) || uri.getPath() == null) {
+            return null;
         }
+        File file = new File(uri.getPath());
+        return file.isFile() && file.canRead() ? file : null;
     }
 
-    private void copyFile(File source, File target) throws IOException {
-        target.getParentFile().mkdirs();
-        try (FileInputStream fis = new FileInputStream(source);
-             FileOutputStream fos = new FileOutputStream(target)) {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = fis.read(buffer)) > 0) {
-                fos.write(buffer, 0, len);
-            }
+    private long getFileSize(Uri uri) {
+        if (!"content".equals(uri.getScheme())) {
+            return -1;
         }
-    }
-
-    private boolean deleteDirectory(File dir) {
-        if (dir == null || !dir.exists()) return false;
-
-        File[] files = dir.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    deleteDirectory(file);
-                } else {
-                    file.delete();
+        try (Cursor cursor = context.getContentResolver().query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+                if (sizeIndex >= 0 && !cursor.isNull(sizeIndex)) {
+                    return cursor.getLong(sizeIndex);
                 }
             }
+        } catch (Exception e) {
+            Log.w(TAG, "Failed to get file size from content URI: " + e.getMessage());
         }
-        return dir.delete();
+        return -1;
     }
 
     private String getFileName(Uri uri) {
@@ -566,5 +670,6 @@ public class ContentImporter {
 
     public void shutdown() {
         executor.shutdown();
+        importPool.shutdown();
     }
 }
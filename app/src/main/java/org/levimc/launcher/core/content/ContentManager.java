@@ -14,6 +14,10 @@ import java.util.concurrent.Executors;
 
 public class ContentManager {
     private static ContentManager instance;
+
+    public interface BackupListCallback {
+        void onBackupsLoaded(List<WorldBackupItem> backups);
+    }
     
     private final Context context;
     private final WorldManager worldManager;
@@ -294,6 +298,33 @@ public class ContentManager {
         });
     }
 
+    public void loadWorldBackups(BackupListCallback callback) {
+        refreshExecutor.execute(() -> callback.onBackupsLoaded(worldManager.getBackups()));
+    }
+
+    public void restoreWorldBackup(WorldBackupItem backup, WorldManager.WorldOperationCallback callback) {
+        setStatus("Restoring backup...");
+        worldManager.restoreBackup(backup.getSnapshot(), new WorldManager.WorldOperationCallback() {
+            @Override
+            public void onSuccess(String message) {
+                refreshWorlds();
+                setStatus(message);
+                if (callback != null) callback.onSuccess(message);
+            }
+
+            @Override
+            public void onError(String error) {
+                setStatus("Restore failed: " + error);
+                if (callback != null) callback.onError(error);
+            }
+
+            @Override
+            public void onProgress(int progress) {
+                if (callback != null) callback.onProgress(progress);
+            }
+        });
+    }
+
     public void importResourcePack(android.net.Uri packUri, ResourcePackManager.PackOperationCallback callback) {
         setStatus("Importing resource pack...");
         resourcePackManager.importPack(packUri, new ResourcePackManager.PackOperationCallback() {
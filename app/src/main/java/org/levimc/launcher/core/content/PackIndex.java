@@ -0,0 +1,244 @@
+package org.levimc.launcher.core.content;
+
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class PackIndex {
+    private static final String TAG = "PackIndex";
+    private static final String MANIFEST = "manifest.json";
+    private static final int FORMAT_VERSION = 1;
+
+    private final File indexFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean loaded;
+    private boolean dirty;
+
+    PackIndex(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    synchronized List<ResourcePackItem> list(File directory, ResourcePackItem.PackType packType) {
+        ensureLoaded();
+        List<ResourcePackItem> packs = new ArrayList<>();
+        File[] packDirs = directory.listFiles();
+        if (packDirs == null) {
+            return packs;
+        }
+
+        Set<String> present = new HashSet<>();
+        int parsed = 0;
+        for (File packDir : packDirs) {
+            if (!packDir.isDirectory()) {
+                continue;
+            }
+            String key = packDir.getAbsolutePath();
+            present.add(key);
+
+            File manifest = new File(packDir, MANIFEST);
+            long directoryModified = packDir.lastModified();
+            long manifestModified = manifest.lastModified();
+            long manifestSize = manifest.length();
+
+            Entry entry = entries.get(key);
+            if (entry != null && entry.matches(packType, directoryModified, manifestModified, manifestSize)) {
+                if (entry.valid) {
+                    packs.add(entry.toItem(packDir));
+                }
+                continue;
+            }
+
+            ResourcePackItem pack = new ResourcePackItem(packDir.getName(), packDir, packType);
+            entries.put(key, new Entry(packType, directoryModified, manifestModified, manifestSize, pack));
+            dirty = true;
+            parsed++;
+            if (pack.isValid()) {
+                packs.add(pack);
+            }
+        }
+
+        String parent = directory.getAbsolutePath();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next().getKey();
+            if (!present.contains(key) && parent.equals(new File(key).getParent())) {
+                iterator.remove();
+                dirty = true;
+            }
+        }
+
+        if (parsed > 0) {
+            Log.d(TAG, directory.getName() + ": " + packDirs.length + " entries, " + parsed + " re-read");
+        }
+        return packs;
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    void save() {
+        String json;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            try {
+                json = toJson().toString();
+            } catch (JSONException e) {
+                Log.w(TAG, "Failed to serialize pack index - " + e.getMessage());
+                return;
+            }
+            dirty = false;
+        }
+
+        File parent = indexFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            Log.w(TAG, "Failed to create " + parent.getAbsolutePath());
+            return;
+        }
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try {
+            Files.write(temp.toPath(), json.getBytes(StandardCharsets.UTF_8));
+            if (!temp.renameTo(indexFile)) {
+                throw new IOException("rename failed");
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write pack index - " + e.getMessage());
+            temp.delete();
+            synchronized (this) {
+                dirty = true;
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!indexFile.isFile()) {
+            return;
+        }
+        try {
+            JSONObject json = new JSONObject(new String(Files.readAllBytes(indexFile.toPath()), StandardCharsets.UTF_8));
+            if (json.optInt("version") != FORMAT_VERSION) {
+                dirty = true;
+                return;
+            }
+            JSONArray packs = json.getJSONArray("packs");
+            for (int i = 0; i < packs.length(); i++) {
+                JSONObject item = packs.getJSONObject(i);
+                entries.put(item.getString("path"), Entry.fromJson(item));
+            }
+        } catch (IOException | JSONException | IllegalArgumentException e) {
+            Log.w(TAG, "Discarding pack index - " + e.getMessage());
+            entries.clear();
+            dirty = true;
+        }
+    }
+
+    private JSONObject toJson() throws JSONException {
+        JSONArray packs = new JSONArray();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            packs.put(entry.getValue().toJson().put("path", entry.getKey()));
+        }
+        return new JSONObject()
+                .put("version", FORMAT_VERSION)
+                .put("packs", packs);
+    }
+
+    private static final class Entry {
+        final ResourcePackItem.PackType listedAs;
+        final long directoryModified;
+        final long manifestModified;
+        final long manifestSize;
+        final long size;
+        final boolean valid;
+        final ResourcePackItem.PackType packType;
+        final String name;
+        final String description;
+        final String version;
+        final String uuid;
+
+        Entry(ResourcePackItem.PackType listedAs, long directoryModified, long manifestModified, long manifestSize,
+              ResourcePackItem pack) {
+            this(listedAs, directoryModified, manifestModified, manifestSize, pack.getSize(), pack.isValid(),
+                    pack.getPackType(), pack.getRawPackName(), pack.getRawDescription(), pack.getVersion(),
+                    pack.getUuid());
+        }
+
+        Entry(ResourcePackItem.PackType listedAs, long directoryModified, long manifestModified, long manifestSize,
+              long size, boolean valid, ResourcePackItem.PackType packType, String name, String description,
+              String version, String uuid) {
+            this.listedAs = listedAs;
+            this.directoryModified = directoryModified;
+            this.manifestModified = manifestModified;
+            this.manifestSize = manifestSize;
+            this.size = size;
+            this.valid = valid;
+            this.packType = packType;
+            this.name = name;
+            this.description = description;
+            this.version = version;
+            this.uuid = uuid;
+        }
+
+        boolean matches(ResourcePackItem.PackType listedAs, long directoryModified, long manifestModified,
+                        long manifestSize) {
+            return this.listedAs == listedAs
+                    && this.directoryModified == directoryModified
+                    && this.manifestModified == manifestModified
+                    && this.manifestSize == manifestSize;
+        }
+
+        ResourcePackItem toItem(File packDir) {
+            return new ResourcePackItem(packDir, packType, size, directoryModified, name, description, version, uuid);
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject()
+                    .put("listedAs", listedAs.name())
+                    .put("directoryModified", directoryModified)
+                    .put("manifestModified", manifestModified)
+                    .put("manifestSize", manifestSize)
+                    .put("size", size)
+                    .put("valid", valid)
+                    .put("type", packType.name());
+            if (name != null) json.put("name", name);
+            if (description != null) json.put("description", description);
+            if (version != null) json.put("packVersion", version);
+            if (uuid != null) json.put("uuid", uuid);
+            return json;
+        }
+
+        static Entry fromJson(JSONObject json) throws JSONException {
+            return new Entry(
+                    ResourcePackItem.PackType.valueOf(json.getString("listedAs")),
+                    json.getLong("directoryModified"),
+                    json.getLong("manifestModified"),
+                    json.getLong("manifestSize"),
+                    json.getLong("size"),
+                    json.getBoolean("valid"),
+                    ResourcePackItem.PackType.valueOf(json.getString("type")),
+                    json.has("name") ? json.getString("name") : null,
+                    json.has("description") ? json.getString("description") : null,
+                    json.has("packVersion") ? json.getString("packVersion") : null,
+                    json.has("uuid") ? json.getString("uuid") : null);
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class ResourcePackItem extends ContentItem {
     private PackType packType;
     private boolean isValid;
     private String uuid;
+    private Map<String, String> langStrings;
 
     public ResourcePackItem(String name, File packFile, PackType packType) {
         super(name, packFile);
@@ -39,6 +40,17 @@ public class ResourcePackItem extends ContentItem {
         loadPackInfo();
     }
 
+    ResourcePackItem(File packFile, PackType packType, long size, long lastModified, String rawPackName,
+                     String rawDescription, String version, String uuid) {
+        super(packFile.getName(), packFile, size, lastModified);
+        this.packType = packType;
+        this.rawPackName = rawPackName != null ? rawPackName : packFile.getName();
+        this.rawDescription = rawDescription;
+        this.version = version;
+        this.uuid = uuid;
+        this.isValid = true;
+    }
+
     @Override
     public String getType() {
         switch (packType) {
@@ -90,6 +102,22 @@ public class ResourcePackItem extends ContentItem {
         return version;
     }
 
+    PackType getPackType() {
+        return packType;
+    }
+
+    String getRawPackName() {
+        return rawPackName;
+    }
+
+    String getRawDescription() {
+        return rawDescription;
+    }
+
+    String getUuid() {
+        return uuid;
+    }
+
     private void loadPackInfo() {
         if (file == null || !file.exists()) {
             isValid = false;
@@ -234,7 +262,9 @@ public class ResourcePackItem extends ContentItem {
         if (!isLocalizationKey(value)) {
             return value;
         }
-        Map<String, String> langStrings = loadLangStrings();
+        if (langStrings == null) {
+            langStrings = loadLangStrings();
+        }
         if (langStrings.containsKey(value)) {
             return langStrings.get(value);
         }
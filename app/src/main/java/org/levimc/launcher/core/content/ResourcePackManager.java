@@ -7,11 +7,11 @@ import android.util.Log;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.levimc.launcher.core.versions.GameVersion;
+import org.levimc.launcher.util.FileIOUtils;
 import org.levimc.launcher.util.LauncherStorage;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -24,13 +24,15 @@ import java.util.Base64;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ResourcePackManager {
     private static final String TAG = "ResourcePackManager";
-    private static final int BUFFER_SIZE = 8192;
+    private static final String INDEX_FILE = "pack_index.json";
     
     private final Context context;
     private final ExecutorService executor;
+    private final PackIndex packIndex;
     private File resourcePacksDirectory;
     private File behaviorPacksDirectory;
     private File skinPacksDirectory;
@@ -44,6 +46,7 @@ public class ResourcePackManager {
     public ResourcePackManager(Context context) {
         this.context = context;
         this.executor = Executors.newSingleThreadExecutor();
+        this.packIndex = new PackIndex(new File(context.getCacheDir(), INDEX_FILE));
     }
 
     public void setCurrentVersion(GameVersion version) {
@@ -62,6 +65,7 @@ public class ResourcePackManager {
             if (!skinPacksDirectory.exists()) {
                 skinPacksDirectory.mkdirs();
             }
+            refreshIndex();
         } else {
             this.resourcePacksDirectory = null;
             this.behaviorPacksDirectory = null;
@@ -83,6 +87,18 @@ public class ResourcePackManager {
         if (skinPacksDirectory != null && !skinPacksDirectory.exists()) {
             skinPacksDirectory.mkdirs();
         }
+        refreshIndex();
+    }
+
+    public void refreshIndex() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.execute(() -> {
+            getResourcePacks();
+            getBehaviorPacks();
+            getSkinPacks();
+        });
     }
 
     public List<ResourcePackItem> getResourcePacks() {
@@ -116,16 +132,17 @@ public class ResourcePackManager {
     }
 
     private void addPacksFromDirectory(File directory, ResourcePackItem.PackType packType, List<ResourcePackItem> packs) {
-        File[] packDirs = directory.listFiles();
-        if (packDirs != null) {
-            for (File packDir : packDirs) {
-                if (packDir.isDirectory()) {
-                    ResourcePackItem pack = new ResourcePackItem(packDir.getName(), packDir, packType);
-                    if (pack.isValid()) {
-                        packs.add(pack);
-                    }
-                }
-            }
+        packs.addAll(packIndex.list(directory, packType));
+        if (packIndex.isDirty()) {
+            saveIndex();
+        }
+    }
+
+    private void saveIndex() {
+        try {
+            executor.execute(packIndex::save);
+        } catch (RejectedExecutionException e) {
+            packIndex.save();
         }
     }
 
@@ -160,7 +177,7 @@ public class ResourcePackManager {
                 }
 
                 File tempFile = new File(context.getCacheDir(), "temp_import_" + System.currentTimeMillis());
-                copyStreamToFile(inputStream, tempFile);
+                FileIOUtils.copyToFile(inputStream, tempFile);
                 inputStream.close();
 
                 String lowerName = fileName.toLowerCase();
@@ -214,7 +231,7 @@ public class ResourcePackManager {
         tempDir.mkdirs();
 
         try {
-            extractZipFile(zipFile, tempDir);
+            FileIOUtils.extractZip(zipFile, tempDir);
             File packDir = findPackDirectory(tempDir);
             if (packDir == null) {
                 return counts;
@@ -235,23 +252,23 @@ public class ResourcePackManager {
             if (packInfo.isResourcePack && resourcePacksDirectory != null) {
                 if (!resourcePacksDirectory.exists()) resourcePacksDirectory.mkdirs();
                 File targetDir = new File(resourcePacksDirectory, packName);
-                copyDirectory(packDir, targetDir);
+                FileIOUtils.copyDirectory(packDir, targetDir, null, true);
                 counts[0]++;
             }
             if (packInfo.isBehaviorPack && behaviorPacksDirectory != null) {
                 if (!behaviorPacksDirectory.exists()) behaviorPacksDirectory.mkdirs();
                 File targetDir = new File(behaviorPacksDirectory, packName);
-                copyDirectory(packDir, targetDir);
+                FileIOUtils.copyDirectory(packDir, targetDir, null, true);
                 counts[1]++;
             }
             if (packInfo.isSkinPack && skinPacksDirectory != null) {
                 if (!skinPacksDirectory.exists()) skinPacksDirectory.mkdirs();
                 File targetDir = new File(skinPacksDirectory, packName);
-                copyDirectory(packDir, targetDir);
+                FileIOUtils.copyDirectory(packDir, targetDir, null, true);
                 counts[2]++;
             }
         } finally {
-            deleteFile(tempDir);
+            FileIOUtils.deleteRecursively(tempDir);
         }
 
         return counts;
@@ -264,7 +281,7 @@ public class ResourcePackManager {
         tempDir.mkdirs();
 
         try {
-            extractZipFile(zipFile, tempDir);
+            FileIOUtils.extractZip(zipFile, tempDir);
 
             File[] files = tempDir.listFiles();
             if (files != null) {
@@ -289,24 +306,24 @@ public class ResourcePackManager {
                 if (packInfo.isResourcePack && resourcePacksDirectory != null) {
                     if (!resourcePacksDirectory.exists()) resourcePacksDirectory.mkdirs();
                     File targetDir = new File(resourcePacksDirectory, packName);
-                    copyDirectory(packDir, targetDir);
+                    FileIOUtils.copyDirectory(packDir, targetDir, null, true);
                     counts[0]++;
                 }
                 if (packInfo.isBehaviorPack && behaviorPacksDirectory != null) {
                     if (!behaviorPacksDirectory.exists()) behaviorPacksDirectory.mkdirs();
                     File targetDir = new File(behaviorPacksDirectory, packName);
-                    copyDirectory(packDir, targetDir);
+                    FileIOUtils.copyDirectory(packDir, targetDir, null, true);
                     counts[1]++;
                 }
                 if (packInfo.isSkinPack && skinPacksDirectory != null) {
                     if (!skinPacksDirectory.exists()) skinPacksDirectory.mkdirs();
                     File targetDir = new File(skinPacksDirectory, packName);
-                    copyDirectory(packDir, targetDir);
+                    FileIOUtils.copyDirectory(packDir, targetDir, null, true);
                     counts[2]++;
                 }
             }
         } finally {
-            deleteFile(tempDir);
+            FileIOUtils.deleteRecursively(tempDir);
         }
 
         return counts;
@@ -354,6 +371,9 @@ public class ResourcePackManager {
     }
 
     private String removeJsonComments(String json) {
+        if (json.indexOf('/') < 0) {
+            return json;
+        }
         StringBuilder result = new StringBuilder();
         boolean inString = false;
         boolean inSingleLineComment = false;
@@ -449,7 +469,8 @@ public class ResourcePackManager {
         }
         executor.execute(() -> {
             try {
-                if (deleteFile(pack.getFile())) {
+                File packFile = pack.getFile();
+                if (packFile != null && packFile.exists() && FileIOUtils.deleteRecursively(packFile)) {
                     callback.onSuccess("Pack deleted successfully");
                 } else {
                     callback.onError("Failed to delete pack");
@@ -495,11 +516,7 @@ public class ResourcePackManager {
                 } else {
                     zos.putNextEntry(new ZipEntry(entryPath));
                     try (FileInputStream fis = new FileInputStream(file)) {
-                        byte[] buffer = new byte[BUFFER_SIZE];
-                        int len;
-                        while ((len = fis.read(buffer)) > 0) {
-                            zos.write(buffer, 0, len);
-                        }
+                        FileIOUtils.copy(fis, zos);
                     }
                     zos.closeEntry();
                 }
@@ -537,70 +554,6 @@ public class ResourcePackManager {
         return result;
     }
 
-    private void copyStreamToFile(InputStream input, File output) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(output)) {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = input.read(buffer)) > 0) {
-                fos.write(buffer, 0, len);
-            }
-        }
-    }
-
-    private boolean deleteFile(File file) {
-        if (file == null || !file.exists()) return false;
-        
-        if (file.isDirectory()) {
-            File[] files = file.listFiles();
-            if (files != null) {
-                for (File f : files) {
-                    deleteFile(f);
-                }
-            }
-        }
-        return file.delete();
-    }
-
-    private void extractZipFile(File zipFile, File targetDir) throws IOException {
-        try (FileInputStream fis = new FileInputStream(zipFile);
-             java.util.zip.ZipInputStream zis = new java.util.zip.ZipInputStream(fis)) {
-            java.util.zip.ZipEntry entry;
-            byte[] buffer = new byte[BUFFER_SIZE];
-
-            while ((entry = zis.getNextEntry()) != null) {
-                String entryName = normalizeZipEntryName(entry.getName());
-                File entryFile = new File(targetDir, entryName);
-
-                if (!entryFile.getCanonicalPath().startsWith(targetDir.getCanonicalPath())) {
-                    continue;
-                }
-
-                if (entry.isDirectory()) {
-                    entryFile.mkdirs();
-                } else {
-                    entryFile.getParentFile().mkdirs();
-                    try (FileOutputStream fos = new FileOutputStream(entryFile)) {
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            fos.write(buffer, 0, len);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    private String normalizeZipEntryName(String name) {
-        String n = name.trim();
-        n = n.replace("\\", "/");
-        if (n.startsWith("./")) n = n.substring(2);
-        if (n.startsWith("/")) n = n.substring(1);
-        while (n.contains("//")) {
-            n = n.replace("//", "/");
-        }
-        return n;
-    }
-
     private File findPackDirectory(File searchDir) {
         File manifest = new File(searchDir, "manifest.json");
         if (manifest.exists()) {
@@ -625,36 +578,6 @@ public class ResourcePackManager {
         return null;
     }
 
-    private void copyDirectory(File source, File target) throws IOException {
-        if (source.isDirectory()) {
-            if (!target.exists()) {
-                target.mkdirs();
-            }
-            
-            File[] files = source.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    copyDirectory(file, new File(target, file.getName()));
-                }
-            }
-        } else {
-            copyFile(source, target);
-        }
-    }
-
-    private void copyFile(File source, File target) throws IOException {
-        target.getParentFile().mkdirs();
-        try (FileInputStream fis = new FileInputStream(source);
-             FileOutputStream fos = new FileOutputStream(target)) {
-            
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = fis.read(buffer)) > 0) {
-                fos.write(buffer, 0, len);
-            }
-        }
-    }
-
     public void shutdown() {
         executor.shutdown();
     }
@@ -689,8 +612,7 @@ public class ResourcePackManager {
                 String packName = generateRandomName();
                 File targetDir = new File(targetDirectory, packName);
 
-                copyDirectory(sourceDir, targetDir);
-                deleteFile(sourceDir);
+                FileIOUtils.moveDirectory(sourceDir, targetDir);
 
                 callback.onSuccess("Pack transferred successfully");
 
@@ -0,0 +1,292 @@
+package org.levimc.launcher.core.content;
+
+import org.levimc.launcher.core.content.nbt.NbtPrimitiveList;
+import org.levimc.launcher.core.content.nbt.NbtStreamReader;
+import org.levimc.launcher.core.content.nbt.NbtVisitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public final class StructureAnalyzer {
+    private static final int MAX_CACHED_SUMMARIES = 256;
+    private static final int MAX_PALETTE_SIZE = 65536;
+    private static final String AIR = "minecraft:air";
+
+    private static final Map<String, Summary> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Summary> eldest) {
+            return size() > MAX_CACHED_SUMMARIES;
+        }
+    };
+
+    private StructureAnalyzer() {
+    }
+
+    public static Summary analyze(File worldDir, String structureId, byte[] value) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(value, 0, value.length);
+        String key = worldDir.getAbsolutePath() + '\0' + structureId + '\0' + value.length + ':' + crc.getValue();
+        synchronized (CACHE) {
+            Summary cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Summary summary = analyze(value);
+        synchronized (CACHE) {
+            CACHE.put(key, summary);
+        }
+        return summary;
+    }
+
+    public static Summary analyze(byte[] value) throws IOException {
+        Collector collector = new Collector();
+        new NbtStreamReader(ByteBuffer.wrap(value)).accept(collector);
+        return collector.toSummary();
+    }
+
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    public static final class Summary {
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final int paletteSize;
+        private final int entityCount;
+        private final int blockEntityCount;
+        private final int blockCount;
+        private final Map<String, Integer> blockCounts;
+
+        Summary(int sizeX, int sizeY, int sizeZ, int paletteSize, int entityCount, int blockEntityCount,
+                int blockCount, Map<String, Integer> blockCounts) {
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.paletteSize = paletteSize;
+            this.entityCount = entityCount;
+            this.blockEntityCount = blockEntityCount;
+            this.blockCount = blockCount;
+            this.blockCounts = Collections.unmodifiableMap(blockCounts);
+        }
+
+        public int getSizeX() {
+            return sizeX;
+        }
+
+        public int getSizeY() {
+            return sizeY;
+        }
+
+        public int getSizeZ() {
+            return sizeZ;
+        }
+
+        public int getPaletteSize() {
+            return paletteSize;
+        }
+
+        public int getEntityCount() {
+            return entityCount;
+        }
+
+        public int getBlockEntityCount() {
+            return blockEntityCount;
+        }
+
+        public int getBlockCount() {
+            return blockCount;
+        }
+
+        public Map<String, Integer> getBlockCounts() {
+            return blockCounts;
+        }
+
+        @Override
+        public String toString() {
+            return sizeX + "x" + sizeY + "x" + sizeZ + ", " + blockCount + " blocks, " + paletteSize
+                    + " palette entries, " + entityCount + " entities";
+        }
+    }
+
+    private static final class Collector implements NbtVisitor {
+        private static final int ROOT = 0;
+        private static final int SIZE = 1;
+        private static final int STRUCTURE = 2;
+        private static final int BLOCK_INDICES = 3;
+        private static final int LAYER = 4;
+        private static final int PALETTE = 5;
+        private static final int DEFAULT_PALETTE = 6;
+        private static final int BLOCK_PALETTE = 7;
+        private static final int PALETTE_ENTRY = 8;
+        private static final int BLOCK_POSITION_DATA = 9;
+        private static final int BLOCK_ENTITY = 10;
+        private static final int ENTITIES = 11;
+        private static final int SKIP = -1;
+
+        private int[] states = new int[16];
+        private int depth;
+        private final int[] size = new int[3];
+        private int sizeIndex;
+        private int layerCount;
+        private int[] indexCounts = new int[64];
+        private final List<String> paletteNames = new ArrayList<>();
+        private int entityCount;
+        private int blockEntityCount;
+
+        @Override
+        public boolean startList(String name, byte elementType, int length) {
+            int state = childState(name, true);
+            if (state == SKIP) {
+                return false;
+            }
+            if (state == ENTITIES) {
+                entityCount = length;
+                return false;
+            }
+            push(state);
+            return true;
+        }
+
+        @Override
+        public void endList() {
+            depth--;
+        }
+
+        @Override
+        public void visitListElements(NbtPrimitiveList list, boolean owned) {
+            int state = current();
+            if (state == SIZE) {
+                for (int i = 0; i < list.size() && sizeIndex < size.length; i++) {
+                    size[sizeIndex++] = list.getInt(i);
+                }
+            } else if (state == LAYER) {
+                countIndices(list);
+            }
+        }
+
+        private void countIndices(NbtPrimitiveList list) {
+            int[] counts = indexCounts;
+            for (int i = 0, n = list.size(); i < n; i++) {
+                int value = list.getInt(i);
+                if (value < 0 || value >= MAX_PALETTE_SIZE) {
+                    continue;
+                }
+                if (value >= counts.length) {
+                    counts = Arrays.copyOf(counts, Math.min(MAX_PALETTE_SIZE, Math.max(value + 1, counts.length * 2)));
+                }
+                counts[value]++;
+            }
+            indexCounts = counts;
+        }
+
+        @Override
+        public boolean startCompound(String name) {
+            int state = childState(name, false);
+            if (state == SKIP) {
+                return false;
+            }
+            if (state == BLOCK_ENTITY) {
+                blockEntityCount++;
+                return false;
+            }
+            if (state == PALETTE_ENTRY) {
+                paletteNames.add(null);
+            }
+            push(state);
+            return true;
+        }
+
+        @Override
+        public void endCompound() {
+            depth--;
+        }
+
+        @Override
+        public void visitString(String name, String value) {
+            if (current() == PALETTE_ENTRY && name.equals("name") && !paletteNames.isEmpty()) {
+                paletteNames.set(paletteNames.size() - 1, value);
+            }
+        }
+
+        private int current() {
+            return depth == 0 ? SKIP : states[depth - 1];
+        }
+
+        private int childState(String name, boolean list) {
+            if (depth == 0) {
+                return list ? SKIP : ROOT;
+            }
+            switch (states[depth - 1]) {
+                case ROOT:
+                    if (list && name.equals("size")) return SIZE;
+                    if (!list && name.equals("structure")) return STRUCTURE;
+                    return SKIP;
+                case STRUCTURE:
+                    if (list && name.equals("block_indices")) return BLOCK_INDICES;
+                    if (list && name.equals("entities")) return ENTITIES;
+                    if (!list && name.equals("palette")) return PALETTE;
+                    return SKIP;
+                case BLOCK_INDICES:
+                    return list && layerCount++ == 0 ? LAYER : SKIP;
+                case PALETTE:
+                    return !list && name.equals("default") ? DEFAULT_PALETTE : SKIP;
+                case DEFAULT_PALETTE:
+                    if (list && name.equals("block_palette")) return BLOCK_PALETTE;
+                    if (!list && name.equals("block_position_data")) return BLOCK_POSITION_DATA;
+                    return SKIP;
+                case BLOCK_PALETTE:
+                    return list ? SKIP : PALETTE_ENTRY;
+                case BLOCK_POSITION_DATA:
+                    return list ? SKIP : BLOCK_ENTITY;
+                default:
+                    return SKIP;
+            }
+        }
+
+        private void push(int state) {
+            if (depth == states.length) {
+                states = Arrays.copyOf(states, depth * 2);
+            }
+            states[depth++] = state;
+        }
+
+        Summary toSummary() {
+            Map<String, Integer> totals = new HashMap<>();
+            int blockCount = 0;
+            for (int i = 0; i < indexCounts.length; i++) {
+                int count = indexCounts[i];
+                if (count == 0) {
+                    continue;
+                }
+                String name = i < paletteNames.size() && paletteNames.get(i) != null
+                        ? paletteNames.get(i) : "#" + i;
+                Integer previous = totals.get(name);
+                totals.put(name, previous == null ? count : previous + count);
+                if (!name.equals(AIR)) {
+                    blockCount += count;
+                }
+            }
+            List<Map.Entry<String, Integer>> sorted = new ArrayList<>(totals.entrySet());
+            sorted.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+            Map<String, Integer> histogram = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : sorted) {
+                histogram.put(entry.getKey(), entry.getValue());
+            }
+            return new Summary(size[0], size[1], size[2], paletteNames.size(), entityCount, blockEntityCount,
+                    blockCount, histogram);
+        }
+    }
+}
@@ -4,28 +4,45 @@ import android.content.Context;
 import android.net.Uri;
 import android.util.Log;
 
+import org.levimc.launcher.core.content.leveldb.BlockCache;
 import org.levimc.launcher.core.content.leveldb.LevelDBEntry;
 import org.levimc.launcher.core.content.leveldb.LevelDBManager;
 
+import org.levimc.launcher.util.FileIOUtils;
+
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
 public class StructureExtractor {
     private static final String TAG = "StructureExtractor";
+    private static final String INDEX_DIR = "structure_index";
+    private static final long PARTIAL_RESULT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
     public interface ExtractionCallback {
+        default void onProgress(long bytesWritten, long bytesRead) {}
         void onComplete(int extractedCount, String outputPath);
         void onError(String error);
     }
 
     public interface StructureListCallback {
+        default void onStructuresFound(List<StructureInfo> structures) {}
+        default void onProgress(int tablesDone, int tablesTotal) {}
         void onComplete(List<StructureInfo> structures);
         void onError(String error);
     }
@@ -34,6 +51,7 @@ public class StructureExtractor {
         private final String id;
         private final String name;
         private final byte[] data;
+        private StructureAnalyzer.Summary summary;
 
         public StructureInfo(String id, byte[] data) {
             this.id = id;
@@ -57,6 +75,14 @@ public class StructureExtractor {
             return data;
         }
 
+        public StructureAnalyzer.Summary getSummary() {
+            return summary;
+        }
+
+        void setSummary(StructureAnalyzer.Summary summary) {
+            this.summary = summary;
+        }
+
         public int getSize() {
             return data != null ? data.length : 0;
         }
@@ -87,83 +113,131 @@ public class StructureExtractor {
 
     private final Context context;
     private final ExecutorService executor;
+    private final BlockCache blockCache;
     private List<StructureInfo> cachedStructures;
     private File cachedWorldDir;
+    private volatile CompletableFuture<List<StructureInfo>> activeLoad;
 
     public StructureExtractor(Context context) {
         this.context = context;
         this.executor = Executors.newSingleThreadExecutor();
+        this.blockCache = BlockCache.getShared();
     }
 
-    public void loadStructures(File worldDir, StructureListCallback callback) {
-        executor.execute(() -> {
-            LevelDBManager dbManager = null;
-            try {
-                dbManager = new LevelDBManager(worldDir);
-                final LevelDBManager finalDbManager = dbManager;
-
-                CountDownLatch latch = new CountDownLatch(1);
-                AtomicReference<List<LevelDBEntry>> structuresRef = new AtomicReference<>();
-                AtomicReference<String> errorRef = new AtomicReference<>();
-
-                finalDbManager.loadDatabase(new LevelDBManager.LoadCallback() {
-                    @Override
-                    public void onProgress(int current, int total) {}
-
-                    @Override
-                    public void onComplete(List<LevelDBEntry> entries) {
-                        structuresRef.set(finalDbManager.getStructureEntries());
-                        latch.countDown();
-                    }
-
-                    @Override
-                    public void onError(String error) {
-                        errorRef.set(error);
-                        latch.countDown();
-                    }
-                });
+    public CompletableFuture<List<StructureInfo>> loadStructures(File worldDir, StructureListCallback callback) {
+        CompletableFuture<List<StructureInfo>> future = new CompletableFuture<>();
+        future.whenComplete((structures, error) -> {
+            if (error == null) {
+                callback.onComplete(structures);
+            } else if (!(error instanceof CancellationException)) {
+                callback.onError("Failed to load structures: " + error.getMessage());
+            }
+        });
 
-                boolean completed = latch.await(60, TimeUnit.SECONDS);
+        CompletableFuture<List<StructureInfo>> previous = activeLoad;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        activeLoad = future;
 
-                if (!completed) {
-                    callback.onError("Database loading timed out");
-                    finalDbManager.shutdown();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
                     return;
                 }
+                try {
+                    List<StructureInfo> structures = scanStructures(worldDir, future, callback);
+                    if (!future.isDone()) {
+                        cachedStructures = structures;
+                        cachedWorldDir = worldDir;
+                        future.complete(structures);
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to load structures", e);
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 
-                if (errorRef.get() != null) {
-                    callback.onError(errorRef.get());
-                    finalDbManager.shutdown();
-                    return;
+    private List<StructureInfo> scanStructures(File worldDir, Future<?> future, StructureListCallback callback)
+            throws IOException {
+        LevelDBManager dbManager = new LevelDBManager(worldDir, blockCache);
+        StructureCollector collector = new StructureCollector(worldDir, future, callback);
+        try {
+            dbManager.forEachStructure(getIndexFile(worldDir), (done, total) -> {
+                if (!future.isDone()) {
+                    callback.onProgress(done, total);
                 }
+            }, collector);
+        } finally {
+            dbManager.shutdown();
+        }
+        if (!future.isDone()) {
+            collector.flush();
+            Log.d(TAG, "Loaded " + collector.structures.size() + " structures from " + worldDir.getName());
+        }
+        return collector.structures;
+    }
 
-                List<LevelDBEntry> structureEntries = structuresRef.get();
-                List<StructureInfo> structures = new ArrayList<>();
+    private File getIndexFile(File worldDir) {
+        byte[] path = worldDir.getAbsolutePath().getBytes(StandardCharsets.UTF_8);
+        return new File(new File(context.getCacheDir(), INDEX_DIR), UUID.nameUUIDFromBytes(path) + ".idx");
+    }
 
-                if (structureEntries != null) {
-                    for (LevelDBEntry entry : structureEntries) {
-                        String structureId = entry.getKey().getStructureId();
-                        byte[] value = entry.getValue();
-                        if (structureId != null && !structureId.isEmpty() && value != null && value.length > 0) {
-                            structures.add(new StructureInfo(structureId, value));
-                        }
-                    }
-                }
+    private static final class StructureCollector implements LevelDBManager.StructureVisitor {
+        private final File worldDir;
+        private final Future<?> future;
+        private final StructureListCallback callback;
+        private final List<StructureInfo> structures = new ArrayList<>();
+        private List<StructureInfo> pending = new ArrayList<>();
+        private long lastFlush;
+
+        StructureCollector(File worldDir, Future<?> future, StructureListCallback callback) {
+            this.worldDir = worldDir;
+            this.future = future;
+            this.callback = callback;
+        }
 
-                cachedStructures = structures;
-                cachedWorldDir = worldDir;
+        @Override
+        public boolean visitStructure(LevelDBEntry entry) {
+            if (future.isDone()) {
+                return false;
+            }
+            String structureId = entry.getKey().getStructureId();
+            byte[] value = entry.getValue();
+            if (structureId == null || structureId.isEmpty() || value == null || value.length == 0) {
+                return true;
+            }
 
-                finalDbManager.shutdown();
-                callback.onComplete(structures);
+            StructureInfo info = new StructureInfo(structureId, value);
+            try {
+                info.setSummary(StructureAnalyzer.analyze(worldDir, structureId, value));
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Failed to analyze structure " + structureId + ": " + e.getMessage());
+            }
+            structures.add(info);
+            pending.add(info);
 
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to load structures", e);
-                callback.onError("Failed to load structures: " + e.getMessage());
-                if (dbManager != null) {
-                    dbManager.shutdown();
-                }
+            long now = System.nanoTime();
+            if (structures.size() == 1 || now - lastFlush >= PARTIAL_RESULT_INTERVAL_NANOS) {
+                flush();
+                lastFlush = now;
             }
-        });
+            return true;
+        }
+
+        void flush() {
+            if (pending.isEmpty() || future.isDone()) {
+                return;
+            }
+            List<StructureInfo> batch = pending;
+            pending = new ArrayList<>();
+            callback.onStructuresFound(Collections.unmodifiableList(batch));
+        }
     }
 
     public void exportSingleStructure(StructureInfo structure, Uri outputUri, ExtractionCallback callback) {
@@ -193,7 +267,59 @@ public class StructureExtractor {
         });
     }
 
+    public void exportAllStructures(File worldDir, Uri outputUri, ExtractionCallback callback) {
+        File packFile;
+        try {
+            File packDir = Files.createTempDirectory(context.getCacheDir().toPath(), "structures").toFile();
+            packFile = new File(packDir, worldDir.getName() + "_structures.mcpack");
+        } catch (IOException e) {
+            callback.onError("Export failed: " + e.getMessage());
+            return;
+        }
+
+        LevelDBManager dbManager = new LevelDBManager(worldDir, blockCache);
+        dbManager.exportAllStructures(null, packFile, new LevelDBManager.StructureExportCallback() {
+            @Override
+            public void onProgress(long bytesWritten, long bytesRead, String structureName) {
+                callback.onProgress(bytesWritten, bytesRead);
+            }
+
+            @Override
+            public void onComplete(int exportedCount, String outputPath) {
+                try (InputStream inputStream = new FileInputStream(packFile);
+                     OutputStream outputStream = context.getContentResolver().openOutputStream(outputUri)) {
+                    if (outputStream == null) {
+                        callback.onError("Cannot create output file");
+                        return;
+                    }
+                    FileIOUtils.copy(inputStream, outputStream);
+                    callback.onComplete(exportedCount, outputUri.toString());
+                } catch (IOException e) {
+                    Log.e(TAG, "Failed to write structure pack", e);
+                    callback.onError("Export failed: " + e.getMessage());
+                } finally {
+                    finishPackExport(dbManager, packFile);
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                finishPackExport(dbManager, packFile);
+                callback.onError(error);
+            }
+        });
+    }
+
+    private static void finishPackExport(LevelDBManager dbManager, File packFile) {
+        dbManager.shutdown();
+        FileIOUtils.deleteRecursively(packFile.getParentFile());
+    }
+
     public void shutdown() {
+        CompletableFuture<List<StructureInfo>> load = activeLoad;
+        if (load != null) {
+            load.cancel(false);
+        }
         executor.shutdown();
         cachedStructures = null;
         cachedWorldDir = null;
@@ -0,0 +1,33 @@
+package org.levimc.launcher.core.content;
+
+import java.io.File;
+
+public class WorldBackupItem {
+    private final File snapshot;
+    private final String worldId;
+    private final String name;
+    private final long created;
+
+    WorldBackupItem(File snapshot, String worldId, String name, long created) {
+        this.snapshot = snapshot;
+        this.worldId = worldId;
+        this.name = name;
+        this.created = created;
+    }
+
+    public File getSnapshot() {
+        return snapshot;
+    }
+
+    public String getWorldId() {
+        return worldId;
+    }
+
+    public String getName() {
+        return name != null && !name.isEmpty() ? name : worldId;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+}
@@ -0,0 +1,365 @@
+package org.levimc.launcher.core.content;
+
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.levimc.launcher.util.FileIOUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+final class WorldBackupStore {
+    private static final String TAG = "WorldBackupStore";
+    private static final String OBJECTS_DIR = "objects";
+    private static final String SNAPSHOTS_DIR = "snapshots";
+    private static final String SNAPSHOT_EXTENSION = ".json";
+    private static final int FORMAT_VERSION = 1;
+    private static final int TIMESTAMP_LENGTH = "yyyyMMdd_HHmmss_SSS".length();
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile(".+_\\d{8}_\\d{6}_\\d{3}\\.json");
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    interface ProgressListener {
+        void onProgress(long bytesDone, long bytesTotal);
+    }
+
+    private final File objectsDir;
+    private final File snapshotsDir;
+
+    WorldBackupStore(File root) {
+        this.objectsDir = new File(root, OBJECTS_DIR);
+        this.snapshotsDir = new File(root, SNAPSHOTS_DIR);
+    }
+
+    File createSnapshot(File worldDir, String displayName, ProgressListener listener) throws IOException {
+        String worldId = worldDir.getName();
+        List<String> paths = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        collectFiles(worldDir, "", paths, files);
+
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+
+        Map<String, Entry> previous = loadLatestEntries(worldId);
+        List<Entry> entries = new ArrayList<>(files.size());
+        long done = 0;
+        long written = 0;
+        int reused = 0;
+        byte[] buffer = FileIOUtils.acquireBuffer();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                String path = paths.get(i);
+                File file = files.get(i);
+                long size = file.length();
+                long modified = file.lastModified();
+
+                Entry entry = null;
+                Entry last = previous.get(path);
+                if (last != null && isImmutable(path) && last.size == size && last.modified == modified
+                        && objectFile(last.hash).isFile()) {
+                    entry = last;
+                    reused++;
+                }
+                if (entry == null) {
+                    long[] stored = new long[1];
+                    entry = storeObject(path, file, modified, buffer, stored);
+                    written += stored[0];
+                }
+                entries.add(entry);
+
+                done += size;
+                if (listener != null) {
+                    listener.onProgress(done, Math.max(done, total));
+                }
+            }
+        } finally {
+            FileIOUtils.releaseBuffer(buffer);
+        }
+
+        File snapshot = writeSnapshot(worldId, displayName, entries);
+        Log.d(TAG, "Snapshot " + snapshot.getName() + ": " + entries.size() + " files, " + reused
+                + " tables reused, " + written + " of " + total + " bytes stored");
+        return snapshot;
+    }
+
+    void restoreSnapshot(File snapshot, File targetDir) throws IOException {
+        List<Entry> entries = readSnapshot(snapshot).entries;
+        byte[] buffer = FileIOUtils.acquireBuffer();
+        try {
+            for (Entry entry : entries) {
+                restoreEntry(entry, targetDir, buffer);
+            }
+        } finally {
+            FileIOUtils.releaseBuffer(buffer);
+        }
+    }
+
+    private void restoreEntry(Entry entry, File targetDir, byte[] buffer) throws IOException {
+        File target = FileIOUtils.resolveZipEntry(targetDir, entry.path);
+        if (target == null) {
+            throw new IOException("Snapshot entry escapes target directory: " + entry.path);
+        }
+        File object = objectFile(entry.hash);
+        if (!object.isFile() || object.length() != entry.size) {
+            throw new IOException("Missing backup data for " + entry.path);
+        }
+        File parent = target.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("Failed to create " + parent.getAbsolutePath());
+        }
+        MessageDigest digest = newDigest();
+        try (InputStream in = new FileInputStream(object);
+             OutputStream out = new FileOutputStream(target)) {
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, len);
+                out.write(buffer, 0, len);
+            }
+        }
+        if (!toHex(digest.digest()).equals(entry.hash)) {
+            target.delete();
+            throw new IOException("Corrupt backup data for " + entry.path);
+        }
+        if (!target.setLastModified(entry.modified)) {
+            Log.w(TAG, "Failed to restore modification time of " + entry.path);
+        }
+    }
+
+    List<File> listSnapshots(String worldId) {
+        Pattern name = Pattern.compile(Pattern.quote(worldId) + "_\\d{8}_\\d{6}_\\d{3}" + Pattern.quote(SNAPSHOT_EXTENSION));
+        File[] files = snapshotsDir.listFiles((dir, fileName) -> name.matcher(fileName).matches());
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files, (a, b) -> b.getName().compareTo(a.getName()));
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    List<File> listAllSnapshots() {
+        File[] files = snapshotsDir.listFiles((dir, fileName) -> SNAPSHOT_NAME.matcher(fileName).matches());
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files, (a, b) -> timestampOf(b).compareTo(timestampOf(a)));
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    WorldBackupItem describeSnapshot(File snapshot) throws IOException {
+        Snapshot parsed = readSnapshot(snapshot);
+        return new WorldBackupItem(snapshot, parsed.worldId, parsed.name, parsed.created);
+    }
+
+    String getWorldId(File snapshot) throws IOException {
+        String worldId = readSnapshot(snapshot).worldId;
+        if (worldId.isEmpty() || worldId.contains("/") || worldId.contains("\\") || worldId.startsWith(".")) {
+            throw new IOException("Invalid world id in " + snapshot.getName());
+        }
+        return worldId;
+    }
+
+    private static String timestampOf(File snapshot) {
+        String name = snapshot.getName();
+        return name.substring(name.length() - SNAPSHOT_EXTENSION.length() - TIMESTAMP_LENGTH);
+    }
+
+    private Map<String, Entry> loadLatestEntries(String worldId) {
+        Map<String, Entry> entries = new HashMap<>();
+        List<File> snapshots = listSnapshots(worldId);
+        if (snapshots.isEmpty()) {
+            return entries;
+        }
+        try {
+            for (Entry entry : readSnapshot(snapshots.get(0)).entries) {
+                entries.put(entry.path, entry);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Ignoring previous snapshot " + snapshots.get(0).getName() + " - " + e.getMessage());
+        }
+        return entries;
+    }
+
+    private Entry storeObject(String path, File file, long modified, byte[] buffer, long[] stored) throws IOException {
+        if (!objectsDir.isDirectory() && !objectsDir.mkdirs() && !objectsDir.isDirectory()) {
+            throw new IOException("Failed to create " + objectsDir.getAbsolutePath());
+        }
+        MessageDigest digest = newDigest();
+        File temp = File.createTempFile("object", ".tmp", objectsDir);
+        try {
+            try (InputStream in = new FileInputStream(file);
+                 OutputStream out = new FileOutputStream(temp)) {
+                int len;
+                while ((len = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, len);
+                    out.write(buffer, 0, len);
+                }
+            }
+            String hash = toHex(digest.digest());
+            long size = temp.length();
+            Entry entry = new Entry(path, hash, size, modified);
+            File object = objectFile(hash);
+            if (object.isFile() && object.length() == size) {
+                return entry;
+            }
+            File parent = object.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+                throw new IOException("Failed to create " + parent.getAbsolutePath());
+            }
+            if (!temp.renameTo(object)) {
+                throw new IOException("Failed to store backup object " + hash);
+            }
+            stored[0] = size;
+            return entry;
+        } finally {
+            if (temp.exists() && !temp.delete()) {
+                Log.w(TAG, "Failed to delete " + temp.getName());
+            }
+        }
+    }
+
+    private File writeSnapshot(String worldId, String displayName, List<Entry> entries) throws IOException {
+        if (!snapshotsDir.isDirectory() && !snapshotsDir.mkdirs() && !snapshotsDir.isDirectory()) {
+            throw new IOException("Failed to create " + snapshotsDir.getAbsolutePath());
+        }
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS", Locale.ROOT).format(new Date());
+        File snapshot = new File(snapshotsDir, worldId + "_" + timestamp + SNAPSHOT_EXTENSION);
+        try {
+            JSONArray files = new JSONArray();
+            for (Entry entry : entries) {
+                files.put(new JSONObject()
+                        .put("path", entry.path)
+                        .put("hash", entry.hash)
+                        .put("size", entry.size)
+                        .put("modified", entry.modified));
+            }
+            JSONObject json = new JSONObject()
+                    .put("version", FORMAT_VERSION)
+                    .put("world", worldId)
+                    .put("name", displayName)
+                    .put("created", System.currentTimeMillis())
+                    .put("files", files);
+            File temp = new File(snapshotsDir, snapshot.getName() + ".tmp");
+            Files.write(temp.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+            if (!temp.renameTo(snapshot)) {
+                temp.delete();
+                throw new IOException("Failed to write snapshot " + snapshot.getName());
+            }
+        } catch (JSONException e) {
+            throw new IOException("Failed to build snapshot", e);
+        }
+        return snapshot;
+    }
+
+    private Snapshot readSnapshot(File file) throws IOException {
+        try {
+            JSONObject json = new JSONObject(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            if (json.optInt("version") != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + json.optInt("version"));
+            }
+            JSONArray files = json.getJSONArray("files");
+            List<Entry> entries = new ArrayList<>(files.length());
+            for (int i = 0; i < files.length(); i++) {
+                JSONObject item = files.getJSONObject(i);
+                String hash = item.getString("hash");
+                if (!HASH_PATTERN.matcher(hash).matches()) {
+                    throw new IOException("Invalid object hash in " + file.getName());
+                }
+                entries.add(new Entry(item.getString("path"), hash, item.optLong("size"), item.optLong("modified")));
+            }
+            return new Snapshot(json.getString("world"), json.optString("name"), json.optLong("created"), entries);
+        } catch (JSONException e) {
+            throw new IOException("Invalid snapshot " + file.getName(), e);
+        }
+    }
+
+    private File objectFile(String hash) {
+        return new File(new File(objectsDir, hash.substring(0, 2)), hash);
+    }
+
+    private static boolean isImmutable(String path) {
+        String lower = path.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".ldb") || lower.endsWith(".sst");
+    }
+
+    private static void collectFiles(File dir, String basePath, List<String> paths, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            String path = basePath.isEmpty() ? child.getName() : basePath + "/" + child.getName();
+            if (child.isDirectory()) {
+                collectFiles(child, path, paths, files);
+            } else {
+                paths.add(path);
+                files.add(child);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    private static final class Entry {
+        final String path;
+        final String hash;
+        final long size;
+        final long modified;
+
+        Entry(String path, String hash, long size, long modified) {
+            this.path = path;
+            this.hash = hash;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+
+    private static final class Snapshot {
+        final String worldId;
+        final String name;
+        final long created;
+        final List<Entry> entries;
+
+        Snapshot(String worldId, String name, long created, List<Entry> entries) {
+            this.worldId = worldId;
+            this.name = name;
+            this.created = created;
+            this.entries = entries;
+        }
+    }
+}
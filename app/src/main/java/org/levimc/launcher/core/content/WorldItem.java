@@ -4,12 +4,12 @@ import android.util.Log;
 
 import org.levimc.launcher.core.content.nbt.BedrockNbtReader;
 import org.levimc.launcher.core.content.nbt.NbtTag;
+import org.levimc.launcher.core.content.nbt.NbtView;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Map;
 
 public class WorldItem extends ContentItem {
     private static final String TAG = "WorldItem";
@@ -76,19 +76,17 @@ public class WorldItem extends ContentItem {
 
         try {
             BedrockNbtReader reader = new BedrockNbtReader();
-            NbtTag root = reader.readFile(levelDat);
+            NbtView root = reader.readViewFile(levelDat);
 
             if (root != null && root.getType() == NbtTag.TAG_COMPOUND) {
-                Map<String, NbtTag> compound = root.getCompound();
-
-                NbtTag gameModeTag = compound.get("GameType");
+                NbtView gameModeTag = root.get("GameType");
                 if (gameModeTag != null) {
                     int gameModeInt = gameModeTag.getInt();
                     gameMode = getGameModeName(gameModeInt);
                 }
 
                 if (worldName == null || worldName.isEmpty() || worldName.equals(file.getName())) {
-                    NbtTag levelNameTag = compound.get("LevelName");
+                    NbtView levelNameTag = root.get("LevelName");
                     if (levelNameTag != null && levelNameTag.getType() == NbtTag.TAG_STRING) {
                         String nbtName = levelNameTag.getString();
                         if (nbtName != null && !nbtName.isEmpty()) {
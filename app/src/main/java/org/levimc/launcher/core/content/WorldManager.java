@@ -5,28 +5,21 @@ import android.net.Uri;
 import android.util.Log;
 
 import org.levimc.launcher.core.versions.GameVersion;
+import org.levimc.launcher.util.FileIOUtils;
 import org.levimc.launcher.util.LauncherStorage;
+import org.levimc.launcher.util.ParallelZipWriter;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
 public class WorldManager {
     private static final String TAG = "WorldManager";
-    private static final int BUFFER_SIZE = 8192;
     
     private final Context context;
     private final ExecutorService executor;
@@ -107,7 +100,7 @@ public class WorldManager {
                 tempDir.mkdirs();
 
                 try {
-                    extractZip(inputStream, tempDir, callback);
+                    FileIOUtils.extractZip(inputStream, tempDir);
 
                     File worldDir = findWorldDirectory(tempDir);
                     if (worldDir == null) {
@@ -118,12 +111,12 @@ public class WorldManager {
                     String worldName = generateUniqueWorldName(worldDir.getName(), worldsDirectory);
                     File targetDir = new File(worldsDirectory, worldName);
 
-                    copyDirectory(worldDir, targetDir);
+                    FileIOUtils.moveDirectory(worldDir, targetDir);
                     
                     callback.onSuccess("World imported successfully");
                     
                 } finally {
-                    deleteDirectory(tempDir);
+                    FileIOUtils.deleteRecursively(tempDir);
                     inputStream.close();
                 }
 
@@ -168,9 +161,10 @@ public class WorldManager {
         }
         executor.execute(() -> {
             try {
-                createBackup(world);
+                createBackup(world, null);
                 
-                if (deleteDirectory(world.getFile())) {
+                File worldDir = world.getFile();
+                if (worldDir != null && worldDir.exists() && FileIOUtils.deleteRecursively(worldDir)) {
                     callback.onSuccess("World deleted successfully");
                 } else {
                     callback.onError("Failed to delete world");
@@ -190,7 +184,7 @@ public class WorldManager {
         }
         executor.execute(() -> {
             try {
-                String backupPath = createBackup(world);
+                String backupPath = createBackup(world, callback);
                 callback.onSuccess("Backup created: " + backupPath);
 
             } catch (Exception e) {
@@ -200,32 +194,6 @@ public class WorldManager {
         });
     }
 
-    private void extractZip(InputStream inputStream, File targetDir, WorldOperationCallback callback) throws IOException {
-        ZipInputStream zis = new ZipInputStream(inputStream);
-        ZipEntry entry;
-        byte[] buffer = new byte[BUFFER_SIZE];
-        
-        while ((entry = zis.getNextEntry()) != null) {
-            File entryFile = new File(targetDir, entry.getName());
-
-            if (!entryFile.getCanonicalPath().startsWith(targetDir.getCanonicalPath())) {
-                continue;
-            }
-            
-            if (entry.isDirectory()) {
-                entryFile.mkdirs();
-            } else {
-                entryFile.getParentFile().mkdirs();
-                try (FileOutputStream fos = new FileOutputStream(entryFile)) {
-                    int len;
-                    while ((len = zis.read(buffer)) > 0) {
-                        fos.write(buffer, 0, len);
-                    }
-                }
-            }
-        }
-    }
-
     private File findWorldDirectory(File searchDir) {
         File levelDat = new File(searchDir, "level.dat");
         if (levelDat.exists()) {
@@ -262,101 +230,91 @@ public class WorldManager {
         return worldName;
     }
 
-    private void copyDirectory(File source, File target) throws IOException {
-        if (source.isDirectory()) {
-            if (!target.exists()) {
-                target.mkdirs();
-            }
-            
-            File[] files = source.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    copyDirectory(file, new File(target, file.getName()));
-                }
-            }
-        } else {
-            copyFile(source, target);
-        }
-    }
-
-    private void copyFile(File source, File target) throws IOException {
-        target.getParentFile().mkdirs();
-        try (FileInputStream fis = new FileInputStream(source);
-             FileOutputStream fos = new FileOutputStream(target)) {
-            
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = fis.read(buffer)) > 0) {
-                fos.write(buffer, 0, len);
-            }
-        }
+    private void createWorldZip(File worldDir, OutputStream outputStream, WorldOperationCallback callback) throws IOException {
+        ParallelZipWriter.writeDirectory(worldDir, outputStream, callback != null ? new PercentProgress(callback) : null);
     }
 
-    private void createWorldZip(File worldDir, OutputStream outputStream, WorldOperationCallback callback) throws IOException {
-        ZipOutputStream zos = new ZipOutputStream(outputStream);
-        zipDirectory(worldDir, "", zos);
-        zos.close();
+    private String createBackup(WorldItem world, WorldOperationCallback callback) throws IOException {
+        WorldBackupStore store = new WorldBackupStore(LauncherStorage.getWorldBackupsDir(context));
+        File snapshot = store.createSnapshot(world.getFile(), world.getName(),
+                callback != null ? new PercentProgress(callback) : null);
+        return snapshot.getAbsolutePath();
     }
 
-    private void zipDirectory(File dir, String basePath, ZipOutputStream zos) throws IOException {
-        File[] files = dir.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                String entryPath = basePath.isEmpty() ? file.getName() : basePath + "/" + file.getName();
-                if (file.isDirectory()) {
-                    zipDirectory(file, entryPath, zos);
-                } else {
-                    ZipEntry entry = new ZipEntry(entryPath);
-                    zos.putNextEntry(entry);
-                    
-                    try (FileInputStream fis = new FileInputStream(file)) {
-                        byte[] buffer = new byte[BUFFER_SIZE];
-                        int len;
-                        while ((len = fis.read(buffer)) > 0) {
-                            zos.write(buffer, 0, len);
-                        }
-                    }
-                    zos.closeEntry();
-                }
+    public List<WorldBackupItem> getBackups() {
+        WorldBackupStore store = new WorldBackupStore(LauncherStorage.getWorldBackupsDir(context));
+        List<WorldBackupItem> backups = new ArrayList<>();
+        for (File snapshot : store.listAllSnapshots()) {
+            try {
+                backups.add(store.describeSnapshot(snapshot));
+            } catch (IOException e) {
+                Log.w(TAG, "Skipping unreadable backup " + snapshot.getName() + " - " + e.getMessage());
             }
         }
+        return backups;
     }
 
-    private String createBackup(WorldItem world) throws IOException {
-        File backupDir = LauncherStorage.getWorldBackupsDir(context);
-        backupDir.mkdirs();
-        
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
-        String backupName = world.getName() + "_" + timestamp + ".mcworld";
-        File backupFile = new File(backupDir, backupName);
-        
-        try (FileOutputStream fos = new FileOutputStream(backupFile)) {
-            createWorldZip(world.getFile(), fos, null);
+    public void restoreBackup(File snapshot, WorldOperationCallback callback) {
+        if (executor.isShutdown()) {
+            callback.onError("WorldManager has been shut down");
+            return;
         }
-        
-        return backupFile.getAbsolutePath();
-    }
+        executor.execute(() -> {
+            File tempDir = null;
+            try {
+                if (worldsDirectory == null) {
+                    callback.onError("No version selected");
+                    return;
+                }
 
-    private boolean deleteDirectory(File dir) {
-        if (dir == null || !dir.exists()) return false;
-        
-        File[] files = dir.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    deleteDirectory(file);
-                } else {
-                    file.delete();
+                WorldBackupStore store = new WorldBackupStore(LauncherStorage.getWorldBackupsDir(context));
+                String worldId = store.getWorldId(snapshot);
+
+                tempDir = new File(worldsDirectory, ".restore_" + System.currentTimeMillis());
+                store.restoreSnapshot(snapshot, tempDir);
+
+                File targetDir = new File(worldsDirectory, generateUniqueWorldName(worldId, worldsDirectory));
+                if (!tempDir.renameTo(targetDir)) {
+                    callback.onError("Failed to restore world");
+                    return;
+                }
+                tempDir = null;
+                callback.onSuccess("World restored to " + targetDir.getName());
+
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to restore world backup", e);
+                callback.onError("Restore failed: " + e.getMessage());
+            } finally {
+                if (tempDir != null) {
+                    FileIOUtils.deleteRecursively(tempDir);
                 }
             }
-        }
-        return dir.delete();
+        });
     }
 
     public void shutdown() {
         executor.shutdown();
     }
 
+    private static final class PercentProgress implements ParallelZipWriter.ProgressListener,
+            WorldBackupStore.ProgressListener {
+        private final WorldOperationCallback callback;
+        private int lastPercent = -1;
+
+        PercentProgress(WorldOperationCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void onProgress(long bytesDone, long bytesTotal) {
+            int percent = bytesTotal > 0 ? (int) (bytesDone * 100 / bytesTotal) : 100;
+            if (percent != lastPercent) {
+                lastPercent = percent;
+                callback.onProgress(percent);
+            }
+        }
+    }
+
     public void transferWorld(WorldItem world, File targetDirectory, WorldOperationCallback callback) {
         if (executor.isShutdown()) {
             callback.onError("WorldManager has been shut down");
@@ -387,8 +345,7 @@ public class WorldManager {
                 String worldName = generateUniqueWorldName(sourceDir.getName(), targetDirectory);
                 File targetDir = new File(targetDirectory, worldName);
 
-                copyDirectory(sourceDir, targetDir);
-                deleteDirectory(sourceDir);
+                FileIOUtils.moveDirectory(sourceDir, targetDir);
 
                 callback.onSuccess("World transferred successfully");
 
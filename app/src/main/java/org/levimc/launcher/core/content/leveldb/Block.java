@@ -0,0 +1,32 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+final class Block {
+    private final ByteBuffer data;
+    private final int restartOffset;
+    private final int numRestarts;
+
+    Block(ByteBuffer data) throws IOException {
+        this.data = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int limit = this.data.limit();
+        if (limit < 4) {
+            throw new IOException("Block too small: " + limit);
+        }
+        numRestarts = this.data.getInt(limit - 4);
+        if (numRestarts < 0 || numRestarts > (limit - 4) / 4) {
+            throw new IOException("Invalid restart count: " + numRestarts);
+        }
+        restartOffset = limit - 4 - numRestarts * 4;
+    }
+
+    int size() {
+        return data.limit();
+    }
+
+    BlockIterator iterator() {
+        return new BlockIterator(data.duplicate().order(ByteOrder.LITTLE_ENDIAN), restartOffset, numRestarts);
+    }
+}
@@ -0,0 +1,137 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class BlockCache {
+    private static final long DEFAULT_CAPACITY_BYTES = 32L * 1024 * 1024;
+
+    private static volatile BlockCache shared;
+
+    private final long capacityBytes;
+    private final LinkedHashMap<Key, byte[]> blocks = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long sizeBytes;
+
+    public BlockCache(long capacityBytes) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacityBytes);
+        }
+        this.capacityBytes = capacityBytes;
+    }
+
+    public static BlockCache getShared() {
+        BlockCache cache = shared;
+        if (cache == null) {
+            synchronized (BlockCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    cache = new BlockCache(DEFAULT_CAPACITY_BYTES);
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    byte[] get(Key key) {
+        byte[] block;
+        synchronized (blocks) {
+            block = blocks.get(key);
+        }
+        if (block != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return block;
+    }
+
+    void put(Key key, byte[] block) {
+        if (block.length > capacityBytes / 4) {
+            return;
+        }
+        synchronized (blocks) {
+            byte[] previous = blocks.put(key, block);
+            if (previous != null) {
+                sizeBytes -= previous.length;
+            }
+            sizeBytes += block.length;
+
+            Iterator<Map.Entry<Key, byte[]>> eldest = blocks.entrySet().iterator();
+            while (sizeBytes > capacityBytes && eldest.hasNext()) {
+                sizeBytes -= eldest.next().getValue().length;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (blocks) {
+            blocks.clear();
+            sizeBytes = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getSizeBytes() {
+        synchronized (blocks) {
+            return sizeBytes;
+        }
+    }
+
+    public long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "BlockCache{hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", size=" + getSizeBytes() + "/" + capacityBytes + "}";
+    }
+
+    static final class Key {
+        final String dbPath;
+        final long fileNumber;
+        final long lastModified;
+        final long offset;
+
+        Key(String dbPath, long fileNumber, long lastModified, long offset) {
+            this.dbPath = dbPath;
+            this.fileNumber = fileNumber;
+            this.lastModified = lastModified;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return fileNumber == other.fileNumber && offset == other.offset
+                    && lastModified == other.lastModified && dbPath.equals(other.dbPath);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dbPath, fileNumber, lastModified, offset);
+        }
+    }
+}
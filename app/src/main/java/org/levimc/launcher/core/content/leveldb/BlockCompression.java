@@ -0,0 +1,244 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+final class BlockCompression {
+    private static final String TAG = "BlockCompression";
+
+    static final byte NONE = 0;
+    static final byte SNAPPY = 1;
+    static final byte ZLIB = 2;
+    static final byte ZLIB_RAW = 4;
+    static final byte LZ4 = 5;
+    static final byte ZSTD = 7;
+
+    private static final int MAX_DECOMPRESSED_SIZE = 100 * 1024 * 1024;
+
+    private BlockCompression() {
+    }
+
+    static byte[] decompress(byte compressionType, ByteBuffer contents) {
+        if (compressionType == ZLIB || compressionType == ZLIB_RAW) {
+            return decompressZlib(contents, compressionType == ZLIB_RAW);
+        }
+
+        byte[] blockData = new byte[contents.remaining()];
+        contents.duplicate().get(blockData);
+        byte[] decompressed = blockData;
+        if (compressionType == SNAPPY) {
+            decompressed = decompressSnappy(blockData);
+        } else if (compressionType == LZ4) {
+            decompressed = decompressLZ4(blockData);
+        } else if (compressionType == ZSTD) {
+            decompressed = decompressZstd(blockData);
+        } else if (compressionType != NONE) {
+            Log.w(TAG, "Unknown block compression type " + compressionType);
+        }
+
+        if (decompressed == null || decompressed.length == 0) {
+            decompressed = blockData;
+        }
+        return decompressed;
+    }
+
+    static void releaseThreadResources() {
+        BlockInflater.release();
+    }
+
+    private static byte[] decompressSnappy(byte[] data) {
+        try {
+            if (data.length == 0) return data;
+
+            int[] result = LevelDBFormat.readVarInt(data, 0);
+            int uncompressedLen = result[0];
+            int pos = result[1];
+
+            if (uncompressedLen <= 0 || uncompressedLen > MAX_DECOMPRESSED_SIZE) {
+                return data;
+            }
+
+            byte[] output = new byte[uncompressedLen];
+            int outPos = 0;
+
+            while (pos < data.length && outPos < uncompressedLen) {
+                int tag = data[pos++] & 0xFF;
+                int tagType = tag & 0x03;
+
+                if (tagType == 0) {
+                    int len = (tag >> 2);
+                    if (len < 60) {
+                        len += 1;
+                    } else {
+                        int extraBytes = len - 59;
+                        len = 0;
+                        for (int i = 0; i < extraBytes && pos < data.length; i++) {
+                            len |= (data[pos++] & 0xFF) << (8 * i);
+                        }
+                        len += 1;
+                    }
+
+                    if (pos + len > data.length || outPos + len > uncompressedLen) {
+                        break;
+                    }
+                    System.arraycopy(data, pos, output, outPos, len);
+                    pos += len;
+                    outPos += len;
+                } else {
+                    int len, offset;
+                    if (tagType == 1) {
+                        len = ((tag >> 2) & 0x07) + 4;
+                        if (pos >= data.length) break;
+                        offset = ((tag & 0xE0) << 3) | (data[pos++] & 0xFF);
+                    } else if (tagType == 2) {
+                        len = (tag >> 2) + 1;
+                        if (pos + 2 > data.length) break;
+                        offset = (data[pos++] & 0xFF) | ((data[pos++] & 0xFF) << 8);
+                    } else {
+                        len = (tag >> 2) + 1;
+                        if (pos + 4 > data.length) break;
+                        offset = (data[pos++] & 0xFF) | ((data[pos++] & 0xFF) << 8) |
+                                ((data[pos++] & 0xFF) << 16) | ((data[pos++] & 0xFF) << 24);
+                    }
+
+                    if (offset <= 0 || offset > outPos) {
+                        break;
+                    }
+
+                    len = Math.min(len, uncompressedLen - outPos);
+                    copyMatch(output, outPos - offset, outPos, len);
+                    outPos += len;
+                }
+            }
+
+            if (outPos == uncompressedLen) {
+                return output;
+            } else {
+                Log.w(TAG, "Snappy decompression incomplete: " + outPos + "/" + uncompressedLen);
+                return Arrays.copyOf(output, outPos);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Snappy decompression failed", e);
+            return data;
+        }
+    }
+
+    private static byte[] decompressZlib(ByteBuffer contents, boolean raw) {
+        try {
+            return BlockInflater.get().inflate(contents, raw);
+        } catch (DataFormatException e) {
+            Log.w(TAG, (raw ? "Raw deflate" : "Zlib") + " decompression failed - " + e.getMessage());
+            byte[] data = new byte[contents.remaining()];
+            contents.duplicate().get(data);
+            return data;
+        }
+    }
+
+    private static byte[] decompressLZ4(byte[] data) {
+        try {
+            if (data.length < 4) return data;
+
+            int uncompressedSize = LevelDBFormat.readInt32LE(data, 0);
+            if (uncompressedSize <= 0 || uncompressedSize > MAX_DECOMPRESSED_SIZE) {
+                return data;
+            }
+
+            byte[] output = new byte[uncompressedSize];
+            int srcPos = 4;
+            int dstPos = 0;
+
+            while (srcPos < data.length && dstPos < uncompressedSize) {
+                int token = data[srcPos++] & 0xFF;
+
+                int literalLen = token >> 4;
+                if (literalLen == 15) {
+                    int b;
+                    do {
+                        if (srcPos >= data.length) break;
+                        b = data[srcPos++] & 0xFF;
+                        literalLen += b;
+                    } while (b == 255);
+                }
+
+                if (srcPos + literalLen > data.length || dstPos + literalLen > uncompressedSize) {
+                    break;
+                }
+                System.arraycopy(data, srcPos, output, dstPos, literalLen);
+                srcPos += literalLen;
+                dstPos += literalLen;
+
+                if (srcPos >= data.length || dstPos >= uncompressedSize) {
+                    break;
+                }
+
+                if (srcPos + 2 > data.length) break;
+                int offset = (data[srcPos++] & 0xFF) | ((data[srcPos++] & 0xFF) << 8);
+                if (offset == 0 || offset > dstPos) {
+                    break;
+                }
+
+                int matchLen = (token & 0x0F) + 4;
+                if (matchLen == 19) {
+                    int b;
+                    do {
+                        if (srcPos >= data.length) break;
+                        b = data[srcPos++] & 0xFF;
+                        matchLen += b;
+                    } while (b == 255);
+                }
+
+                matchLen = Math.min(matchLen, uncompressedSize - dstPos);
+                copyMatch(output, dstPos - offset, dstPos, matchLen);
+                dstPos += matchLen;
+            }
+
+            return dstPos == uncompressedSize ? output : Arrays.copyOf(output, dstPos);
+        } catch (Exception e) {
+            Log.w(TAG, "LZ4 decompression failed", e);
+            return data;
+        }
+    }
+
+    private static void copyMatch(byte[] output, int from, int to, int length) {
+        int end = to + length;
+        while (to < end) {
+            int chunk = Math.min(end - to, to - from);
+            System.arraycopy(output, from, output, to, chunk);
+            to += chunk;
+        }
+    }
+
+    private static byte[] decompressZstd(byte[] data) {
+        try {
+            long size = Zstd.getFrameContentSize(data);
+            if (size > 0 && size <= MAX_DECOMPRESSED_SIZE) {
+                return Zstd.decompress(data, (int) size);
+            }
+
+            try (ZstdInputStream in = new ZstdInputStream(new ByteArrayInputStream(data))) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+                byte[] buffer = new byte[16 * 1024];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    if (out.size() + read > MAX_DECOMPRESSED_SIZE) {
+                        Log.w(TAG, "Zstd block exceeds " + MAX_DECOMPRESSED_SIZE + " bytes");
+                        return data;
+                    }
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            }
+        } catch (Exception | LinkageError e) {
+            Log.w(TAG, "Zstd decompression failed", e);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.nio.ByteBuffer;
+
+final class BlockHandle {
+    final long offset;
+    final long size;
+
+    BlockHandle(long offset, long size) {
+        this.offset = offset;
+        this.size = size;
+    }
+
+    static BlockHandle decode(ByteBuffer buffer) {
+        long offset = LevelDBFormat.readVarInt64(buffer);
+        long size = LevelDBFormat.readVarInt64(buffer);
+        return new BlockHandle(offset, size);
+    }
+
+    boolean isPlausible(long fileSize) {
+        return offset >= 0 && size > 0 && size < 100 * 1024 * 1024
+                && offset + size + LevelDBFormat.BLOCK_TRAILER_SIZE <= fileSize;
+    }
+}
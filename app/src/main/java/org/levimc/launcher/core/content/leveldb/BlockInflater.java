@@ -0,0 +1,107 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+final class BlockInflater {
+    private static final int MIN_BUFFER_SIZE = 32 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_OUTPUT_SIZE = 100 * 1024 * 1024;
+
+    private static final ThreadLocal<BlockInflater> LOCAL = new ThreadLocal<>();
+
+    private Inflater zlibInflater;
+    private Inflater rawInflater;
+    private byte[] input = new byte[MIN_BUFFER_SIZE];
+    private byte[] output = new byte[MIN_BUFFER_SIZE];
+
+    private BlockInflater() {
+    }
+
+    static BlockInflater get() {
+        BlockInflater inflater = LOCAL.get();
+        if (inflater == null) {
+            inflater = new BlockInflater();
+            LOCAL.set(inflater);
+        }
+        return inflater;
+    }
+
+    static void release() {
+        BlockInflater inflater = LOCAL.get();
+        if (inflater != null) {
+            LOCAL.remove();
+            inflater.end();
+        }
+    }
+
+    byte[] inflate(ByteBuffer compressed, boolean raw) throws DataFormatException {
+        int length = compressed.remaining();
+        if (input.length < length) {
+            input = new byte[Math.max(length, input.length * 2)];
+        }
+        compressed.duplicate().get(input, 0, length);
+
+        Inflater inflater = raw ? rawInflater() : zlibInflater();
+        try {
+            inflater.setInput(input, 0, length);
+            int total = 0;
+            while (!inflater.finished()) {
+                if (total == output.length) {
+                    if (output.length >= MAX_OUTPUT_SIZE) {
+                        throw new DataFormatException("Inflated block exceeds " + MAX_OUTPUT_SIZE + " bytes");
+                    }
+                    output = Arrays.copyOf(output, Math.min(output.length * 2, MAX_OUTPUT_SIZE));
+                }
+                int count = inflater.inflate(output, total, output.length - total);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                total += count;
+            }
+            if (total == 0) {
+                throw new DataFormatException("Block inflated to nothing");
+            }
+            return Arrays.copyOf(output, total);
+        } finally {
+            inflater.reset();
+            trimBuffers();
+        }
+    }
+
+    private Inflater zlibInflater() {
+        if (zlibInflater == null) {
+            zlibInflater = new Inflater(false);
+        }
+        return zlibInflater;
+    }
+
+    private Inflater rawInflater() {
+        if (rawInflater == null) {
+            rawInflater = new Inflater(true);
+        }
+        return rawInflater;
+    }
+
+    private void trimBuffers() {
+        if (input.length > MAX_RETAINED_BUFFER_SIZE) {
+            input = new byte[MIN_BUFFER_SIZE];
+        }
+        if (output.length > MAX_RETAINED_BUFFER_SIZE) {
+            output = new byte[MIN_BUFFER_SIZE];
+        }
+    }
+
+    private void end() {
+        if (zlibInflater != null) {
+            zlibInflater.end();
+            zlibInflater = null;
+        }
+        if (rawInflater != null) {
+            rawInflater.end();
+            rawInflater = null;
+        }
+    }
+}
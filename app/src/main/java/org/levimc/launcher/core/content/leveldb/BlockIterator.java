@@ -0,0 +1,146 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class BlockIterator {
+    private final ByteBuffer data;
+    private final int restartOffset;
+    private final int numRestarts;
+
+    private byte[] keyBuffer = new byte[64];
+    private int keyLength;
+    private byte[] userKey;
+    private long sequence;
+    private int valueType;
+    private int valueOffset;
+    private int valueLength;
+    private int nextOffset;
+    private boolean valid;
+
+    BlockIterator(ByteBuffer data, int restartOffset, int numRestarts) {
+        this.data = data;
+        this.restartOffset = restartOffset;
+        this.numRestarts = numRestarts;
+    }
+
+    void seekToFirst() {
+        keyLength = 0;
+        parseEntryAt(0);
+    }
+
+    void seek(byte[] target) {
+        int left = 0;
+        int right = numRestarts - 1;
+        while (left < right) {
+            int mid = (left + right + 1) >>> 1;
+            keyLength = 0;
+            parseEntryAt(restartPoint(mid));
+            if (!valid) return;
+            if (compareUserKey(target) < 0) {
+                left = mid;
+            } else {
+                right = mid - 1;
+            }
+        }
+
+        keyLength = 0;
+        parseEntryAt(numRestarts > 0 ? restartPoint(left) : 0);
+        while (valid && compareUserKey(target) < 0) {
+            parseEntryAt(nextOffset);
+        }
+    }
+
+    void next() {
+        if (!valid) return;
+        parseEntryAt(nextOffset);
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    byte[] userKey() {
+        if (userKey == null) {
+            userKey = Arrays.copyOf(keyBuffer, userKeyLength());
+        }
+        return userKey;
+    }
+
+    byte[] rawKey() {
+        return Arrays.copyOf(keyBuffer, keyLength);
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    int valueType() {
+        return valueType;
+    }
+
+    byte[] value() {
+        byte[] value = new byte[valueLength];
+        ByteBuffer view = data.duplicate();
+        view.position(valueOffset);
+        view.get(value);
+        return value;
+    }
+
+    ByteBuffer valueBuffer() {
+        ByteBuffer view = data.duplicate().order(data.order());
+        view.position(valueOffset);
+        view.limit(valueOffset + valueLength);
+        return view.slice().order(data.order());
+    }
+
+    private int restartPoint(int index) {
+        return data.getInt(restartOffset + index * 4);
+    }
+
+    private int userKeyLength() {
+        return keyLength >= 8 ? keyLength - 8 : keyLength;
+    }
+
+    private int compareUserKey(byte[] target) {
+        return LevelDBFormat.compareKeys(keyBuffer, 0, userKeyLength(), target, 0, target.length);
+    }
+
+    private void parseEntryAt(int offset) {
+        valid = false;
+        if (offset < 0 || offset >= restartOffset) {
+            return;
+        }
+
+        data.position(offset);
+        int shared = LevelDBFormat.readVarInt32(data);
+        int nonShared = LevelDBFormat.readVarInt32(data);
+        int valueLen = LevelDBFormat.readVarInt32(data);
+
+        if (shared < 0 || nonShared < 0 || valueLen < 0) return;
+        if (shared > keyLength) return;
+        if (data.position() + nonShared + valueLen > restartOffset) return;
+
+        int newLength = shared + nonShared;
+        if (newLength > keyBuffer.length) {
+            keyBuffer = Arrays.copyOf(keyBuffer, Math.max(newLength, keyBuffer.length * 2));
+        }
+        data.get(keyBuffer, shared, nonShared);
+        keyLength = newLength;
+
+        valueOffset = data.position();
+        valueLength = valueLen;
+        nextOffset = valueOffset + valueLen;
+
+        userKey = null;
+        if (keyLength >= 8) {
+            long trailer = LevelDBFormat.readInt64LE(keyBuffer, keyLength - 8);
+            sequence = trailer >>> 8;
+            valueType = (int) (trailer & 0xFF);
+        } else {
+            sequence = 0;
+            valueType = LevelDBFormat.TYPE_VALUE;
+        }
+        valid = true;
+    }
+}
@@ -0,0 +1,251 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ChunkIndex {
+    private static final String TAG = "ChunkIndex";
+
+    private static final int COORDINATE_BITS = 23;
+    private static final int COORDINATE_BIAS = 1 << (COORDINATE_BITS - 1);
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+    private static final int X_SHIFT = 39;
+    private static final int Z_SHIFT = 16;
+
+    private final Map<Integer, Records> recordsByDimension;
+    private final int keyCount;
+
+    private ChunkIndex(Map<Integer, Records> recordsByDimension, int keyCount) {
+        this.recordsByDimension = recordsByDimension;
+        this.keyCount = keyCount;
+    }
+
+    static ChunkIndex build(MergingIterator iterator) {
+        Map<Integer, RecordBuffer> buffers = new HashMap<>();
+        int keyCount = 0;
+        int skipped = 0;
+        byte[] lastKey = null;
+        try {
+            while (iterator.isValid()) {
+                if (iterator.isPending()) {
+                    iterator.open();
+                    continue;
+                }
+                byte[] key = iterator.key();
+                boolean duplicate = lastKey != null && Arrays.equals(key, lastKey);
+                lastKey = key;
+                if (!duplicate && iterator.valueType() == LevelDBFormat.TYPE_VALUE && LevelDBKey.isChunkKey(key)) {
+                    int x = LevelDBKey.chunkXOf(key);
+                    int z = LevelDBKey.chunkZOf(key);
+                    if (inRange(x) && inRange(z)) {
+                        int subChunk = LevelDBKey.subChunkIndexOf(key);
+                        int dimension = LevelDBKey.dimensionOf(key);
+                        RecordBuffer buffer = buffers.get(dimension);
+                        if (buffer == null) {
+                            buffer = new RecordBuffer();
+                            buffers.put(dimension, buffer);
+                        }
+                        buffer.add(record(x, z, LevelDBKey.tagOf(key), subChunk), iterator.sequence(),
+                                iterator.current());
+                        keyCount++;
+                    } else {
+                        skipped++;
+                    }
+                }
+                iterator.next();
+            }
+        } finally {
+            iterator.close();
+        }
+
+        Map<Integer, Records> records = new HashMap<>();
+        for (Map.Entry<Integer, RecordBuffer> entry : buffers.entrySet()) {
+            records.put(entry.getKey(), entry.getValue().toRecords());
+        }
+        Log.d(TAG, "Indexed " + keyCount + " chunk keys in " + records.size() + " dimensions"
+                + (skipped > 0 ? ", skipped " + skipped + " out of range" : ""));
+        return new ChunkIndex(records, keyCount);
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public List<Integer> getDimensions() {
+        List<Integer> dimensions = new ArrayList<>(recordsByDimension.keySet());
+        dimensions.sort(null);
+        return dimensions;
+    }
+
+    public int getChunkCount(int dimension) {
+        Records records = recordsByDimension.get(dimension);
+        if (records == null) return 0;
+        int count = 0;
+        long previous = -1;
+        for (long record : records.keys) {
+            long chunk = record >>> Z_SHIFT;
+            if (chunk != previous) {
+                count++;
+                previous = chunk;
+            }
+        }
+        return count;
+    }
+
+    public boolean containsChunk(int dimension, int chunkX, int chunkZ) {
+        Records records = recordsByDimension.get(dimension);
+        if (records == null || !inRange(chunkX) || !inRange(chunkZ)) return false;
+        int index = lowerBound(records.keys, chunkStart(chunkX, chunkZ));
+        return index < records.keys.length && records.keys[index] <= chunkEnd(chunkX, chunkZ);
+    }
+
+    public List<byte[]> findKeys(int dimension, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                                 LevelDBKey.KeyType type) {
+        List<byte[]> keys = new ArrayList<>();
+        for (PrefixIndex.KeyLocation location : findLocations(dimension, minChunkX, minChunkZ, maxChunkX, maxChunkZ, type)) {
+            keys.add(location.key);
+        }
+        return keys;
+    }
+
+    List<PrefixIndex.KeyLocation> findLocations(int dimension, int minChunkX, int minChunkZ, int maxChunkX,
+                                                int maxChunkZ, LevelDBKey.KeyType type) {
+        List<PrefixIndex.KeyLocation> locations = new ArrayList<>();
+        Records records = recordsByDimension.get(dimension);
+        if (records == null) {
+            return locations;
+        }
+        int fromX = Math.max(minChunkX, -COORDINATE_BIAS);
+        int toX = Math.min(maxChunkX, COORDINATE_BIAS - 1);
+        int fromZ = Math.max(minChunkZ, -COORDINATE_BIAS);
+        int toZ = Math.min(maxChunkZ, COORDINATE_BIAS - 1);
+        if (fromZ > toZ) {
+            return locations;
+        }
+        long[] keys = records.keys;
+        for (int x = fromX; x <= toX; x++) {
+            long end = chunkEnd(x, toZ);
+            for (int i = lowerBound(keys, chunkStart(x, fromZ)); i < keys.length && keys[i] <= end; i++) {
+                long record = keys[i];
+                int tag = (int) (record >>> 8) & 0xFF;
+                if (type != null && tag != type.id) {
+                    continue;
+                }
+                byte[] key = LevelDBKey.chunkKey(x, decode(record >>> Z_SHIFT), dimension, tag, subChunkOf(record, tag));
+                locations.add(new PrefixIndex.KeyLocation(key, records.sequences[i], LevelDBFormat.TYPE_VALUE,
+                        records.tables[i], records.blockOffsets[i], records.blockSizes[i], 0, null));
+            }
+        }
+        return locations;
+    }
+
+    public List<byte[]> findSubChunks(int dimension, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        return findKeys(dimension, minChunkX, minChunkZ, maxChunkX, maxChunkZ, LevelDBKey.KeyType.SUB_CHUNK);
+    }
+
+    private static long record(int x, int z, int tag, int subChunk) {
+        long sub = subChunk == LevelDBKey.NO_SUB_CHUNK ? 0 : (subChunk & 0xFF);
+        return ((long) (x + COORDINATE_BIAS) << X_SHIFT) | ((long) (z + COORDINATE_BIAS) << Z_SHIFT)
+                | ((long) tag << 8) | sub;
+    }
+
+    private static int subChunkOf(long record, int tag) {
+        return tag == LevelDBKey.KeyType.SUB_CHUNK.id ? (byte) record : LevelDBKey.NO_SUB_CHUNK;
+    }
+
+    private static int decode(long bits) {
+        return (int) (bits & COORDINATE_MASK) - COORDINATE_BIAS;
+    }
+
+    private static long chunkStart(int x, int z) {
+        return record(x, z, 0, LevelDBKey.NO_SUB_CHUNK);
+    }
+
+    private static long chunkEnd(int x, int z) {
+        return chunkStart(x, z) | 0xFFFF;
+    }
+
+    private static boolean inRange(int coordinate) {
+        return coordinate >= -COORDINATE_BIAS && coordinate < COORDINATE_BIAS;
+    }
+
+    private static int lowerBound(long[] records, long target) {
+        int low = 0;
+        int high = records.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (records[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class Records {
+        final long[] keys;
+        final long[] sequences;
+        final long[] tables;
+        final long[] blockOffsets;
+        final int[] blockSizes;
+
+        Records(int size) {
+            keys = new long[size];
+            sequences = new long[size];
+            tables = new long[size];
+            blockOffsets = new long[size];
+            blockSizes = new int[size];
+        }
+    }
+
+    private static final class RecordBuffer {
+        private long[] keys = new long[1024];
+        private long[] sequences = new long[1024];
+        private long[] tables = new long[1024];
+        private long[] blockOffsets = new long[1024];
+        private int[] blockSizes = new int[1024];
+        private int size;
+
+        void add(long key, long sequence, InternalIterator source) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                sequences = Arrays.copyOf(sequences, size * 2);
+                tables = Arrays.copyOf(tables, size * 2);
+                blockOffsets = Arrays.copyOf(blockOffsets, size * 2);
+                blockSizes = Arrays.copyOf(blockSizes, size * 2);
+            }
+            BlockHandle handle = source instanceof TableIterator ? ((TableIterator) source).blockHandle() : null;
+            keys[size] = key;
+            sequences[size] = sequence;
+            tables[size] = handle != null ? ((TableIterator) source).fileNumber() : -1;
+            blockOffsets[size] = handle != null ? handle.offset : 0;
+            blockSizes[size] = handle != null ? (int) handle.size : 0;
+            size++;
+        }
+
+        Records toRecords() {
+            Records records = new Records(size);
+            System.arraycopy(keys, 0, records.keys, 0, size);
+            Arrays.sort(records.keys);
+            boolean[] placed = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                int slot = lowerBound(records.keys, keys[i]);
+                while (placed[slot]) {
+                    slot++;
+                }
+                placed[slot] = true;
+                records.sequences[slot] = sequences[i];
+                records.tables[slot] = tables[i];
+                records.blockOffsets[slot] = blockOffsets[i];
+                records.blockSizes[slot] = blockSizes[i];
+            }
+            return records;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.nio.ByteBuffer;
+
+final class Crc32c {
+    private static final int POLYNOMIAL = 0x82F63B78;
+    private static final int MASK_DELTA = 0xa282ead8;
+    private static final int[] TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+            }
+            TABLE[i] = crc;
+        }
+    }
+
+    private Crc32c() {
+    }
+
+    static int value(byte[] data, int offset, int length) {
+        int crc = ~0;
+        for (int i = offset; i < offset + length; i++) {
+            crc = TABLE[(crc ^ data[i]) & 0xFF] ^ (crc >>> 8);
+        }
+        return ~crc;
+    }
+
+    static int extend(int crc, byte b) {
+        int state = ~crc;
+        state = TABLE[(state ^ b) & 0xFF] ^ (state >>> 8);
+        return ~state;
+    }
+
+    static int extend(int crc, ByteBuffer data, int offset, int length) {
+        int state = ~crc;
+        for (int i = offset; i < offset + length; i++) {
+            state = TABLE[(state ^ data.get(i)) & 0xFF] ^ (state >>> 8);
+        }
+        return ~state;
+    }
+
+    private static int shiftZeroByte(int state) {
+        return TABLE[state & 0xFF] ^ (state >>> 8);
+    }
+
+    static int mask(int crc) {
+        return ((crc >>> 15) | (crc << 17)) + MASK_DELTA;
+    }
+
+    static int unmask(int maskedCrc) {
+        int rotated = maskedCrc - MASK_DELTA;
+        return (rotated >>> 17) | (rotated << 15);
+    }
+
+    static final class Reverse {
+        private final int[] columns = new int[32];
+        private int state;
+
+        Reverse() {
+            for (int i = 0; i < 32; i++) {
+                columns[i] = 1 << i;
+            }
+        }
+
+        void prepend(byte b) {
+            state ^= apply(TABLE[b & 0xFF]);
+            for (int i = 0; i < 32; i++) {
+                columns[i] = shiftZeroByte(columns[i]);
+            }
+        }
+
+        int value() {
+            return ~(apply(~0) ^ state);
+        }
+
+        private int apply(int vector) {
+            int result = 0;
+            for (int i = 0; i < 32; i++) {
+                if ((vector & (1 << i)) != 0) {
+                    result ^= columns[i];
+                }
+            }
+            return result;
+        }
+    }
+}
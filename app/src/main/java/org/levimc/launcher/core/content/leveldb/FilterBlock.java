@@ -0,0 +1,96 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+final class FilterBlock {
+    static final String BLOOM_FILTER_NAME = "filter.leveldb.BuiltinBloomFilter2";
+
+    private static final int BLOOM_SEED = 0xbc9f1d34;
+    private static final int HASH_MULTIPLIER = 0xc6a4a793;
+
+    private final ByteBuffer data;
+    private final int offsetArrayStart;
+    private final int filterCount;
+    private final int baseLg;
+
+    FilterBlock(ByteBuffer contents) throws IOException {
+        this.data = contents.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int size = data.limit();
+        if (size < 5) {
+            throw new IOException("Filter block too small: " + size);
+        }
+        baseLg = data.get(size - 1) & 0xFF;
+        offsetArrayStart = data.getInt(size - 5);
+        if (offsetArrayStart < 0 || offsetArrayStart > size - 5) {
+            throw new IOException("Invalid filter offset array start: " + offsetArrayStart);
+        }
+        filterCount = (size - 5 - offsetArrayStart) / 4;
+    }
+
+    boolean keyMayMatch(long blockOffset, byte[] key) {
+        long index = blockOffset >>> baseLg;
+        if (index >= filterCount) {
+            return true;
+        }
+        int start = data.getInt(offsetArrayStart + (int) index * 4);
+        int limit = data.getInt(offsetArrayStart + (int) index * 4 + 4);
+        if (start == limit) {
+            return false;
+        }
+        if (start < 0 || start > limit || limit > offsetArrayStart) {
+            return true;
+        }
+        return bloomMayContain(start, limit - start, key);
+    }
+
+    private boolean bloomMayContain(int offset, int length, byte[] key) {
+        if (length < 2) {
+            return false;
+        }
+        int probes = data.get(offset + length - 1) & 0xFF;
+        if (probes > 30) {
+            return true;
+        }
+
+        long bits = (long) (length - 1) * 8;
+        int h = hash(key, BLOOM_SEED);
+        int delta = (h >>> 17) | (h << 15);
+        for (int j = 0; j < probes; j++) {
+            long bitPosition = (h & 0xFFFFFFFFL) % bits;
+            int b = data.get(offset + (int) (bitPosition / 8)) & 0xFF;
+            if ((b & (1 << (bitPosition % 8))) == 0) {
+                return false;
+            }
+            h += delta;
+        }
+        return true;
+    }
+
+    static int hash(byte[] data, int seed) {
+        int n = data.length;
+        int h = seed ^ (n * HASH_MULTIPLIER);
+        int i = 0;
+        for (; i + 4 <= n; i += 4) {
+            int w = LevelDBFormat.readInt32LE(data, i);
+            h += w;
+            h *= HASH_MULTIPLIER;
+            h ^= (h >>> 16);
+        }
+        switch (n - i) {
+            case 3:
+                h += (data[i + 2] & 0xFF) << 16;
+            case 2:
+                h += (data[i + 1] & 0xFF) << 8;
+            case 1:
+                h += data[i] & 0xFF;
+                h *= HASH_MULTIPLIER;
+                h ^= (h >>> 24);
+                break;
+            default:
+                break;
+        }
+        return h;
+    }
+}
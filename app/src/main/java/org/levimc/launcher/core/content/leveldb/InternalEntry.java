@@ -0,0 +1,19 @@
+package org.levimc.launcher.core.content.leveldb;
+
+final class InternalEntry {
+    final byte[] key;
+    final long sequence;
+    final int valueType;
+    final byte[] value;
+
+    InternalEntry(byte[] key, long sequence, int valueType, byte[] value) {
+        this.key = key;
+        this.sequence = sequence;
+        this.valueType = valueType;
+        this.value = value;
+    }
+
+    boolean isDeletion() {
+        return valueType == LevelDBFormat.TYPE_DELETION;
+    }
+}
@@ -0,0 +1,29 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.io.Closeable;
+
+interface InternalIterator extends Closeable {
+    boolean isValid();
+
+    void seek(byte[] target);
+
+    void next();
+
+    byte[] key();
+
+    long sequence();
+
+    int valueType();
+
+    byte[] value();
+
+    default boolean isPending() {
+        return false;
+    }
+
+    default void open() {
+    }
+
+    @Override
+    void close();
+}
@@ -0,0 +1,115 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+final class LevelDBFormat {
+    static final long TABLE_MAGIC_NUMBER = 0xdb4775248b80fb57L;
+    static final int BLOCK_TRAILER_SIZE = 5;
+    static final int FOOTER_SIZE = 48;
+    static final int LOG_BLOCK_SIZE = 32768;
+    static final int LOG_HEADER_SIZE = 7;
+
+    static final int TYPE_DELETION = 0;
+    static final int TYPE_VALUE = 1;
+
+    static final long MAX_SEQUENCE = (1L << 56) - 1;
+
+    private LevelDBFormat() {
+    }
+
+    static int compareKeys(byte[] a, byte[] b) {
+        return compareKeys(a, 0, a.length, b, 0, b.length);
+    }
+
+    static int compareKeys(byte[] a, int aOffset, int aLength, byte[] b, int bOffset, int bLength) {
+        int min = Math.min(aLength, bLength);
+        for (int i = 0; i < min; i++) {
+            int diff = (a[aOffset + i] & 0xFF) - (b[bOffset + i] & 0xFF);
+            if (diff != 0) return diff;
+        }
+        return aLength - bLength;
+    }
+
+    static int compareInternal(byte[] aKey, long aSequence, byte[] bKey, long bSequence) {
+        int cmp = compareKeys(aKey, bKey);
+        if (cmp != 0) return cmp;
+        return Long.compare(bSequence, aSequence);
+    }
+
+    static boolean startsWith(byte[] key, byte[] prefix) {
+        if (key == null || key.length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    static int readVarInt32(ByteBuffer buffer) {
+        int result = 0;
+        int shift = 0;
+        while (buffer.hasRemaining() && shift < 35) {
+            byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+            shift += 7;
+        }
+        return result;
+    }
+
+    static long readVarInt64(ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        while (buffer.hasRemaining() && shift < 70) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+            shift += 7;
+        }
+        return result;
+    }
+
+    static int[] readVarInt(byte[] data, int pos) {
+        int result = 0;
+        int shift = 0;
+        while (pos < data.length && shift < 35) {
+            byte b = data[pos++];
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+            shift += 7;
+        }
+        return new int[]{result, pos};
+    }
+
+    static int readInt32LE(byte[] data, int pos) {
+        if (pos + 4 > data.length) return 0;
+        return (data[pos] & 0xFF) |
+               ((data[pos + 1] & 0xFF) << 8) |
+               ((data[pos + 2] & 0xFF) << 16) |
+               ((data[pos + 3] & 0xFF) << 24);
+    }
+
+    static long readInt64LE(byte[] data, int pos) {
+        if (pos + 8 > data.length) return 0;
+        return (readInt32LE(data, pos) & 0xFFFFFFFFL) | ((long) readInt32LE(data, pos + 4) << 32);
+    }
+
+    static int readInt16LE(byte[] data, int pos) {
+        if (pos + 2 > data.length) return 0;
+        return (data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8);
+    }
+
+    static String tableFileName(long fileNumber, String extension) {
+        return String.format(Locale.ROOT, "%06d.%s", fileNumber, extension);
+    }
+
+    static long parseFileNumber(String name) {
+        int dot = name.indexOf('.');
+        String digits = dot >= 0 ? name.substring(0, dot) : name;
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class LevelDBIterator implements Iterator<LevelDBEntry>, Closeable {
+    private final InternalIterator iterator;
+    private final byte[] prefix;
+    private LevelDBEntry nextEntry;
+    private byte[] lastKey;
+    private boolean closed;
+
+    LevelDBIterator(InternalIterator iterator, byte[] prefix) {
+        this.iterator = iterator;
+        this.prefix = prefix;
+        advance();
+    }
+
+    private void advance() {
+        nextEntry = null;
+        while (!closed && iterator.isValid()) {
+            byte[] key = iterator.key();
+            if (prefix != null && !LevelDBFormat.startsWith(key, prefix)) {
+                break;
+            }
+            if (lastKey != null && Arrays.equals(key, lastKey)) {
+                iterator.next();
+                continue;
+            }
+            lastKey = key;
+
+            if (iterator.valueType() == LevelDBFormat.TYPE_VALUE) {
+                nextEntry = new LevelDBEntry(key, iterator.value());
+                iterator.next();
+                return;
+            }
+            iterator.next();
+        }
+        close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextEntry != null;
+    }
+
+    @Override
+    public LevelDBEntry next() {
+        if (nextEntry == null) {
+            throw new NoSuchElementException();
+        }
+        LevelDBEntry entry = nextEntry;
+        advance();
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        iterator.close();
+    }
+}
@@ -3,6 +3,13 @@ package org.levimc.launcher.core.content.leveldb;
 import java.nio.charset.StandardCharsets;
 
 public class LevelDBKey {
+    public static final String STRUCTURE_PREFIX = "structuretemplate_";
+    public static final int NO_SUB_CHUNK = Integer.MIN_VALUE;
+    public static final int MAX_DIMENSION = 2;
+
+    private static final byte[] STRUCTURE_PREFIX_BYTES = STRUCTURE_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final KeyType[] TYPES_BY_TAG = new KeyType[256];
+
     public enum KeyType {
         CHUNK_VERSION(0x2c, "ChunkVersion"),
         CHUNK(0x2d, "Chunk"),
@@ -37,62 +44,157 @@ public class LevelDBKey {
         }
 
         public static KeyType fromId(int id) {
-            for (KeyType type : values()) {
-                if (type.id == id) return type;
+            if (id < 0 || id >= TYPES_BY_TAG.length) return UNKNOWN;
+            return TYPES_BY_TAG[id];
+        }
+    }
+
+    static {
+        for (int i = 0; i < TYPES_BY_TAG.length; i++) {
+            TYPES_BY_TAG[i] = KeyType.UNKNOWN;
+        }
+        KeyType[] types = KeyType.values();
+        for (int i = types.length - 1; i >= 0; i--) {
+            if (types[i].id >= 0) {
+                TYPES_BY_TAG[types[i].id] = types[i];
             }
-            return UNKNOWN;
         }
     }
 
     private final byte[] rawKey;
-    private KeyType keyType = KeyType.GENERAL;
-    private int subChunkIndex = -1;
+    private final KeyType keyType;
+    private final boolean isChunkKey;
+    private final int chunkX;
+    private final int chunkZ;
+    private final int dimension;
+    private final int subChunkIndex;
     private String stringKey;
-    private boolean isChunkKey;
 
     public LevelDBKey(byte[] key) {
         this.rawKey = key;
-        parseKey();
+        this.keyType = typeOf(key);
+        this.isChunkKey = keyType.id >= 0;
+        if (isChunkKey) {
+            chunkX = LevelDBFormat.readInt32LE(key, 0);
+            chunkZ = LevelDBFormat.readInt32LE(key, 4);
+            dimension = dimensionOf(key);
+            subChunkIndex = subChunkIndexOf(key);
+        } else {
+            chunkX = 0;
+            chunkZ = 0;
+            dimension = 0;
+            subChunkIndex = NO_SUB_CHUNK;
+        }
     }
 
-    private void parseKey() {
-        if (rawKey == null || rawKey.length == 0) {
-            keyType = KeyType.UNKNOWN;
-            return;
+    public static KeyType typeOf(byte[] key) {
+        if (key == null || key.length == 0) {
+            return KeyType.UNKNOWN;
+        }
+        KeyType type;
+        switch (key.length) {
+            case 9:
+            case 10:
+                type = KeyType.fromId(key[8] & 0xFF);
+                break;
+            case 13:
+            case 14:
+                int dimension = LevelDBFormat.readInt32LE(key, 8);
+                type = dimension > 0 && dimension <= MAX_DIMENSION ? KeyType.fromId(key[12] & 0xFF) : KeyType.UNKNOWN;
+                break;
+            default:
+                return KeyType.GENERAL;
         }
+        boolean hasSubChunk = key.length == 10 || key.length == 14;
+        if (type == KeyType.UNKNOWN || hasSubChunk != (type == KeyType.SUB_CHUNK)) {
+            return KeyType.GENERAL;
+        }
+        return type;
+    }
 
-        if (rawKey.length == 9 || rawKey.length == 10 || rawKey.length == 13 || rawKey.length == 14) {
-
-            if (rawKey.length == 9) {
-                keyType = KeyType.fromId(rawKey[8] & 0xFF);
-                isChunkKey = keyType.id >= 0;
-            } else if (rawKey.length == 10) {
-                keyType = KeyType.fromId(rawKey[8] & 0xFF);
-                subChunkIndex = rawKey[9] & 0xFF;
-                isChunkKey = keyType.id >= 0;
-            } else if (rawKey.length == 13) {
-                keyType = KeyType.fromId(rawKey[12] & 0xFF);
-                isChunkKey = keyType.id >= 0;
-            } else {
-                keyType = KeyType.fromId(rawKey[12] & 0xFF);
-                subChunkIndex = rawKey[13] & 0xFF;
-                isChunkKey = keyType.id >= 0;
-            }
-        } else {
-            isChunkKey = false;
-            keyType = KeyType.GENERAL;
-            try {
-                stringKey = new String(rawKey, StandardCharsets.UTF_8);
-            } catch (Exception e) {
-                stringKey = bytesToHex(rawKey);
-            }
+    public static boolean isChunkKey(byte[] key) {
+        return typeOf(key).id >= 0;
+    }
+
+    public static int chunkXOf(byte[] key) {
+        return LevelDBFormat.readInt32LE(key, 0);
+    }
+
+    public static int chunkZOf(byte[] key) {
+        return LevelDBFormat.readInt32LE(key, 4);
+    }
+
+    public static int dimensionOf(byte[] key) {
+        return key.length >= 13 ? LevelDBFormat.readInt32LE(key, 8) : 0;
+    }
+
+    public static int tagOf(byte[] key) {
+        return key[key.length >= 13 ? 12 : 8] & 0xFF;
+    }
+
+    public static int subChunkIndexOf(byte[] key) {
+        return key.length == 10 || key.length == 14 ? key[key.length - 1] : NO_SUB_CHUNK;
+    }
+
+    public static byte[] chunkKey(int chunkX, int chunkZ, int dimension, int tag, int subChunkIndex) {
+        int length = (dimension != 0 ? 13 : 9) + (subChunkIndex != NO_SUB_CHUNK ? 1 : 0);
+        byte[] key = new byte[length];
+        writeInt32LE(key, 0, chunkX);
+        writeInt32LE(key, 4, chunkZ);
+        int pos = 8;
+        if (dimension != 0) {
+            writeInt32LE(key, pos, dimension);
+            pos += 4;
         }
+        key[pos++] = (byte) tag;
+        if (pos < length) {
+            key[pos] = (byte) subChunkIndex;
+        }
+        return key;
+    }
+
+    private static void writeInt32LE(byte[] data, int pos, int value) {
+        data[pos] = (byte) value;
+        data[pos + 1] = (byte) (value >> 8);
+        data[pos + 2] = (byte) (value >> 16);
+        data[pos + 3] = (byte) (value >> 24);
     }
 
     public byte[] getRawKey() {
         return rawKey;
     }
 
+    public KeyType getKeyType() {
+        return keyType;
+    }
+
+    public boolean isChunkKey() {
+        return isChunkKey;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getSubChunkIndex() {
+        return subChunkIndex;
+    }
+
+    private String getStringKey() {
+        if (stringKey == null && !isChunkKey && keyType == KeyType.GENERAL) {
+            stringKey = new String(rawKey, StandardCharsets.UTF_8);
+        }
+        return stringKey;
+    }
+
     public String getDisplayName() {
         if (isStructureKey()) {
             String structureId = getStructureId();
@@ -100,12 +202,13 @@ public class LevelDBKey {
         }
         if (isChunkKey) {
             String name = keyType.name;
-            if (subChunkIndex >= 0) {
+            if (subChunkIndex != NO_SUB_CHUNK) {
                 name += " #" + subChunkIndex;
             }
             return name;
         }
-        return stringKey != null ? stringKey : bytesToHex(rawKey);
+        String string = getStringKey();
+        return string != null ? string : bytesToHex(rawKey);
     }
 
     public static String bytesToHex(byte[] bytes) {
@@ -118,36 +221,15 @@ public class LevelDBKey {
     }
 
     public boolean isStructureKey() {
-        if (stringKey != null && stringKey.startsWith("structuretemplate_")) {
-            return true;
-        }
-        if (rawKey != null && rawKey.length > 18) {
-            byte[] prefix = "structuretemplate_".getBytes();
-            boolean match = true;
-            for (int i = 0; i < prefix.length && i < rawKey.length; i++) {
-                if (rawKey[i] != prefix[i]) {
-                    match = false;
-                    break;
-                }
-            }
-            return match;
-        }
-        return false;
+        return rawKey != null && rawKey.length > STRUCTURE_PREFIX_BYTES.length
+                && LevelDBFormat.startsWith(rawKey, STRUCTURE_PREFIX_BYTES);
     }
 
     public String getStructureId() {
-        if (stringKey != null && stringKey.startsWith("structuretemplate_")) {
-            return stringKey.substring("structuretemplate_".length());
-        }
-        if (rawKey != null && rawKey.length > 18) {
-            try {
-                String keyStr = new String(rawKey, StandardCharsets.UTF_8);
-                if (keyStr.startsWith("structuretemplate_")) {
-                    return keyStr.substring("structuretemplate_".length());
-                }
-            } catch (Exception e) {
-            }
+        if (!isStructureKey()) {
+            return null;
         }
-        return null;
+        return new String(rawKey, STRUCTURE_PREFIX_BYTES.length, rawKey.length - STRUCTURE_PREFIX_BYTES.length,
+                StandardCharsets.UTF_8);
     }
 }
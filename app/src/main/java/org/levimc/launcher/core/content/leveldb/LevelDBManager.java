@@ -2,158 +2,349 @@ package org.levimc.launcher.core.content.leveldb;
 
 import android.util.Log;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 public class LevelDBManager {
     private static final String TAG = "LevelDBManager";
-
-    public interface LoadCallback {
-        void onProgress(int current, int total);
-        void onComplete(List<LevelDBEntry> entries);
-        void onError(String error);
-    }
+    private static final byte[] STRUCTURE_PREFIX = LevelDBKey.STRUCTURE_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_DECODE_THREADS = 8;
+    private static final int EXPORT_QUEUE_CAPACITY = 32;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
 
     public interface StructureExportCallback {
-        void onProgress(int current, int total, String structureName);
+        void onProgress(long bytesWritten, long bytesRead, String structureName);
         void onComplete(int exportedCount, String outputPath);
         void onError(String error);
     }
 
+    public interface StructureVisitor {
+        boolean visitStructure(LevelDBEntry entry) throws IOException;
+    }
+
     private final File dbDir;
+    private final BlockCache blockCache;
     private final ExecutorService executor;
-    private List<LevelDBEntry> entries;
-    private List<LevelDBEntry> structureEntries;
+    private ForkJoinPool decodePool;
 
     public LevelDBManager(File worldDir) {
+        this(worldDir, BlockCache.getShared());
+    }
+
+    public LevelDBManager(File worldDir, BlockCache blockCache) {
         this.dbDir = new File(worldDir, "db");
+        this.blockCache = blockCache;
         this.executor = Executors.newSingleThreadExecutor();
-        this.entries = new ArrayList<>();
-        this.structureEntries = new ArrayList<>();
     }
 
-    public void loadDatabase(LoadCallback callback) {
-        executor.execute(() -> {
-            try {
-                if (!dbDir.exists() || !dbDir.isDirectory()) {
-                    callback.onError("Database directory not found: " + dbDir.getAbsolutePath());
-                    return;
-                }
-
-                LevelDBReader reader = new LevelDBReader(dbDir);
-                entries = reader.readAllEntries();
-                reader.close();
-
-                Log.d(TAG, "Loaded " + entries.size() + " entries from database");
-
-                callback.onProgress(50, 100);
-
-                categorizeEntries();
-
-                Log.d(TAG, "Found " + structureEntries.size() + " structures");
-
-                callback.onProgress(100, 100);
-                callback.onComplete(entries);
+    public int forEachStructure(StructureVisitor visitor) throws IOException {
+        return forEachStructure(null, visitor);
+    }
 
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to load database", e);
-                callback.onError("Failed to load database: " + e.getMessage());
-            }
-        });
+    public int forEachStructure(File indexFile, StructureVisitor visitor) throws IOException {
+        return forEachStructure(indexFile, null, visitor);
     }
 
-    private void categorizeEntries() {
-        structureEntries.clear();
+    public int forEachStructure(File indexFile, LevelDBReader.ScanListener listener, StructureVisitor visitor)
+            throws IOException {
+        if (!dbDir.exists() || !dbDir.isDirectory()) {
+            throw new FileNotFoundException("Database directory not found: " + dbDir.getAbsolutePath());
+        }
 
-        for (LevelDBEntry entry : entries) {
-            LevelDBKey key = entry.getKey();
-            if (key.isStructureKey()) {
-                structureEntries.add(entry);
-                String structureId = key.getStructureId();
-                byte[] value = entry.getValue();
-                Log.d(TAG, "Found structure: " + structureId +
-                      " (value size: " + (value != null ? value.length : 0) + " bytes)");
+        int visited = 0;
+        LevelDBReader reader = new LevelDBReader(dbDir, blockCache);
+        try {
+            if (indexFile != null) {
+                visited = reader.visitPrefix(STRUCTURE_PREFIX, indexFile, decodePool(), listener,
+                        location -> visitor.visitStructure(new LevelDBEntry(location.key, reader.readValue(location))));
+            } else {
+                try (LevelDBIterator iterator = reader.scanPrefix(STRUCTURE_PREFIX)) {
+                    while (iterator.hasNext()) {
+                        visited++;
+                        if (!visitor.visitStructure(iterator.next())) {
+                            break;
+                        }
+                    }
+                }
+            }
+            for (LostRange range : reader.getLostRanges()) {
+                Log.w(TAG, "Lost damaged range " + range);
             }
+        } finally {
+            reader.close();
         }
+        return visited;
+    }
 
-        Log.d(TAG, "Categorization complete: " + structureEntries.size() + " structures found");
+    private synchronized ForkJoinPool decodePool() {
+        if (decodePool == null && !executor.isShutdown()) {
+            decodePool = new ForkJoinPool(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_DECODE_THREADS)),
+                    DecodeWorker::new, null, false);
+        }
+        return decodePool;
     }
 
-    public List<LevelDBEntry> getStructureEntries() {
-        return structureEntries;
+    public BlockCache getBlockCache() {
+        return blockCache;
     }
 
     public void exportAllStructures(File outputDir, StructureExportCallback callback) {
-        executor.execute(() -> {
-            try {
-                if (structureEntries.isEmpty()) {
-                    callback.onError("No structures found in this world");
-                    return;
-                }
+        exportAllStructures(outputDir, null, callback);
+    }
 
-                int total = structureEntries.size();
-                int exported = 0;
+    public void exportAllStructures(File outputDir, File packFile, StructureExportCallback callback) {
+        executor.execute(() -> {
+            if (!dbDir.exists() || !dbDir.isDirectory()) {
+                callback.onError("Database directory not found: " + dbDir.getAbsolutePath());
+                return;
+            }
 
-                Log.d(TAG, "Starting export of " + total + " structures to " + outputDir.getAbsolutePath());
+            String outputPath = packFile != null ? packFile.getAbsolutePath()
+                    : new File(outputDir, "structures").getAbsolutePath();
+            int workerCount = packFile != null ? 1 : exportThreadCount();
+            ExportState state = new ExportState();
+            BlockingQueue<ExportItem> queue = new ArrayBlockingQueue<>(EXPORT_QUEUE_CAPACITY);
+            ExecutorService writers = Executors.newFixedThreadPool(workerCount);
+            ZipOutputStream pack = null;
+            int queued = 0;
+            boolean completed = false;
 
-                for (int i = 0; i < structureEntries.size(); i++) {
-                    LevelDBEntry entry = structureEntries.get(i);
-                    String structureId = entry.getKey().getStructureId();
-                    if (structureId == null || structureId.isEmpty()) {
-                        Log.w(TAG, "Skipping structure with null/empty ID");
-                        continue;
-                    }
+            Log.d(TAG, "Starting export of structures to " + outputPath + " with " + workerCount + " writers");
 
-                    callback.onProgress(i, total, structureId);
+            try {
+                if (packFile != null) {
+                    pack = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(packFile), EXPORT_BUFFER_SIZE));
+                    writePackManifest(pack, packFile);
+                }
 
-                    String namespace = "mystructure";
-                    String name = structureId;
+                List<Future<?>> workers = new ArrayList<>(workerCount);
+                ZipOutputStream target = pack;
+                for (int i = 0; i < workerCount; i++) {
+                    workers.add(writers.submit(() -> {
+                        drainExportQueue(queue, outputDir, target, state, callback);
+                        return null;
+                    }));
+                }
 
-                    int colonIndex = structureId.indexOf(':');
-                    if (colonIndex > 0) {
-                        namespace = structureId.substring(0, colonIndex);
-                        name = structureId.substring(colonIndex + 1);
+                Set<String> usedPaths = new HashSet<>();
+                LevelDBReader reader = new LevelDBReader(dbDir, blockCache);
+                try (LevelDBIterator iterator = reader.scanPrefix(STRUCTURE_PREFIX)) {
+                    while (iterator.hasNext() && state.failure == null) {
+                        LevelDBEntry entry = iterator.next();
+                        String structureId = entry.getKey().getStructureId();
+                        byte[] value = entry.getValue();
+                        if (structureId == null || structureId.isEmpty()) {
+                            Log.w(TAG, "Skipping structure with null/empty ID");
+                            continue;
+                        }
+                        if (value == null || value.length == 0) {
+                            Log.w(TAG, "Structure " + structureId + " has no data (value is null or empty)");
+                            continue;
+                        }
+                        state.bytesRead.addAndGet(value.length);
+                        queue.put(new ExportItem(structureId, uniqueExportPath(structureId, usedPaths), value));
+                        queued++;
                     }
-
-                    File structuresDir = new File(outputDir, "structures/" + namespace);
-                    if (!structuresDir.exists()) {
-                        boolean created = structuresDir.mkdirs();
-                        Log.d(TAG, "Created directory " + structuresDir.getAbsolutePath() + ": " + created);
+                } finally {
+                    reader.close();
+                    for (int i = 0; i < workerCount; i++) {
+                        queue.put(ExportItem.END);
                     }
+                }
 
-                    String fileName = sanitizeFileName(name) + ".mcstructure";
-                    File outputFile = new File(structuresDir, fileName);
-
-                    byte[] value = entry.getValue();
-                    if (value != null && value.length > 0) {
-                        try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-                            fos.write(value);
-                            fos.flush();
-                        }
-                        Log.d(TAG, "Exported structure: " + structureId + " -> " + outputFile.getAbsolutePath() +
-                              " (" + value.length + " bytes)");
-                        exported++;
-                    } else {
-                        Log.w(TAG, "Structure " + structureId + " has no data (value is null or empty)");
-                    }
+                for (Future<?> worker : workers) {
+                    worker.get();
                 }
+                if (state.failure != null) {
+                    throw state.failure;
+                }
+                if (queued == 0) {
+                    callback.onError("No structures found in this world");
+                    return;
+                }
+                if (pack != null) {
+                    pack.finish();
+                }
+                completed = true;
 
-                callback.onProgress(total, total, "Complete");
-                String outputPath = new File(outputDir, "structures").getAbsolutePath();
-                Log.d(TAG, "Export complete: " + exported + "/" + total + " structures exported to " + outputPath);
-                callback.onComplete(exported, outputPath);
+                long total = state.bytesRead.get();
+                callback.onProgress(state.bytesWritten.get(), total, "Complete");
+                Log.d(TAG, "Export complete: " + state.exported.get() + "/" + queued + " structures ("
+                        + total + " bytes) exported to " + outputPath);
+                callback.onComplete(state.exported.get(), outputPath);
 
             } catch (Exception e) {
                 Log.e(TAG, "Failed to export structures", e);
                 callback.onError("Export failed: " + e.getMessage());
+            } finally {
+                writers.shutdown();
+                if (pack != null) {
+                    try {
+                        pack.close();
+                    } catch (IOException e) {
+                        Log.w(TAG, "Failed to close structure pack " + packFile, e);
+                    }
+                    if (!completed && packFile.exists() && !packFile.delete()) {
+                        Log.w(TAG, "Failed to delete incomplete structure pack " + packFile);
+                    }
+                }
             }
         });
     }
 
+    private static int exportThreadCount() {
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_DECODE_THREADS));
+    }
+
+    private void drainExportQueue(BlockingQueue<ExportItem> queue, File outputDir, ZipOutputStream pack,
+                                  ExportState state, StructureExportCallback callback) throws InterruptedException {
+        while (true) {
+            ExportItem item = queue.take();
+            if (item == ExportItem.END) {
+                return;
+            }
+            if (state.failure != null) {
+                continue;
+            }
+            try {
+                if (pack != null) {
+                    ZipEntry zipEntry = new ZipEntry(item.path);
+                    pack.putNextEntry(zipEntry);
+                    pack.write(item.value);
+                    pack.closeEntry();
+                } else {
+                    File outputFile = new File(outputDir, item.path);
+                    File parent = outputFile.getParentFile();
+                    if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+                        throw new IOException("Failed to create " + parent.getAbsolutePath());
+                    }
+                    try (FileOutputStream fos = new FileOutputStream(outputFile)) {
+                        fos.write(item.value);
+                    }
+                }
+                state.exported.incrementAndGet();
+                long written = state.bytesWritten.addAndGet(item.value.length);
+                callback.onProgress(written, state.bytesRead.get(), item.structureId);
+            } catch (IOException e) {
+                if (pack != null) {
+                    state.failure = e;
+                } else {
+                    Log.w(TAG, "Failed to export structure " + item.structureId, e);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Structure writer failed on " + item.structureId, e);
+                state.failure = e;
+            }
+        }
+    }
+
+    private String uniqueExportPath(String structureId, Set<String> usedPaths) {
+        String namespace = "mystructure";
+        String name = structureId;
+
+        int colonIndex = structureId.indexOf(':');
+        if (colonIndex > 0) {
+            namespace = structureId.substring(0, colonIndex);
+            name = structureId.substring(colonIndex + 1);
+        }
+
+        String base = "structures/" + sanitizeFileName(namespace) + "/" + sanitizeFileName(name);
+        String path = base + ".mcstructure";
+        for (int suffix = 2; !usedPaths.add(path.toLowerCase(Locale.ROOT)); suffix++) {
+            path = base + "_" + suffix + ".mcstructure";
+        }
+        return path;
+    }
+
+    private void writePackManifest(ZipOutputStream pack, File packFile) throws IOException {
+        String packName = packFile.getName();
+        int dot = packName.lastIndexOf('.');
+        if (dot > 0) {
+            packName = packName.substring(0, dot);
+        }
+        try {
+            JSONArray version = new JSONArray().put(1).put(0).put(0);
+            JSONObject header = new JSONObject()
+                    .put("name", packName)
+                    .put("description", "Structures exported from " + dbDir.getParentFile().getName())
+                    .put("uuid", UUID.randomUUID().toString())
+                    .put("version", version)
+                    .put("min_engine_version", new JSONArray().put(1).put(20).put(0));
+            JSONObject module = new JSONObject()
+                    .put("type", "data")
+                    .put("uuid", UUID.randomUUID().toString())
+                    .put("version", version);
+            JSONObject manifest = new JSONObject()
+                    .put("format_version", 2)
+                    .put("header", header)
+                    .put("modules", new JSONArray().put(module));
+            pack.putNextEntry(new ZipEntry("manifest.json"));
+            pack.write(manifest.toString(2).getBytes(StandardCharsets.UTF_8));
+            pack.closeEntry();
+        } catch (JSONException e) {
+            throw new IOException("Failed to build pack manifest", e);
+        }
+    }
+
+    private static final class ExportItem {
+        static final ExportItem END = new ExportItem(null, null, null);
+
+        final String structureId;
+        final String path;
+        final byte[] value;
+
+        ExportItem(String structureId, String path, byte[] value) {
+            this.structureId = structureId;
+            this.path = path;
+            this.value = value;
+        }
+    }
+
+    private static final class DecodeWorker extends ForkJoinWorkerThread {
+        DecodeWorker(ForkJoinPool pool) {
+            super(pool);
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            BlockCompression.releaseThreadResources();
+            super.onTermination(exception);
+        }
+    }
+
+    private static final class ExportState {
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicLong bytesWritten = new AtomicLong();
+        final AtomicInteger exported = new AtomicInteger();
+        volatile Exception failure;
+    }
+
     private String sanitizeFileName(String name) {
         return name.replace("/", "_")
                    .replace("\\", "_")
@@ -167,6 +358,15 @@ public class LevelDBManager {
     }
 
     public void shutdown() {
+        try {
+            executor.execute(BlockCompression::releaseThreadResources);
+        } catch (RejectedExecutionException ignored) {
+        }
         executor.shutdown();
+        synchronized (this) {
+            if (decodePool != null) {
+                decodePool.shutdown();
+            }
+        }
     }
 }
@@ -2,767 +2,711 @@ package org.levimc.launcher.core.content.leveldb;
 
 import android.util.Log;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.channels.FileChannel;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.Inflater;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class LevelDBReader {
     private static final String TAG = "LevelDBReader";
-    private static final long TABLE_MAGIC_NUMBER = 0xdb4775248b80fb57L;
-    private static final int BLOCK_TRAILER_SIZE = 5;
-    private static final int FOOTER_SIZE = 48;
-    private static final int LOG_BLOCK_SIZE = 32768;
+    private static final int MAX_CACHED_TABLES = 32;
+
+    public interface ScanListener {
+        void onTableScanned(int completed, int total);
+    }
+
+    interface LocationVisitor {
+        boolean visitLocation(PrefixIndex.KeyLocation location) throws IOException;
+    }
 
     private final File dbPath;
-    private final Map<ByteArrayWrapper, byte[]> allData = new HashMap<>();
+    private final BlockCache blockCache;
+    private final List<LevelDBIterator> openIterators = new ArrayList<>();
+    private final Set<LostRange> lostRanges = new LinkedHashSet<>();
+    private final Map<Long, MemTable> salvagedTables = new HashMap<>();
+    private final Map<Long, File> tableFiles = new HashMap<>();
+    private final Map<Long, TableReader> tableCache = new LinkedHashMap<Long, TableReader>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TableReader> eldest) {
+            if (size() <= MAX_CACHED_TABLES) return false;
+            eldest.getValue().close();
+            return true;
+        }
+    };
+
+    private boolean loaded;
+    private VersionSet versions;
+    private MemTable memTable;
+    private List<VersionSet.FileMetaData> tables;
+    private ChunkIndex chunkIndex;
 
     public LevelDBReader(File dbPath) {
+        this(dbPath, BlockCache.getShared());
+    }
+
+    public LevelDBReader(File dbPath, BlockCache blockCache) {
         this.dbPath = dbPath;
+        this.blockCache = blockCache;
     }
 
-    public List<LevelDBEntry> readAllEntries() throws IOException {
-        File[] sstFiles = dbPath.listFiles((dir, name) ->
-            name.endsWith(".ldb") || name.endsWith(".sst"));
+    public LevelDBIterator iterator() throws IOException {
+        return newIterator(null);
+    }
 
-        if (sstFiles != null) {
-            Arrays.sort(sstFiles, Comparator.comparing(File::getName));
-            for (File sstFile : sstFiles) {
-                try {
-                    readSSTable(sstFile);
-                } catch (Exception e) {
-                    Log.w(TAG, "Failed to read SST file: " + sstFile.getName() + " - " + e.getMessage());
-                    try {
-                        readSSTableRaw(sstFile);
-                    } catch (Exception e2) {
-                        Log.w(TAG, "Raw scan also failed for: " + sstFile.getName());
-                    }
-                }
-            }
-        }
+    public LevelDBIterator scanPrefix(byte[] prefix) throws IOException {
+        return newIterator(prefix);
+    }
 
-        File[] logFiles = dbPath.listFiles((dir, name) -> name.endsWith(".log"));
-        if (logFiles != null) {
-            Arrays.sort(logFiles, Comparator.comparing(File::getName));
-            for (File logFile : logFiles) {
-                try {
-                    readLogFile(logFile);
-                } catch (Exception e) {
-                    Log.w(TAG, "Failed to read log file: " + logFile.getName() + " - " + e.getMessage());
+    private static List<InternalEntry> collectPrefix(InternalIterator iterator, byte[] prefix) {
+        List<InternalEntry> entries = new ArrayList<>();
+        try {
+            iterator.seek(prefix);
+            while (iterator.isValid()) {
+                if (iterator.isPending()) {
+                    iterator.open();
+                    continue;
                 }
+                byte[] key = iterator.key();
+                if (!LevelDBFormat.startsWith(key, prefix)) {
+                    break;
+                }
+                int valueType = iterator.valueType();
+                byte[] value = valueType == LevelDBFormat.TYPE_VALUE ? iterator.value() : null;
+                entries.add(new InternalEntry(key, iterator.sequence(), valueType, value));
+                iterator.next();
             }
+        } finally {
+            iterator.close();
         }
+        return entries;
+    }
 
-        List<LevelDBEntry> entries = new ArrayList<>();
-        for (Map.Entry<ByteArrayWrapper, byte[]> entry : allData.entrySet()) {
-            if (entry.getValue() != null) {
-                entries.add(new LevelDBEntry(entry.getKey().data, entry.getValue()));
+    int visitPrefix(byte[] prefix, File indexFile, ExecutorService pool, ScanListener listener,
+                    LocationVisitor visitor) throws IOException {
+        ensureLoaded();
+
+        PrefixIndex previous = PrefixIndex.load(indexFile, prefix);
+        List<IndexedTable> indexed = new ArrayList<>();
+        List<InternalIterator> sources = new ArrayList<>();
+        for (VersionSet.FileMetaData table : tables) {
+            if (!table.overlapsPrefix(prefix)) {
+                continue;
             }
+            File tableFile = tableFiles.get(table.number);
+            PrefixIndex.TableKeys keys = previous != null ? previous.getTable(table.number) : null;
+            IndexedTable source = new IndexedTable(table.number, tableFile, prefix,
+                    startKey(prefix, table.smallest), keys != null && keys.matches(tableFile) ? keys : null);
+            indexed.add(source);
+            sources.add(source);
         }
-
-        Log.d(TAG, "Total entries read: " + entries.size());
-
-        int structureCount = 0;
-        for (LevelDBEntry entry : entries) {
-            String keyStr = tryDecodeKey(entry.getKey().getRawKey());
-            if (keyStr != null && keyStr.startsWith("structuretemplate_")) {
-                structureCount++;
+        TableProgress progress = new TableProgress(listener, indexed.size());
+        for (IndexedTable table : indexed) {
+            table.progress = progress;
+            if (table.reused) {
+                progress.tableDone(table);
             }
         }
-        Log.d(TAG, "Total structures found: " + structureCount);
-
-        return entries;
-    }
-
-    private void readLogFile(File logFile) throws IOException {
-        Log.d(TAG, "Reading log file: " + logFile.getName() + " size: " + logFile.length());
-
-        try (FileInputStream fis = new FileInputStream(logFile)) {
-            byte[] fileData = readAllBytes(fis, (int) logFile.length());
-
-            int pos = 0;
-            ByteArrayOutputStream fullRecord = new ByteArrayOutputStream();
-
-            while (pos + 7 <= fileData.length) {
-                int blockOffset = pos % LOG_BLOCK_SIZE;
-                int blockRemaining = LOG_BLOCK_SIZE - blockOffset;
+        if (pool != null) {
+            prefetch(indexed, pool);
+        }
+        List<PrefixIndex.KeyLocation> inline = new ArrayList<>();
+        collectInline(memTable.iterator(), prefix, inline);
+        sources.add(new LocationList(inline));
 
-                if (blockRemaining < 7) {
-                    pos += blockRemaining;
+        int visited = 0;
+        boolean completed = false;
+        MergingIterator merged = new MergingIterator(sources);
+        try {
+            byte[] lastKey = null;
+            while (merged.isValid()) {
+                PrefixIndex.KeyLocation location = ((LocationList) merged.current()).location();
+                merged.next();
+                if (lastKey != null && Arrays.equals(lastKey, location.key)) {
                     continue;
                 }
-
-                int length = readInt16LE(fileData, pos + 4);
-                int type = fileData[pos + 6] & 0xFF;
-
-                pos += 7;
-
-                if (length < 0 || length > LOG_BLOCK_SIZE || pos + length > fileData.length) {
+                lastKey = location.key;
+                if (location.isDeletion()) {
+                    continue;
+                }
+                visited++;
+                if (!visitor.visitLocation(location)) {
                     break;
                 }
-
-                byte[] recordData = Arrays.copyOfRange(fileData, pos, pos + length);
-                pos += length;
-
-                switch (type) {
-                    case 1:
-                        fullRecord.reset();
-                        fullRecord.write(recordData);
-                        parseWriteBatch(fullRecord.toByteArray());
-                        break;
-                    case 2:
-                        fullRecord.reset();
-                        fullRecord.write(recordData);
-                        break;
-                    case 3:
-                        fullRecord.write(recordData);
-                        break;
-                    case 4:
-                        fullRecord.write(recordData);
-                        parseWriteBatch(fullRecord.toByteArray());
-                        fullRecord.reset();
-                        break;
+            }
+            completed = !merged.isValid();
+        } finally {
+            merged.close();
+            for (IndexedTable table : indexed) {
+                if (table.prefetch != null) {
+                    table.prefetch.cancel(false);
                 }
             }
         }
-    }
-
-    private void parseWriteBatch(byte[] data) {
-        if (data.length < 12) return;
-
-        try {
-            int count = readInt32LE(data, 8);
-            int pos = 12;
 
-            for (int i = 0; i < count && pos < data.length; i++) {
-                int recordType = data[pos++] & 0xFF;
-
-                int[] keyLenResult = readVarInt(data, pos);
-                int keyLen = keyLenResult[0];
-                pos = keyLenResult[1];
-
-                if (keyLen <= 0 || keyLen > 10000 || pos + keyLen > data.length) {
-                    break;
-                }
-
-                byte[] key = Arrays.copyOfRange(data, pos, pos + keyLen);
-                pos += keyLen;
-
-                if (recordType == 1) {
-                    int[] valLenResult = readVarInt(data, pos);
-                    int valLen = valLenResult[0];
-                    pos = valLenResult[1];
-
-                    if (valLen >= 0 && pos + valLen <= data.length) {
-                        byte[] value = Arrays.copyOfRange(data, pos, pos + valLen);
-                        pos += valLen;
-
-                        allData.put(new ByteArrayWrapper(key), value);
-                        logStructureIfFound(key, value, "log");
-                    }
-                } else if (recordType == 0) {
-                    allData.put(new ByteArrayWrapper(key), null);
+        PrefixIndex index = new PrefixIndex(prefix, versions != null ? new File(dbPath, versions.getManifestName()) : null);
+        int reused = 0;
+        int scanned = 0;
+        for (IndexedTable table : indexed) {
+            if (table.keys == null) {
+                table.keys = table.completedPrefetch();
+            }
+            if (table.keys != null) {
+                index.putTable(table.keys);
+                if (table.reused) {
+                    reused++;
+                } else {
+                    scanned++;
                 }
             }
-        } catch (Exception e) {
-            Log.w(TAG, "Error parsing write batch", e);
         }
-    }
-
-    private void logStructureIfFound(byte[] key, byte[] value, String source) {
-        String keyStr = tryDecodeKey(key);
-        if (keyStr != null && keyStr.startsWith("structuretemplate_")) {
-            Log.d(TAG, "Found structure in " + source + ": " + keyStr + " value size: " + (value != null ? value.length : 0));
+        if (!index.hasSameManifest(previous) || !index.hasSameTables(previous)) {
+            index.save(indexFile);
         }
+        Log.d(TAG, "Prefix index for " + dbPath.getName() + ": " + reused + " tables reused, " + scanned
+                + " scanned, " + visited + " entries visited" + (completed ? "" : ", stopped early"));
+        return visited;
     }
 
-    private String tryDecodeKey(byte[] key) {
-        if (key == null || key.length == 0) return null;
-        try {
-            boolean printable = true;
-            for (byte b : key) {
-                if (b < 32 && b != 0) {
-                    printable = false;
-                    break;
-                }
+    private void prefetch(List<IndexedTable> indexed, ExecutorService pool) {
+        List<IndexedTable> missing = new ArrayList<>();
+        for (IndexedTable table : indexed) {
+            if (table.keys == null) {
+                missing.add(table);
             }
-            if (printable) {
-                return new String(key, StandardCharsets.UTF_8);
+        }
+        missing.sort((a, b) -> LevelDBFormat.compareKeys(a.startKey, b.startKey));
+        try {
+            for (IndexedTable table : missing) {
+                table.prefetch = pool.submit(() -> {
+                    try {
+                        return indexTable(table.number, table.file, table.prefix);
+                    } finally {
+                        table.progress.tableDone(table);
+                    }
+                });
             }
-        } catch (Exception e) {
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Decode pool unavailable, indexing tables inline");
         }
-        return null;
     }
 
-    private void readSSTable(File file) throws IOException {
-        Log.d(TAG, "Reading SSTable: " + file.getName() + " size: " + file.length());
-
-        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
-             FileChannel channel = raf.getChannel()) {
-
-            long fileSize = channel.size();
-            if (fileSize < FOOTER_SIZE) {
-                return;
-            }
-
-            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
-            channel.position(fileSize - FOOTER_SIZE);
-            channel.read(footer);
-            footer.flip();
-
-            readVarInt64(footer);
-            readVarInt64(footer);
-            long indexOffset = readVarInt64(footer);
-            long indexSize = readVarInt64(footer);
-
-            footer.position(40);
-            long magic = footer.getLong();
-
-            if (magic != TABLE_MAGIC_NUMBER) {
-                Log.w(TAG, "Invalid magic number in " + file.getName() + ", trying raw scan");
-                readSSTableRaw(file);
-                return;
-            }
+    private static byte[] startKey(byte[] prefix, byte[] smallest) {
+        return smallest != null && LevelDBFormat.compareKeys(smallest, prefix) > 0 ? smallest : prefix;
+    }
 
-            ByteBuffer indexBlock = readBlock(channel, indexOffset, (int) indexSize);
-            if (indexBlock == null) {
-                Log.w(TAG, "Failed to read index block from " + file.getName());
-                return;
+    synchronized byte[] readValue(PrefixIndex.KeyLocation location) throws IOException {
+        if (location.value != null || location.tableNumber < 0) {
+            return location.value;
+        }
+        TableReader table = cachedTable(location.tableNumber);
+        BlockHandle handle = new BlockHandle(location.blockOffset, location.blockSize);
+        BlockIterator data = new Block(table.readBlock(handle)).iterator();
+        data.seek(location.key);
+        while (data.isValid() && Arrays.equals(data.userKey(), location.key)) {
+            if (data.sequence() == location.sequence) {
+                return data.value();
             }
+            data.next();
+        }
+        throw new IOException("Indexed key missing from block at offset " + handle.offset
+                + " in table " + location.tableNumber);
+    }
 
-            List<BlockHandle> dataBlocks = parseIndexBlock(indexBlock);
-            Log.d(TAG, "Found " + dataBlocks.size() + " data blocks in " + file.getName());
-
-            for (BlockHandle handle : dataBlocks) {
-                try {
-                    ByteBuffer dataBlock = readBlock(channel, handle.offset, (int) handle.size);
-                    if (dataBlock != null) {
-                        parseDataBlock(dataBlock);
+    private PrefixIndex.TableKeys indexTable(long fileNumber, File tableFile, byte[] prefix) {
+        try (TableReader table = TableReader.open(tableFile, fileNumber, blockCache)) {
+            PrefixIndex.TableKeys keys = new PrefixIndex.TableKeys(fileNumber, tableFile.length(), tableFile.lastModified());
+            BlockIterator index = table.getIndexBlock().iterator();
+            index.seek(prefix);
+            while (index.isValid()) {
+                BlockHandle handle = BlockHandle.decode(index.valueBuffer());
+                BlockIterator data = new Block(table.readBlock(handle)).iterator();
+                data.seek(prefix);
+                while (data.isValid()) {
+                    byte[] key = data.userKey();
+                    if (!LevelDBFormat.startsWith(key, prefix)) {
+                        return keys;
                     }
-                } catch (Exception e) {
-                    Log.w(TAG, "Failed to read data block at offset " + handle.offset, e);
+                    int valueType = data.valueType();
+                    int valueSize = valueType == LevelDBFormat.TYPE_VALUE ? data.valueBuffer().remaining() : 0;
+                    keys.keys.add(new PrefixIndex.KeyLocation(key, data.sequence(), valueType, fileNumber,
+                            handle.offset, handle.size, valueSize, null));
+                    data.next();
                 }
+                index.next();
             }
+            return keys;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Failed to index table " + tableFile.getName() + ", recovering intact blocks - " + e);
+            return null;
         }
     }
 
-    private void readSSTableRaw(File file) throws IOException {
-        Log.d(TAG, "Raw scanning file: " + file.getName());
-        try (FileInputStream fis = new FileInputStream(file)) {
-            byte[] data = readAllBytes(fis, (int) file.length());
-
-            byte[] prefix = "structuretemplate_".getBytes();
-            int found = 0;
+    private static void collectInline(InternalIterator iterator, byte[] prefix, List<PrefixIndex.KeyLocation> target) {
+        for (InternalEntry entry : collectPrefix(iterator, prefix)) {
+            target.add(new PrefixIndex.KeyLocation(entry.key, entry.sequence, entry.valueType, -1, 0, 0,
+                    entry.value != null ? entry.value.length : 0, entry.value));
+        }
+    }
 
-            for (int i = 0; i < data.length - prefix.length - 20; i++) {
-                boolean match = true;
-                for (int j = 0; j < prefix.length; j++) {
-                    if (data[i + j] != prefix[j]) {
-                        match = false;
-                        break;
-                    }
-                }
+    private static class LocationList implements InternalIterator {
+        List<PrefixIndex.KeyLocation> locations;
+        int position;
 
-                if (match) {
-                    int keyEnd = i;
-                    for (int j = i; j < Math.min(i + 256, data.length); j++) {
-                        byte b = data[j];
-                        if (b < 32 || b > 126) {
-                            keyEnd = j;
-                            break;
-                        }
-                    }
+        LocationList(List<PrefixIndex.KeyLocation> locations) {
+            this.locations = locations;
+        }
 
-                    if (keyEnd > i) {
-                        byte[] key = Arrays.copyOfRange(data, i, keyEnd);
-                        String keyStr = new String(key, StandardCharsets.UTF_8);
-
-                        int valueStart = keyEnd;
-                        int maxSearch = Math.min(keyEnd + 100, data.length - 8);
-
-                        while (valueStart < maxSearch) {
-                            if (isValidNbtStart(data, valueStart)) {
-                                break;
-                            }
-                            valueStart++;
-                        }
-
-                        int valueLen = estimateNbtLength(data, valueStart);
-                        if (valueLen > 0 && valueStart + valueLen <= data.length) {
-                            byte[] value = Arrays.copyOfRange(data, valueStart, valueStart + valueLen);
-                            allData.put(new ByteArrayWrapper(key), value);
-                            Log.d(TAG, "Found structure in raw scan: " + keyStr + " size: " + valueLen);
-                            found++;
-                            i = valueStart + valueLen - 1;
-                        }
-                    }
-                }
-            }
-            Log.d(TAG, "Raw scan found " + found + " structures in " + file.getName());
+        PrefixIndex.KeyLocation location() {
+            return locations.get(position);
         }
-    }
 
-    private boolean isValidNbtStart(byte[] data, int pos) {
-        if (pos + 8 >= data.length) return false;
-        int version = readInt32LE(data, pos);
-        int length = readInt32LE(data, pos + 4);
-        return version >= 1 && version <= 10 && length > 0 && length < 10 * 1024 * 1024;
-    }
+        @Override
+        public boolean isValid() {
+            return position < locations.size();
+        }
 
-    private int estimateNbtLength(byte[] data, int start) {
-        if (start + 8 >= data.length) return 0;
-        int length = readInt32LE(data, start + 4);
-        if (length > 0 && length < 10 * 1024 * 1024 && start + 8 + length <= data.length) {
-            return 8 + length;
+        @Override
+        public void seek(byte[] target) {
+            position = 0;
+            while (isValid() && LevelDBFormat.compareKeys(location().key, target) < 0) {
+                position++;
+            }
         }
-        return 0;
-    }
 
-    private ByteBuffer readBlock(FileChannel channel, long offset, int size) throws IOException {
-        if (size <= 0 || offset < 0 || offset + size + BLOCK_TRAILER_SIZE > channel.size()) {
-            return null;
+        @Override
+        public void next() {
+            position++;
         }
 
-        ByteBuffer buffer = ByteBuffer.allocate(size + BLOCK_TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
-        channel.position(offset);
-        int read = channel.read(buffer);
-        if (read < size + BLOCK_TRAILER_SIZE) {
-            return null;
+        @Override
+        public byte[] key() {
+            return location().key;
         }
-        buffer.flip();
 
-        byte[] blockData = new byte[size];
-        buffer.get(blockData);
-        byte compressionType = buffer.get();
+        @Override
+        public long sequence() {
+            return location().sequence;
+        }
 
-        byte[] decompressed = blockData;
-        if (compressionType == 1) {
-            decompressed = decompressSnappy(blockData);
-        } else if (compressionType == 2) {
-            decompressed = decompressZlib(blockData);
-        } else if (compressionType == 4 || compressionType == 5) {
-            decompressed = decompressLZ4(blockData);
-        } else if (compressionType == 7) {
-            decompressed = decompressZstd(blockData);
+        @Override
+        public int valueType() {
+            return location().valueType;
         }
 
-        if (decompressed == null || decompressed.length == 0) {
-            decompressed = blockData;
+        @Override
+        public byte[] value() {
+            return location().value;
         }
 
-        return ByteBuffer.wrap(decompressed).order(ByteOrder.LITTLE_ENDIAN);
+        @Override
+        public void close() {
+            position = locations.size();
+        }
     }
 
-    private byte[] decompressSnappy(byte[] data) {
-        try {
-            if (data.length == 0) return data;
-
-            int[] result = readVarInt(data, 0);
-            int uncompressedLen = result[0];
-            int pos = result[1];
-
-            if (uncompressedLen <= 0 || uncompressedLen > 100 * 1024 * 1024) {
-                return data;
-            }
-
-            byte[] output = new byte[uncompressedLen];
-            int outPos = 0;
-
-            while (pos < data.length && outPos < uncompressedLen) {
-                int tag = data[pos++] & 0xFF;
-                int tagType = tag & 0x03;
-
-                if (tagType == 0) {
-                    int len = (tag >> 2);
-                    if (len < 60) {
-                        len += 1;
-                    } else {
-                        int extraBytes = len - 59;
-                        len = 0;
-                        for (int i = 0; i < extraBytes && pos < data.length; i++) {
-                            len |= (data[pos++] & 0xFF) << (8 * i);
-                        }
-                        len += 1;
-                    }
+    private static final class TableProgress {
+        private final ScanListener listener;
+        private final int total;
+        private int completed;
 
-                    if (pos + len > data.length || outPos + len > uncompressedLen) {
-                        break;
-                    }
-                    System.arraycopy(data, pos, output, outPos, len);
-                    pos += len;
-                    outPos += len;
-                } else {
-                    int len, offset;
-                    if (tagType == 1) {
-                        len = ((tag >> 2) & 0x07) + 4;
-                        if (pos >= data.length) break;
-                        offset = ((tag & 0xE0) << 3) | (data[pos++] & 0xFF);
-                    } else if (tagType == 2) {
-                        len = (tag >> 2) + 1;
-                        if (pos + 2 > data.length) break;
-                        offset = (data[pos++] & 0xFF) | ((data[pos++] & 0xFF) << 8);
-                    } else {
-                        len = (tag >> 2) + 1;
-                        if (pos + 4 > data.length) break;
-                        offset = (data[pos++] & 0xFF) | ((data[pos++] & 0xFF) << 8) |
-                                ((data[pos++] & 0xFF) << 16) | ((data[pos++] & 0xFF) << 24);
-                    }
-
-                    if (offset <= 0 || offset > outPos) {
-                        break;
-                    }
+        TableProgress(ScanListener listener, int total) {
+            this.listener = listener;
+            this.total = total;
+        }
 
-                    int srcPos = outPos - offset;
-                    for (int i = 0; i < len && outPos < uncompressedLen; i++) {
-                        output[outPos++] = output[srcPos++];
-                    }
-                }
+        void tableDone(IndexedTable table) {
+            if (listener == null || !table.reported.compareAndSet(false, true)) {
+                return;
             }
-
-            if (outPos == uncompressedLen) {
-                return output;
-            } else {
-                Log.w(TAG, "Snappy decompression incomplete: " + outPos + "/" + uncompressedLen);
-                return Arrays.copyOf(output, outPos);
+            synchronized (this) {
+                listener.onTableScanned(++completed, total);
             }
-        } catch (Exception e) {
-            Log.w(TAG, "Snappy decompression failed", e);
-            return data;
         }
     }
 
-    private byte[] decompressZlib(byte[] data) {
-        try {
-            Inflater inflater = new Inflater(false);
-            inflater.setInput(data);
+    private final class IndexedTable extends LocationList {
+        final long number;
+        final File file;
+        final byte[] prefix;
+        final byte[] startKey;
+        final boolean reused;
+        PrefixIndex.TableKeys keys;
+        final AtomicBoolean reported = new AtomicBoolean();
+        Future<PrefixIndex.TableKeys> prefetch;
+        TableProgress progress;
+        boolean pending = true;
+
+        IndexedTable(long number, File file, byte[] prefix, byte[] startKey, PrefixIndex.TableKeys keys) {
+            super(Collections.emptyList());
+            this.number = number;
+            this.file = file;
+            this.prefix = prefix;
+            this.startKey = startKey;
+            this.keys = keys;
+            this.reused = keys != null;
+        }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] buffer = new byte[4096];
+        @Override
+        public boolean isPending() {
+            return pending;
+        }
 
-            while (!inflater.finished()) {
-                try {
-                    int count = inflater.inflate(buffer);
-                    if (count == 0) {
-                        if (inflater.needsInput()) break;
-                    }
-                    baos.write(buffer, 0, count);
-                } catch (Exception e) {
-                    break;
-                }
+        @Override
+        public void open() {
+            pending = false;
+            if (keys == null) {
+                keys = awaitKeys();
             }
-            inflater.end();
-
-            if (baos.size() > 0) {
-                return baos.toByteArray();
+            if (keys != null) {
+                locations = keys.keys;
+            } else {
+                List<PrefixIndex.KeyLocation> salvaged = new ArrayList<>();
+                collectInline(salvageTable(file).iterator(), prefix, salvaged);
+                locations = salvaged;
             }
+            position = 0;
+            progress.tableDone(this);
+        }
 
-            inflater = new Inflater(true);
-            inflater.setInput(data);
-            baos.reset();
+        PrefixIndex.TableKeys completedPrefetch() {
+            if (prefetch == null || !prefetch.isDone() || prefetch.isCancelled()) {
+                return null;
+            }
+            try {
+                return prefetch.get();
+            } catch (InterruptedException | ExecutionException e) {
+                return null;
+            }
+        }
 
-            while (!inflater.finished()) {
+        private PrefixIndex.TableKeys awaitKeys() {
+            if (prefetch != null) {
                 try {
-                    int count = inflater.inflate(buffer);
-                    if (count == 0) {
-                        if (inflater.needsInput()) break;
-                    }
-                    baos.write(buffer, 0, count);
-                } catch (Exception e) {
-                    break;
+                    return prefetch.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Log.w(TAG, "Prefetch of table " + file.getName() + " failed - " + e.getCause());
                 }
             }
-            inflater.end();
-
-            return baos.size() > 0 ? baos.toByteArray() : data;
-        } catch (Exception e) {
-            return data;
+            return indexTable(number, file, prefix);
         }
-    }
 
-    private byte[] decompressLZ4(byte[] data) {
-        try {
-            if (data.length < 4) return data;
+        @Override
+        public boolean isValid() {
+            return pending || super.isValid();
+        }
 
-            int uncompressedSize = readInt32LE(data, 0);
-            if (uncompressedSize <= 0 || uncompressedSize > 100 * 1024 * 1024) {
-                return data;
+        @Override
+        public void seek(byte[] target) {
+            if (!pending) {
+                super.seek(target);
             }
+        }
 
-            byte[] output = new byte[uncompressedSize];
-            int srcPos = 4;
-            int dstPos = 0;
-
-            while (srcPos < data.length && dstPos < uncompressedSize) {
-                int token = data[srcPos++] & 0xFF;
+        @Override
+        public byte[] key() {
+            return pending ? startKey : super.key();
+        }
 
-                int literalLen = token >> 4;
-                if (literalLen == 15) {
-                    int b;
-                    do {
-                        if (srcPos >= data.length) break;
-                        b = data[srcPos++] & 0xFF;
-                        literalLen += b;
-                    } while (b == 255);
-                }
+        @Override
+        public long sequence() {
+            return pending ? LevelDBFormat.MAX_SEQUENCE : super.sequence();
+        }
 
-                if (srcPos + literalLen > data.length || dstPos + literalLen > uncompressedSize) {
-                    break;
-                }
-                System.arraycopy(data, srcPos, output, dstPos, literalLen);
-                srcPos += literalLen;
-                dstPos += literalLen;
+        @Override
+        public int valueType() {
+            return pending ? LevelDBFormat.TYPE_VALUE : super.valueType();
+        }
 
-                if (srcPos >= data.length || dstPos >= uncompressedSize) {
-                    break;
-                }
+        @Override
+        public void close() {
+            pending = false;
+            super.close();
+        }
+    }
 
-                if (srcPos + 2 > data.length) break;
-                int offset = (data[srcPos++] & 0xFF) | ((data[srcPos++] & 0xFF) << 8);
-                if (offset == 0 || offset > dstPos) {
-                    break;
-                }
+    public synchronized byte[] get(byte[] key) throws IOException {
+        ensureLoaded();
 
-                int matchLen = (token & 0x0F) + 4;
-                if (matchLen == 19) {
-                    int b;
-                    do {
-                        if (srcPos >= data.length) break;
-                        b = data[srcPos++] & 0xFF;
-                        matchLen += b;
-                    } while (b == 255);
-                }
+        InternalEntry entry = memTable.get(key);
+        if (entry == null) {
+            entry = versions != null ? getFromLevels(key) : getFromAllTables(key);
+        }
+        return entry == null || entry.isDeletion() ? null : entry.value;
+    }
 
-                int matchPos = dstPos - offset;
-                for (int i = 0; i < matchLen && dstPos < uncompressedSize; i++) {
-                    output[dstPos++] = output[matchPos++];
-                }
+    public ChunkIndex getChunkIndex() throws IOException {
+        synchronized (openIterators) {
+            if (chunkIndex == null) {
+                chunkIndex = ChunkIndex.build(newMergingIterator(null));
             }
-
-            return dstPos == uncompressedSize ? output : Arrays.copyOf(output, dstPos);
-        } catch (Exception e) {
-            Log.w(TAG, "LZ4 decompression failed", e);
-            return data;
+            return chunkIndex;
         }
     }
 
-    private byte[] decompressZstd(byte[] data) {
-        return data;
+    public List<LevelDBEntry> readChunks(int dimension, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                                         LevelDBKey.KeyType type) throws IOException {
+        List<LevelDBEntry> entries = new ArrayList<>();
+        for (PrefixIndex.KeyLocation location : getChunkIndex().findLocations(dimension, minChunkX, minChunkZ,
+                maxChunkX, maxChunkZ, type)) {
+            byte[] value = location.tableNumber >= 0 ? readValue(location) : get(location.key);
+            if (value != null) {
+                entries.add(new LevelDBEntry(location.key, value));
+            }
+        }
+        return entries;
     }
 
-    private List<BlockHandle> parseIndexBlock(ByteBuffer buffer) {
-        List<BlockHandle> handles = new ArrayList<>();
-
-        try {
-            if (buffer.limit() < 4) return handles;
-
-            buffer.position(buffer.limit() - 4);
-            int numRestarts = buffer.getInt();
-
-            if (numRestarts < 0 || numRestarts > 10000) return handles;
-
-            int dataEnd = buffer.limit() - 4 - (numRestarts * 4);
-            if (dataEnd <= 0) return handles;
+    private LevelDBIterator newIterator(byte[] prefix) throws IOException {
+        LevelDBIterator iterator = new LevelDBIterator(newMergingIterator(prefix), prefix);
+        synchronized (openIterators) {
+            openIterators.add(iterator);
+        }
+        return iterator;
+    }
 
-            buffer.position(0);
-            byte[] prevKey = new byte[0];
+    private MergingIterator newMergingIterator(byte[] prefix) throws IOException {
+        ensureLoaded();
 
-            while (buffer.position() < dataEnd && buffer.hasRemaining()) {
-                int shared = readVarInt32(buffer);
-                int nonShared = readVarInt32(buffer);
-                int valueLen = readVarInt32(buffer);
+        List<InternalIterator> children = new ArrayList<>();
+        if (!memTable.isEmpty()) {
+            children.add(memTable.iterator());
+        }
+        for (VersionSet.FileMetaData table : tables) {
+            if (prefix != null && !table.overlapsPrefix(prefix)) {
+                continue;
+            }
+            children.add(new TableIterator(this, tableFiles.get(table.number), table.number, table.smallest));
+        }
+        if (prefix != null) {
+            for (InternalIterator child : children) {
+                child.seek(prefix);
+            }
+        }
 
-                if (shared < 0 || nonShared < 0 || valueLen < 0) break;
-                if (nonShared > 10000 || valueLen > 100) break;
-                if (buffer.position() + nonShared + valueLen > buffer.limit()) break;
+        Log.d(TAG, "Merging " + children.size() + " sources from " + dbPath.getName()
+                + (prefix != null ? " for prefix scan" : ""));
 
-                byte[] key = new byte[shared + nonShared];
-                if (shared > 0 && shared <= prevKey.length) {
-                    System.arraycopy(prevKey, 0, key, 0, shared);
-                }
-                buffer.get(key, shared, nonShared);
-                prevKey = key;
+        return new MergingIterator(children);
+    }
 
-                if (valueLen > 0) {
-                    int valStart = buffer.position();
-                    long offset = readVarInt64(buffer);
-                    long size = readVarInt64(buffer);
+    private synchronized void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        if (!dbPath.isDirectory()) {
+            throw new IOException("Database directory not found: " + dbPath.getAbsolutePath());
+        }
 
-                    if (offset >= 0 && size > 0 && size < 100 * 1024 * 1024) {
-                        handles.add(new BlockHandle(offset, size));
-                    }
+        versions = loadVersionSet();
 
-                    buffer.position(valStart + valueLen);
-                }
+        memTable = new MemTable();
+        for (File logFile : listFiles(".log")) {
+            if (versions != null && !versions.isLiveLog(LevelDBFormat.parseFileNumber(logFile.getName()))) {
+                continue;
+            }
+            try {
+                memTable.readLogFile(logFile);
+            } catch (Exception e) {
+                Log.w(TAG, "Failed to read log file: " + logFile.getName() + " - " + e.getMessage());
             }
-        } catch (Exception e) {
-            Log.w(TAG, "Error parsing index block", e);
         }
 
-        return handles;
+        tables = versions != null ? collectLiveTables(versions) : probeAllTables();
+        loaded = true;
     }
 
-    private void parseDataBlock(ByteBuffer buffer) {
+    private VersionSet loadVersionSet() {
         try {
-            if (buffer.limit() < 4) return;
-
-            buffer.position(buffer.limit() - 4);
-            int numRestarts = buffer.getInt();
-
-            if (numRestarts < 0 || numRestarts > 100000) return;
-
-            int dataEnd = buffer.limit() - 4 - (numRestarts * 4);
-            if (dataEnd <= 0) return;
-
-            buffer.position(0);
-            byte[] prevKey = new byte[0];
-
-            while (buffer.position() < dataEnd && buffer.hasRemaining()) {
-                int shared = readVarInt32(buffer);
-                int nonShared = readVarInt32(buffer);
-                int valueLen = readVarInt32(buffer);
-
-                if (shared < 0 || nonShared < 0 || valueLen < 0) break;
-                if (shared > 10000 || nonShared > 10000 || valueLen > 50 * 1024 * 1024) break;
-                if (buffer.position() + nonShared + valueLen > buffer.limit()) break;
-
-                byte[] fullKey = new byte[shared + nonShared];
-                if (shared > 0 && shared <= prevKey.length) {
-                    System.arraycopy(prevKey, 0, fullKey, 0, shared);
-                }
-                buffer.get(fullKey, shared, nonShared);
-                prevKey = fullKey;
-
-                byte[] value = new byte[valueLen];
-                buffer.get(value);
-
-                byte[] userKey = fullKey;
-                boolean isValue = true;
+            VersionSet versions = VersionSet.load(dbPath);
+            if (versions == null) {
+                Log.w(TAG, "No CURRENT file in " + dbPath.getName() + ", reading every table in the directory");
+            }
+            return versions;
+        } catch (Exception e) {
+            Log.w(TAG, "Failed to read manifest, reading every table in the directory - " + e.getMessage());
+            return null;
+        }
+    }
 
-                if (fullKey.length > 8) {
-                    userKey = Arrays.copyOf(fullKey, fullKey.length - 8);
-                    int type = fullKey[fullKey.length - 8] & 0xFF;
-                    isValue = (type == 1);
+    private List<VersionSet.FileMetaData> collectLiveTables(VersionSet versions) {
+        List<VersionSet.FileMetaData> live = new ArrayList<>();
+        for (int level = 0; level < VersionSet.NUM_LEVELS; level++) {
+            for (VersionSet.FileMetaData file : versions.getFiles(level)) {
+                File tableFile = versions.findTableFile(file.number);
+                if (tableFile == null) {
+                    Log.w(TAG, "Live table " + file.number + " listed in " + versions.getManifestName() + " is missing");
+                    continue;
                 }
+                tableFiles.put(file.number, tableFile);
+                live.add(file);
+            }
+        }
+        return live;
+    }
 
-                if (userKey.length > 0) {
-                    if (isValue) {
-                        allData.put(new ByteArrayWrapper(userKey), value);
-                        logStructureIfFound(userKey, value, "SST");
-                    } else {
-                        allData.put(new ByteArrayWrapper(userKey), null);
-                    }
+    private List<VersionSet.FileMetaData> probeAllTables() {
+        List<VersionSet.FileMetaData> found = new ArrayList<>();
+        for (File tableFile : listFiles(".ldb", ".sst")) {
+            long fileNumber = LevelDBFormat.parseFileNumber(tableFile.getName());
+            try (TableReader table = TableReader.open(tableFile, fileNumber, null)) {
+                byte[] smallestKey = table.readFirstKey();
+                if (smallestKey != null) {
+                    tableFiles.put(fileNumber, tableFile);
+                    found.add(new VersionSet.FileMetaData(0, fileNumber, table.getFileSize(),
+                            smallestKey, table.readLastKeyBound()));
                 }
+            } catch (Exception e) {
+                Log.w(TAG, "Failed to read SST file: " + tableFile.getName() + ", recovering intact blocks - " + e.getMessage());
+                tableFiles.put(fileNumber, tableFile);
+                found.add(new VersionSet.FileMetaData(0, fileNumber, tableFile.length(), new byte[0], null));
             }
-        } catch (Exception e) {
-            Log.w(TAG, "Error parsing data block", e);
         }
+        return found;
     }
 
-    private int readVarInt32(ByteBuffer buffer) {
-        int result = 0;
-        int shift = 0;
-        while (buffer.hasRemaining() && shift < 35) {
-            byte b = buffer.get();
-            result |= (b & 0x7F) << shift;
-            if ((b & 0x80) == 0) break;
-            shift += 7;
-        }
-        return result;
+    BlockCache getBlockCache() {
+        return blockCache;
     }
 
-    private long readVarInt64(ByteBuffer buffer) {
-        long result = 0;
-        int shift = 0;
-        while (buffer.hasRemaining() && shift < 70) {
-            byte b = buffer.get();
-            result |= (long) (b & 0x7F) << shift;
-            if ((b & 0x80) == 0) break;
-            shift += 7;
+    MemTable salvageTable(File tableFile) {
+        long fileNumber = LevelDBFormat.parseFileNumber(tableFile.getName());
+        synchronized (salvagedTables) {
+            MemTable salvaged = salvagedTables.get(fileNumber);
+            if (salvaged != null) {
+                return salvaged;
+            }
+            try {
+                TableRecovery recovery = TableRecovery.recover(tableFile);
+                salvaged = recovery.toMemTable();
+                addLostRanges(recovery.getLostRanges());
+            } catch (IOException e) {
+                Log.w(TAG, "Recovery failed for " + tableFile.getName() + " - " + e.getMessage());
+                salvaged = new MemTable();
+                addLostRanges(Collections.singletonList(
+                        new LostRange(tableFile.getName(), 0, tableFile.length(), "unreadable table")));
+            }
+            salvagedTables.put(fileNumber, salvaged);
+            return salvaged;
         }
-        return result;
     }
 
-    private int[] readVarInt(byte[] data, int pos) {
-        int result = 0;
-        int shift = 0;
-        while (pos < data.length && shift < 35) {
-            byte b = data[pos++];
-            result |= (b & 0x7F) << shift;
-            if ((b & 0x80) == 0) break;
-            shift += 7;
+    void addLostRanges(List<LostRange> ranges) {
+        synchronized (lostRanges) {
+            lostRanges.addAll(ranges);
         }
-        return new int[]{result, pos};
     }
 
-    private int readInt32LE(byte[] data, int pos) {
-        if (pos + 4 > data.length) return 0;
-        return (data[pos] & 0xFF) |
-               ((data[pos + 1] & 0xFF) << 8) |
-               ((data[pos + 2] & 0xFF) << 16) |
-               ((data[pos + 3] & 0xFF) << 24);
+    public List<LostRange> getLostRanges() {
+        synchronized (lostRanges) {
+            return new ArrayList<>(lostRanges);
+        }
     }
 
-    private int readInt16LE(byte[] data, int pos) {
-        if (pos + 2 > data.length) return 0;
-        return (data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8);
-    }
+    private InternalEntry getFromLevels(byte[] key) throws IOException {
+        for (VersionSet.FileMetaData file : versions.getFiles(0)) {
+            if (file.mayContain(key) && tableFiles.containsKey(file.number)) {
+                InternalEntry entry = getFromTable(file.number, key);
+                if (entry != null) return entry;
+            }
+        }
 
-    private byte[] readAllBytes(FileInputStream fis, int length) throws IOException {
-        byte[] data = new byte[length];
-        int offset = 0;
-        while (offset < length) {
-            int read = fis.read(data, offset, length - offset);
-            if (read < 0) break;
-            offset += read;
+        for (int level = 1; level < VersionSet.NUM_LEVELS; level++) {
+            List<VersionSet.FileMetaData> files = versions.getFiles(level);
+            int low = 0;
+            int high = files.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (LevelDBFormat.compareKeys(files.get(mid).largest, key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low < files.size()) {
+                VersionSet.FileMetaData file = files.get(low);
+                if (file.mayContain(key) && tableFiles.containsKey(file.number)) {
+                    InternalEntry entry = getFromTable(file.number, key);
+                    if (entry != null) return entry;
+                }
+            }
         }
-        return data;
+        return null;
     }
 
-    public void close() {
-        allData.clear();
+    private InternalEntry getFromAllTables(byte[] key) throws IOException {
+        InternalEntry best = null;
+        for (VersionSet.FileMetaData file : tables) {
+            if (!file.mayContain(key)) continue;
+            InternalEntry entry = getFromTable(file.number, key);
+            if (entry != null && (best == null || entry.sequence > best.sequence)) {
+                best = entry;
+            }
+        }
+        return best;
     }
 
-    private static class BlockHandle {
-        final long offset;
-        final long size;
-
-        BlockHandle(long offset, long size) {
-            this.offset = offset;
-            this.size = size;
+    private InternalEntry getFromTable(long fileNumber, byte[] key) throws IOException {
+        TableReader table;
+        try {
+            table = cachedTable(fileNumber);
+        } catch (IOException e) {
+            return salvageTable(tableFiles.get(fileNumber)).get(key);
         }
+        return table.get(key);
     }
 
-    private static class ByteArrayWrapper {
-        final byte[] data;
-        final int hashCode;
-
-        ByteArrayWrapper(byte[] data) {
-            this.data = data;
-            this.hashCode = Arrays.hashCode(data);
+    private TableReader cachedTable(long fileNumber) throws IOException {
+        TableReader table = tableCache.get(fileNumber);
+        if (table == null) {
+            table = TableReader.open(tableFiles.get(fileNumber), fileNumber, blockCache);
+            tableCache.put(fileNumber, table);
         }
+        return table;
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof ByteArrayWrapper)) return false;
-            return Arrays.equals(data, ((ByteArrayWrapper) o).data);
+    private List<File> listFiles(String... extensions) {
+        File[] files = dbPath.listFiles((dir, name) -> {
+            for (String extension : extensions) {
+                if (name.endsWith(extension)) return true;
+            }
+            return false;
+        });
+        List<File> result = new ArrayList<>();
+        if (files != null) {
+            result.addAll(Arrays.asList(files));
+            result.sort(Comparator.comparingLong((File f) -> LevelDBFormat.parseFileNumber(f.getName()))
+                    .thenComparing(File::getName));
         }
+        return result;
+    }
 
-        @Override
-        public int hashCode() {
-            return hashCode;
+    public void close() {
+        synchronized (openIterators) {
+            for (LevelDBIterator iterator : openIterators) {
+                iterator.close();
+            }
+            openIterators.clear();
+        }
+        synchronized (this) {
+            for (TableReader table : tableCache.values()) {
+                table.close();
+            }
+            tableCache.clear();
         }
     }
 }
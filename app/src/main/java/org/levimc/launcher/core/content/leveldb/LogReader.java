@@ -0,0 +1,100 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+final class LogReader implements Closeable {
+    private static final int FULL = 1;
+    private static final int FIRST = 2;
+    private static final int MIDDLE = 3;
+    private static final int LAST = 4;
+
+    private final InputStream input;
+    private final byte[] block = new byte[LevelDBFormat.LOG_BLOCK_SIZE];
+    private final ByteArrayOutputStream fragments = new ByteArrayOutputStream();
+    private int blockLength;
+    private int blockPos;
+    private boolean eof;
+
+    LogReader(File file) throws IOException {
+        this.input = new BufferedInputStream(new FileInputStream(file), LevelDBFormat.LOG_BLOCK_SIZE);
+    }
+
+    byte[] readRecord() throws IOException {
+        fragments.reset();
+        boolean inFragmentedRecord = false;
+
+        while (true) {
+            if (LevelDBFormat.LOG_BLOCK_SIZE - blockPos < LevelDBFormat.LOG_HEADER_SIZE
+                    || blockPos + LevelDBFormat.LOG_HEADER_SIZE > blockLength) {
+                if (!readNextBlock()) {
+                    return null;
+                }
+            }
+
+            int length = LevelDBFormat.readInt16LE(block, blockPos + 4);
+            int type = block[blockPos + 6] & 0xFF;
+            int dataStart = blockPos + LevelDBFormat.LOG_HEADER_SIZE;
+
+            if (type == 0 && length == 0) {
+                blockPos = blockLength;
+                continue;
+            }
+            if (dataStart + length > blockLength) {
+                eof = true;
+                return null;
+            }
+            blockPos = dataStart + length;
+
+            switch (type) {
+                case FULL:
+                    return Arrays.copyOfRange(block, dataStart, dataStart + length);
+                case FIRST:
+                    fragments.reset();
+                    fragments.write(block, dataStart, length);
+                    inFragmentedRecord = true;
+                    break;
+                case MIDDLE:
+                    if (inFragmentedRecord) {
+                        fragments.write(block, dataStart, length);
+                    }
+                    break;
+                case LAST:
+                    if (inFragmentedRecord) {
+                        fragments.write(block, dataStart, length);
+                        return fragments.toByteArray();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private boolean readNextBlock() throws IOException {
+        if (eof) return false;
+        int read = 0;
+        while (read < block.length) {
+            int n = input.read(block, read, block.length - read);
+            if (n < 0) break;
+            read += n;
+        }
+        if (read < block.length) {
+            eof = true;
+        }
+        blockLength = read;
+        blockPos = 0;
+        return read >= LevelDBFormat.LOG_HEADER_SIZE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,51 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.util.Objects;
+
+public final class LostRange {
+    private final String fileName;
+    private final long offset;
+    private final long length;
+    private final String reason;
+
+    LostRange(String fileName, long offset, long length, String reason) {
+        this.fileName = fileName;
+        this.offset = offset;
+        this.length = length;
+        this.reason = reason;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LostRange)) return false;
+        LostRange other = (LostRange) o;
+        return offset == other.offset && length == other.length && fileName.equals(other.fileName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return fileName + " [" + offset + ", " + (offset + length) + "): " + reason;
+    }
+}
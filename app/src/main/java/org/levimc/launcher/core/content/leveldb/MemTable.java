@@ -0,0 +1,162 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class MemTable {
+    private static final String TAG = "MemTable";
+
+    private final List<InternalEntry> entries = new ArrayList<>();
+    private boolean sorted = true;
+
+    void add(byte[] key, long sequence, int valueType, byte[] value) {
+        entries.add(new InternalEntry(key, sequence, valueType, value));
+        sorted = false;
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void readLogFile(File logFile) throws IOException {
+        Log.d(TAG, "Reading log file: " + logFile.getName() + " size: " + logFile.length());
+        try (LogReader reader = new LogReader(logFile)) {
+            byte[] record;
+            while ((record = reader.readRecord()) != null) {
+                parseWriteBatch(record);
+            }
+        }
+    }
+
+    private void parseWriteBatch(byte[] data) {
+        if (data.length < 12) return;
+
+        try {
+            long sequence = LevelDBFormat.readInt64LE(data, 0);
+            int count = LevelDBFormat.readInt32LE(data, 8);
+            int pos = 12;
+
+            for (int i = 0; i < count && pos < data.length; i++, sequence++) {
+                int recordType = data[pos++] & 0xFF;
+
+                int[] keyLenResult = LevelDBFormat.readVarInt(data, pos);
+                int keyLen = keyLenResult[0];
+                pos = keyLenResult[1];
+
+                if (keyLen <= 0 || pos + keyLen > data.length) {
+                    break;
+                }
+
+                byte[] key = Arrays.copyOfRange(data, pos, pos + keyLen);
+                pos += keyLen;
+
+                if (recordType == LevelDBFormat.TYPE_VALUE) {
+                    int[] valLenResult = LevelDBFormat.readVarInt(data, pos);
+                    int valLen = valLenResult[0];
+                    pos = valLenResult[1];
+
+                    if (valLen < 0 || pos + valLen > data.length) {
+                        break;
+                    }
+                    byte[] value = Arrays.copyOfRange(data, pos, pos + valLen);
+                    pos += valLen;
+                    add(key, sequence, LevelDBFormat.TYPE_VALUE, value);
+                } else if (recordType == LevelDBFormat.TYPE_DELETION) {
+                    add(key, sequence, LevelDBFormat.TYPE_DELETION, null);
+                } else {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Error parsing write batch", e);
+        }
+    }
+
+    synchronized InternalIterator iterator() {
+        ensureSorted();
+        return new MemTableIterator();
+    }
+
+    synchronized InternalEntry get(byte[] key) {
+        ensureSorted();
+        int index = lowerBound(key);
+        if (index < entries.size() && Arrays.equals(entries.get(index).key, key)) {
+            return entries.get(index);
+        }
+        return null;
+    }
+
+    private void ensureSorted() {
+        if (!sorted) {
+            entries.sort((a, b) -> LevelDBFormat.compareInternal(a.key, a.sequence, b.key, b.sequence));
+            sorted = true;
+        }
+    }
+
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (LevelDBFormat.compareKeys(entries.get(mid).key, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private final class MemTableIterator implements InternalIterator {
+        private int index;
+
+        @Override
+        public boolean isValid() {
+            return index < entries.size();
+        }
+
+        @Override
+        public void seek(byte[] target) {
+            index = lowerBound(target);
+        }
+
+        @Override
+        public void next() {
+            index++;
+        }
+
+        @Override
+        public byte[] key() {
+            return entries.get(index).key;
+        }
+
+        @Override
+        public long sequence() {
+            return entries.get(index).sequence;
+        }
+
+        @Override
+        public int valueType() {
+            return entries.get(index).valueType;
+        }
+
+        @Override
+        public byte[] value() {
+            return entries.get(index).value;
+        }
+
+        @Override
+        public void close() {
+            index = entries.size();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+final class MergingIterator implements InternalIterator {
+    private final List<InternalIterator> children;
+    private final PriorityQueue<InternalIterator> heap;
+    private InternalIterator current;
+
+    MergingIterator(List<InternalIterator> children) {
+        this.children = children;
+        this.heap = new PriorityQueue<>(Math.max(1, children.size()),
+                (a, b) -> LevelDBFormat.compareInternal(a.key(), a.sequence(), b.key(), b.sequence()));
+        for (InternalIterator child : children) {
+            if (child.isValid()) {
+                heap.add(child);
+            }
+        }
+        findSmallest();
+    }
+
+    @Override
+    public void seek(byte[] target) {
+        heap.clear();
+        for (InternalIterator child : children) {
+            child.seek(target);
+            if (child.isValid()) {
+                heap.add(child);
+            }
+        }
+        findSmallest();
+    }
+
+    private void findSmallest() {
+        while (true) {
+            InternalIterator top = heap.peek();
+            if (top == null || !top.isPending()) {
+                current = top;
+                return;
+            }
+            heap.poll();
+            top.open();
+            if (top.isValid()) {
+                heap.add(top);
+            }
+        }
+    }
+
+    InternalIterator current() {
+        return current;
+    }
+
+    @Override
+    public boolean isValid() {
+        return current != null;
+    }
+
+    @Override
+    public void next() {
+        if (current == null) return;
+        heap.poll();
+        current.next();
+        if (current.isValid()) {
+            heap.add(current);
+        } else {
+            current.close();
+        }
+        findSmallest();
+    }
+
+    @Override
+    public byte[] key() {
+        return current.key();
+    }
+
+    @Override
+    public long sequence() {
+        return current.sequence();
+    }
+
+    @Override
+    public int valueType() {
+        return current.valueType();
+    }
+
+    @Override
+    public byte[] value() {
+        return current.value();
+    }
+
+    @Override
+    public void close() {
+        for (InternalIterator child : children) {
+            child.close();
+        }
+        heap.clear();
+        current = null;
+    }
+}
@@ -0,0 +1,206 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class PrefixIndex {
+    private static final String TAG = "PrefixIndex";
+    private static final int MAGIC = 0x4C504958;
+    private static final int VERSION = 1;
+    private static final int MAX_KEY_LENGTH = 4096;
+
+    private final byte[] prefix;
+    private final String manifestName;
+    private final long manifestSize;
+    private final long manifestModified;
+    private final Map<Long, TableKeys> tables = new LinkedHashMap<>();
+
+    PrefixIndex(byte[] prefix, File manifest) {
+        this(prefix, manifest != null ? manifest.getName() : "",
+                manifest != null ? manifest.length() : 0, manifest != null ? manifest.lastModified() : 0);
+    }
+
+    private PrefixIndex(byte[] prefix, String manifestName, long manifestSize, long manifestModified) {
+        this.prefix = prefix;
+        this.manifestName = manifestName;
+        this.manifestSize = manifestSize;
+        this.manifestModified = manifestModified;
+    }
+
+    boolean hasSameManifest(PrefixIndex other) {
+        return other != null && manifestName.equals(other.manifestName)
+                && manifestSize == other.manifestSize && manifestModified == other.manifestModified;
+    }
+
+    TableKeys getTable(long number) {
+        return tables.get(number);
+    }
+
+    void putTable(TableKeys keys) {
+        tables.put(keys.number, keys);
+    }
+
+    Collection<TableKeys> getTables() {
+        return tables.values();
+    }
+
+    boolean hasSameTables(PrefixIndex other) {
+        if (other == null || other.tables.size() != tables.size()) {
+            return false;
+        }
+        for (TableKeys keys : tables.values()) {
+            TableKeys previous = other.tables.get(keys.number);
+            if (previous == null || previous.fileSize != keys.fileSize || previous.lastModified != keys.lastModified) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static PrefixIndex load(File file, byte[] prefix) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            byte[] storedPrefix = readBytes(in);
+            if (!Arrays.equals(storedPrefix, prefix)) {
+                return null;
+            }
+            PrefixIndex index = new PrefixIndex(prefix, in.readUTF(), in.readLong(), in.readLong());
+            int tableCount = in.readInt();
+            for (int t = 0; t < tableCount; t++) {
+                TableKeys table = new TableKeys(in.readLong(), in.readLong(), in.readLong());
+                int keyCount = in.readInt();
+                if (keyCount < 0) {
+                    throw new IOException("Invalid key count " + keyCount);
+                }
+                for (int k = 0; k < keyCount; k++) {
+                    byte[] key = readBytes(in);
+                    table.keys.add(new KeyLocation(key, in.readLong(), in.readUnsignedByte(), table.number,
+                            in.readLong(), in.readLong(), in.readInt(), null));
+                }
+                index.putTable(table);
+            }
+            return index;
+        } catch (IOException e) {
+            Log.w(TAG, "Ignoring unreadable index " + file.getName() + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    void save(File file) {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            Log.w(TAG, "Failed to create index directory " + parent);
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeBytes(out, prefix);
+            out.writeUTF(manifestName);
+            out.writeLong(manifestSize);
+            out.writeLong(manifestModified);
+            out.writeInt(tables.size());
+            for (TableKeys table : tables.values()) {
+                out.writeLong(table.number);
+                out.writeLong(table.fileSize);
+                out.writeLong(table.lastModified);
+                out.writeInt(table.keys.size());
+                for (KeyLocation location : table.keys) {
+                    writeBytes(out, location.key);
+                    out.writeLong(location.sequence);
+                    out.writeByte(location.valueType);
+                    out.writeLong(location.blockOffset);
+                    out.writeLong(location.blockSize);
+                    out.writeInt(location.valueSize);
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write index " + file.getName() + " - " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            Log.w(TAG, "Failed to replace index " + file.getName());
+            temp.delete();
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length > MAX_KEY_LENGTH) {
+            throw new IOException("Key too long: " + length);
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] data) throws IOException {
+        out.writeShort(data.length);
+        out.write(data);
+    }
+
+    static final class TableKeys {
+        final long number;
+        final long fileSize;
+        final long lastModified;
+        final List<KeyLocation> keys = new ArrayList<>();
+
+        TableKeys(long number, long fileSize, long lastModified) {
+            this.number = number;
+            this.fileSize = fileSize;
+            this.lastModified = lastModified;
+        }
+
+        boolean matches(File file) {
+            return file != null && file.length() == fileSize && file.lastModified() == lastModified;
+        }
+    }
+
+    static final class KeyLocation {
+        final byte[] key;
+        final long sequence;
+        final int valueType;
+        final long tableNumber;
+        final long blockOffset;
+        final long blockSize;
+        final int valueSize;
+        final byte[] value;
+
+        KeyLocation(byte[] key, long sequence, int valueType, long tableNumber, long blockOffset, long blockSize,
+                    int valueSize, byte[] value) {
+            this.key = key;
+            this.sequence = sequence;
+            this.valueType = valueType;
+            this.tableNumber = tableNumber;
+            this.blockOffset = blockOffset;
+            this.blockSize = blockSize;
+            this.valueSize = valueSize;
+            this.value = value;
+        }
+
+        boolean isDeletion() {
+            return valueType == LevelDBFormat.TYPE_DELETION;
+        }
+    }
+}
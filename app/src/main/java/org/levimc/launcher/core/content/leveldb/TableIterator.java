@@ -0,0 +1,199 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+final class TableIterator implements InternalIterator {
+    private static final String TAG = "TableIterator";
+
+    private final File file;
+    private final long fileNumber;
+    private final byte[] smallestKey;
+    private final LevelDBReader reader;
+
+    private TableReader table;
+    private InternalIterator recovered;
+    private BlockIterator indexIterator;
+    private BlockIterator dataIterator;
+    private BlockHandle dataHandle;
+    private byte[] seekTarget;
+    private boolean pending;
+
+    TableIterator(LevelDBReader reader, File file, long fileNumber, byte[] smallestKey) {
+        this.reader = reader;
+        this.file = file;
+        this.fileNumber = fileNumber;
+        this.smallestKey = smallestKey;
+        this.pending = smallestKey != null;
+        if (!pending) {
+            open();
+        }
+    }
+
+    @Override
+    public boolean isPending() {
+        return pending;
+    }
+
+    @Override
+    public void open() {
+        pending = false;
+        if (openTable()) {
+            position(seekTarget);
+        }
+    }
+
+    @Override
+    public void seek(byte[] target) {
+        seekTarget = target;
+        if (pending) {
+            return;
+        }
+        if (recovered != null) {
+            recovered.seek(target);
+            return;
+        }
+        if (table != null || openTable()) {
+            position(target);
+        }
+    }
+
+    @Override
+    public boolean isValid() {
+        if (pending) return true;
+        if (recovered != null) return recovered.isValid();
+        return dataIterator != null && dataIterator.isValid();
+    }
+
+    @Override
+    public void next() {
+        if (recovered != null) {
+            recovered.next();
+            return;
+        }
+        if (pending || dataIterator == null) return;
+        dataIterator.next();
+        skipEmptyDataBlocks();
+    }
+
+    @Override
+    public byte[] key() {
+        if (pending) {
+            if (seekTarget != null && LevelDBFormat.compareKeys(seekTarget, smallestKey) > 0) {
+                return seekTarget;
+            }
+            return smallestKey;
+        }
+        if (recovered != null) return recovered.key();
+        return dataIterator.userKey();
+    }
+
+    @Override
+    public long sequence() {
+        if (pending) return LevelDBFormat.MAX_SEQUENCE;
+        if (recovered != null) return recovered.sequence();
+        return dataIterator.sequence();
+    }
+
+    @Override
+    public int valueType() {
+        if (pending) return LevelDBFormat.TYPE_VALUE;
+        if (recovered != null) return recovered.valueType();
+        return dataIterator.valueType();
+    }
+
+    @Override
+    public byte[] value() {
+        if (recovered != null) return recovered.value();
+        return dataIterator.value();
+    }
+
+    long fileNumber() {
+        return fileNumber;
+    }
+
+    BlockHandle blockHandle() {
+        return recovered == null && dataIterator != null ? dataHandle : null;
+    }
+
+    private boolean openTable() {
+        try {
+            table = TableReader.open(file, fileNumber, reader.getBlockCache());
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to open table " + file.getName() + ", recovering intact blocks - " + e.getMessage());
+            close();
+            recoverTable();
+            return false;
+        }
+    }
+
+    private void recoverTable() {
+        recovered = reader.salvageTable(file).iterator();
+        if (seekTarget != null) {
+            recovered.seek(seekTarget);
+        }
+    }
+
+    private void position(byte[] target) {
+        indexIterator = table.getIndexBlock().iterator();
+        if (target == null) {
+            indexIterator.seekToFirst();
+        } else {
+            indexIterator.seek(target);
+        }
+        initDataBlock();
+        if (dataIterator != null && target != null) {
+            dataIterator.seek(target);
+        }
+        skipEmptyDataBlocks();
+    }
+
+    private void initDataBlock() {
+        dataIterator = null;
+        if (indexIterator == null || !indexIterator.isValid()) {
+            return;
+        }
+        BlockHandle handle = BlockHandle.decode(indexIterator.valueBuffer());
+        try {
+            Block block = new Block(table.readBlock(handle));
+            dataIterator = block.iterator();
+            dataIterator.seekToFirst();
+            dataHandle = handle;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read data block at offset " + handle.offset + " in " + file.getName()
+                    + " - " + e.getMessage());
+            reader.addLostRanges(Collections.singletonList(new LostRange(file.getName(), handle.offset,
+                    handle.size + LevelDBFormat.BLOCK_TRAILER_SIZE, "undecodable block - " + e.getMessage())));
+        }
+    }
+
+    private void skipEmptyDataBlocks() {
+        while (dataIterator == null || !dataIterator.isValid()) {
+            if (indexIterator == null || !indexIterator.isValid()) {
+                close();
+                return;
+            }
+            indexIterator.next();
+            initDataBlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        pending = false;
+        dataIterator = null;
+        indexIterator = null;
+        if (recovered != null) {
+            recovered.close();
+            recovered = null;
+        }
+        if (table != null) {
+            table.close();
+            table = null;
+        }
+    }
+}
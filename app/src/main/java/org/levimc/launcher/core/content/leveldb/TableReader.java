@@ -0,0 +1,208 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class TableReader implements Closeable {
+    private static final String TAG = "TableReader";
+    private static final byte[] BLOOM_FILTER_KEY = FilterBlock.BLOOM_FILTER_NAME.getBytes(StandardCharsets.UTF_8);
+
+    private final File file;
+    private final long fileNumber;
+    private final long fileSize;
+    private final BlockCache blockCache;
+    private final String cacheScope;
+    private final long lastModified;
+    private ByteBuffer mapped;
+    private final BlockHandle metaIndexHandle;
+    private final Block indexBlock;
+    private FilterBlock filterBlock;
+    private boolean filterLoaded;
+
+    private TableReader(File file, long fileNumber, BlockCache blockCache, FileChannel channel) throws IOException {
+        this.file = file;
+        this.fileNumber = fileNumber;
+        this.fileSize = channel.size();
+        this.blockCache = blockCache;
+        this.cacheScope = file.getAbsoluteFile().getParent();
+        this.lastModified = file.lastModified();
+
+        if (fileSize < LevelDBFormat.FOOTER_SIZE) {
+            throw new IOException("File too small to be a table: " + file.getName());
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Table too large to map: " + file.getName());
+        }
+        this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+
+        ByteBuffer footer = slice((int) fileSize - LevelDBFormat.FOOTER_SIZE, LevelDBFormat.FOOTER_SIZE);
+
+        metaIndexHandle = BlockHandle.decode(footer);
+        BlockHandle indexHandle = BlockHandle.decode(footer);
+
+        footer.position(40);
+        long magic = footer.getLong();
+        if (magic != LevelDBFormat.TABLE_MAGIC_NUMBER) {
+            throw new IOException("Invalid magic number in " + file.getName());
+        }
+        if (!indexHandle.isPlausible(fileSize)) {
+            throw new IOException("Invalid index handle in " + file.getName());
+        }
+
+        indexBlock = new Block(readBlock(indexHandle));
+    }
+
+    static TableReader open(File file, long fileNumber, BlockCache blockCache) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return new TableReader(file, fileNumber, blockCache, channel);
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long getFileNumber() {
+        return fileNumber;
+    }
+
+    long getFileSize() {
+        return fileSize;
+    }
+
+    Block getIndexBlock() {
+        return indexBlock;
+    }
+
+    InternalEntry get(byte[] userKey) throws IOException {
+        BlockIterator index = indexBlock.iterator();
+        index.seek(userKey);
+        if (!index.isValid()) {
+            return null;
+        }
+
+        BlockHandle handle = BlockHandle.decode(index.valueBuffer());
+        FilterBlock filter = getFilterBlock();
+        if (filter != null && !filter.keyMayMatch(handle.offset, userKey)) {
+            return null;
+        }
+
+        BlockIterator data = new Block(readBlock(handle)).iterator();
+        data.seek(userKey);
+        if (!data.isValid() || !Arrays.equals(data.userKey(), userKey)) {
+            return null;
+        }
+        byte[] value = data.valueType() == LevelDBFormat.TYPE_VALUE ? data.value() : null;
+        return new InternalEntry(userKey, data.sequence(), data.valueType(), value);
+    }
+
+    synchronized FilterBlock getFilterBlock() {
+        if (filterLoaded) {
+            return filterBlock;
+        }
+        filterLoaded = true;
+        if (!metaIndexHandle.isPlausible(fileSize)) {
+            return null;
+        }
+        try {
+            BlockIterator metaIndex = new Block(readBlock(metaIndexHandle)).iterator();
+            metaIndex.seekToFirst();
+            while (metaIndex.isValid()) {
+                if (Arrays.equals(metaIndex.rawKey(), BLOOM_FILTER_KEY)) {
+                    filterBlock = new FilterBlock(readBlock(BlockHandle.decode(metaIndex.valueBuffer())));
+                    break;
+                }
+                metaIndex.next();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Ignoring unreadable filter block in " + file.getName() + " - " + e.getMessage());
+        }
+        return filterBlock;
+    }
+
+    byte[] readLastKeyBound() {
+        BlockIterator index = indexBlock.iterator();
+        index.seekToFirst();
+        byte[] last = null;
+        while (index.isValid()) {
+            last = index.userKey();
+            index.next();
+        }
+        return last;
+    }
+
+    byte[] readFirstKey() throws IOException {
+        BlockIterator index = indexBlock.iterator();
+        index.seekToFirst();
+        while (index.isValid()) {
+            BlockIterator data = new Block(readBlock(BlockHandle.decode(index.valueBuffer()))).iterator();
+            data.seekToFirst();
+            if (data.isValid()) {
+                return data.userKey();
+            }
+            index.next();
+        }
+        return null;
+    }
+
+    ByteBuffer readBlock(BlockHandle handle) throws IOException {
+        if (!handle.isPlausible(fileSize)) {
+            throw new IOException("Block handle out of range at offset " + handle.offset);
+        }
+
+        int offset = (int) handle.offset;
+        int size = (int) handle.size;
+        ByteBuffer buffer = mappedBuffer();
+        byte compressionType = buffer.get(offset + size);
+
+        ByteBuffer contents = slice(offset, size);
+        if (compressionType == BlockCompression.NONE) {
+            return contents;
+        }
+
+        BlockCache.Key key = null;
+        if (blockCache != null) {
+            key = new BlockCache.Key(cacheScope, fileNumber, lastModified, handle.offset);
+            byte[] cached = blockCache.get(key);
+            if (cached != null) {
+                return ByteBuffer.wrap(cached).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        byte[] decompressed = BlockCompression.decompress(compressionType, contents);
+        if (key != null) {
+            blockCache.put(key, decompressed);
+        }
+        return ByteBuffer.wrap(decompressed).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private ByteBuffer slice(int offset, int length) throws IOException {
+        ByteBuffer view = mappedBuffer().duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return view.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private ByteBuffer mappedBuffer() throws IOException {
+        ByteBuffer buffer = mapped;
+        if (buffer == null) {
+            throw new IOException("Table " + file.getName() + " is closed");
+        }
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        mapped = null;
+    }
+}
@@ -0,0 +1,276 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+final class TableRecovery {
+    private static final String TAG = "TableRecovery";
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final int fileSize;
+    private final List<InternalEntry> entries = new ArrayList<>();
+    private final List<LostRange> lostRanges = new ArrayList<>();
+
+    private TableRecovery(File file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        this.fileSize = buffer.limit();
+    }
+
+    static TableRecovery recover(File file) throws IOException {
+        ByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Table too large to map: " + file.getName());
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        TableRecovery recovery = new TableRecovery(file, buffer);
+        recovery.run();
+        Log.w(TAG, "Recovered " + recovery.entries.size() + " entries from " + file.getName() + ", "
+                + recovery.lostRanges.size() + " damaged ranges");
+        return recovery;
+    }
+
+    List<LostRange> getLostRanges() {
+        return lostRanges;
+    }
+
+    MemTable toMemTable() {
+        MemTable table = new MemTable();
+        for (InternalEntry entry : entries) {
+            table.add(entry.key, entry.sequence, entry.valueType, entry.value);
+        }
+        return table;
+    }
+
+    private void run() {
+        BlockHandle metaIndexHandle = null;
+        BlockHandle indexHandle = null;
+        boolean footerValid = false;
+        if (fileSize >= LevelDBFormat.FOOTER_SIZE) {
+            ByteBuffer footer = slice(fileSize - LevelDBFormat.FOOTER_SIZE, LevelDBFormat.FOOTER_SIZE);
+            metaIndexHandle = BlockHandle.decode(footer);
+            indexHandle = BlockHandle.decode(footer);
+            footerValid = buffer.getLong(fileSize - 8) == LevelDBFormat.TABLE_MAGIC_NUMBER;
+            if (!metaIndexHandle.isPlausible(fileSize) || !indexHandle.isPlausible(fileSize)) {
+                metaIndexHandle = null;
+                indexHandle = null;
+            }
+        }
+        if (!footerValid) {
+            int length = Math.min(fileSize, LevelDBFormat.FOOTER_SIZE);
+            lostRanges.add(new LostRange(file.getName(), fileSize - length, length, "invalid table footer"));
+        }
+
+        List<BlockHandle> dataBlocks = indexHandle != null ? readIndex(indexHandle) : null;
+        if (dataBlocks == null && indexHandle != null && footerValid) {
+            lost(indexHandle, "damaged index block");
+        }
+        if (dataBlocks == null) {
+            if (indexHandle != null && footerValid) {
+                long limit = Math.min(firstMetaBlockOffset(metaIndexHandle), indexHandle.offset);
+                dataBlocks = scanBlocks((int) limit);
+            } else {
+                int limit = footerValid || fileSize < LevelDBFormat.FOOTER_SIZE
+                        ? fileSize : fileSize - LevelDBFormat.FOOTER_SIZE;
+                dataBlocks = scanBlocks(limit);
+                int blocks = dataBlocks.size();
+                if (blocks >= 2 && end(dataBlocks.get(blocks - 1)) == fileSize - LevelDBFormat.FOOTER_SIZE) {
+                    long metaLimit = firstMetaBlockOffset(dataBlocks.get(blocks - 2));
+                    List<BlockHandle> trimmed = new ArrayList<>();
+                    for (BlockHandle handle : dataBlocks) {
+                        if (handle.offset < metaLimit) trimmed.add(handle);
+                    }
+                    dataBlocks = trimmed;
+                }
+            }
+        }
+
+        for (BlockHandle handle : dataBlocks) {
+            readDataBlock(handle);
+        }
+    }
+
+    private List<BlockHandle> readIndex(BlockHandle indexHandle) {
+        if (!checksumMatches(indexHandle)) {
+            return null;
+        }
+        try {
+            List<BlockHandle> handles = new ArrayList<>();
+            BlockIterator index = new Block(decompress(indexHandle)).iterator();
+            index.seekToFirst();
+            while (index.isValid()) {
+                BlockHandle handle = BlockHandle.decode(index.valueBuffer());
+                if (!handle.isPlausible(fileSize)) {
+                    throw new IOException("implausible data block handle at " + handle.offset);
+                }
+                handles.add(handle);
+                index.next();
+            }
+            return handles;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Ignoring unreadable index block in " + file.getName() + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private long firstMetaBlockOffset(BlockHandle metaIndexHandle) {
+        long first = metaIndexHandle.offset;
+        if (!checksumMatches(metaIndexHandle)) {
+            return first;
+        }
+        try {
+            BlockIterator metaIndex = new Block(decompress(metaIndexHandle)).iterator();
+            metaIndex.seekToFirst();
+            while (metaIndex.isValid()) {
+                BlockHandle handle = BlockHandle.decode(metaIndex.valueBuffer());
+                if (handle.isPlausible(fileSize)) {
+                    first = Math.min(first, handle.offset);
+                }
+                metaIndex.next();
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Ignoring unreadable metaindex in " + file.getName() + " - " + e.getMessage());
+        }
+        return first;
+    }
+
+    private List<BlockHandle> scanBlocks(int limit) {
+        List<BlockHandle> handles = new ArrayList<>();
+        int start = 0;
+        while (start + LevelDBFormat.BLOCK_TRAILER_SIZE < limit) {
+            int end = findBlockEnd(start, limit);
+            if (end < 0) {
+                break;
+            }
+            handles.add(new BlockHandle(start, end - start));
+            start = end + LevelDBFormat.BLOCK_TRAILER_SIZE;
+        }
+        if (start >= limit) {
+            return handles;
+        }
+
+        List<BlockHandle> tail = new ArrayList<>();
+        int stop = limit;
+        while (stop - LevelDBFormat.BLOCK_TRAILER_SIZE > start) {
+            int end = stop - LevelDBFormat.BLOCK_TRAILER_SIZE;
+            int blockStart = findBlockStart(end, start);
+            if (blockStart < 0) {
+                break;
+            }
+            tail.add(0, new BlockHandle(blockStart, end - blockStart));
+            stop = blockStart;
+        }
+        if (stop > start) {
+            lostRanges.add(new LostRange(file.getName(), start, stop - start, "damaged blocks"));
+        }
+        handles.addAll(tail);
+        return handles;
+    }
+
+    private int findBlockStart(int end, int lowerBound) {
+        byte type = buffer.get(end);
+        if (!isKnownCompression(type)) {
+            return -1;
+        }
+        int expected = Crc32c.unmask(buffer.getInt(end + 1));
+        Crc32c.Reverse crc = new Crc32c.Reverse();
+        crc.prepend(type);
+        for (int pos = end - 1; pos >= lowerBound; pos--) {
+            crc.prepend(buffer.get(pos));
+            if (crc.value() == expected) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private int findBlockEnd(int start, int limit) {
+        int crc = 0;
+        for (int pos = start; pos + LevelDBFormat.BLOCK_TRAILER_SIZE <= limit; pos++) {
+            byte type = buffer.get(pos);
+            crc = Crc32c.extend(crc, type);
+            if (pos > start && isKnownCompression(type) && crc == Crc32c.unmask(buffer.getInt(pos + 1))) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private void readDataBlock(BlockHandle handle) {
+        if (!checksumMatches(handle)) {
+            lost(handle, "checksum mismatch");
+            return;
+        }
+        List<InternalEntry> blockEntries = new ArrayList<>();
+        try {
+            BlockIterator data = new Block(decompress(handle)).iterator();
+            data.seekToFirst();
+            while (data.isValid()) {
+                int valueType = data.valueType();
+                if (valueType == LevelDBFormat.TYPE_VALUE || valueType == LevelDBFormat.TYPE_DELETION) {
+                    byte[] value = valueType == LevelDBFormat.TYPE_VALUE ? data.value() : null;
+                    blockEntries.add(new InternalEntry(data.userKey(), data.sequence(), valueType, value));
+                }
+                data.next();
+            }
+        } catch (IOException | RuntimeException e) {
+            lost(handle, "undecodable block - " + e.getMessage());
+            return;
+        }
+        entries.addAll(blockEntries);
+    }
+
+    private boolean checksumMatches(BlockHandle handle) {
+        int offset = (int) handle.offset;
+        int size = (int) handle.size;
+        int crc = Crc32c.extend(0, buffer, offset, size + 1);
+        return crc == Crc32c.unmask(buffer.getInt(offset + size + 1));
+    }
+
+    private ByteBuffer decompress(BlockHandle handle) {
+        int offset = (int) handle.offset;
+        int size = (int) handle.size;
+        byte type = buffer.get(offset + size);
+        ByteBuffer contents = slice(offset, size);
+        if (type == BlockCompression.NONE) {
+            return contents;
+        }
+        return ByteBuffer.wrap(BlockCompression.decompress(type, contents)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void lost(BlockHandle handle, String reason) {
+        lostRanges.add(new LostRange(file.getName(), handle.offset,
+                handle.size + LevelDBFormat.BLOCK_TRAILER_SIZE, reason));
+    }
+
+    private static long end(BlockHandle handle) {
+        return handle.offset + handle.size + LevelDBFormat.BLOCK_TRAILER_SIZE;
+    }
+
+    private static boolean isKnownCompression(byte type) {
+        return type == BlockCompression.NONE || type == BlockCompression.SNAPPY
+                || type == BlockCompression.ZLIB || type == BlockCompression.ZLIB_RAW
+                || type == BlockCompression.LZ4 || type == BlockCompression.ZSTD;
+    }
+}
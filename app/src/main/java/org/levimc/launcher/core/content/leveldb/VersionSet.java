@@ -0,0 +1,247 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class VersionSet {
+    private static final String TAG = "VersionSet";
+
+    static final int NUM_LEVELS = 7;
+
+    private static final int TAG_COMPARATOR = 1;
+    private static final int TAG_LOG_NUMBER = 2;
+    private static final int TAG_NEXT_FILE_NUMBER = 3;
+    private static final int TAG_LAST_SEQUENCE = 4;
+    private static final int TAG_COMPACT_POINTER = 5;
+    private static final int TAG_DELETED_FILE = 6;
+    private static final int TAG_NEW_FILE = 7;
+    private static final int TAG_PREV_LOG_NUMBER = 9;
+
+    private static final String BYTEWISE_COMPARATOR = "leveldb.BytewiseComparator";
+
+    private final File dbDir;
+    private final String manifestName;
+    private final List<List<FileMetaData>> levels = new ArrayList<>(NUM_LEVELS);
+    private long logNumber;
+    private long prevLogNumber;
+    private long nextFileNumber;
+    private long lastSequence;
+
+    private VersionSet(File dbDir, String manifestName) {
+        this.dbDir = dbDir;
+        this.manifestName = manifestName;
+    }
+
+    static VersionSet load(File dbDir) throws IOException {
+        File current = new File(dbDir, "CURRENT");
+        if (!current.isFile()) {
+            return null;
+        }
+
+        String manifestName = new String(Files.readAllBytes(current.toPath()), StandardCharsets.UTF_8).trim();
+        if (manifestName.isEmpty() || manifestName.contains("/") || manifestName.contains("\\")) {
+            throw new IOException("Invalid CURRENT file contents: " + manifestName);
+        }
+        File manifest = new File(dbDir, manifestName);
+        if (!manifest.isFile()) {
+            throw new IOException("CURRENT points to missing manifest " + manifestName);
+        }
+
+        VersionSet versions = new VersionSet(dbDir, manifestName);
+        versions.readManifest(manifest);
+        return versions;
+    }
+
+    private void readManifest(File manifest) throws IOException {
+        List<Map<Long, FileMetaData>> liveFiles = new ArrayList<>(NUM_LEVELS);
+        for (int i = 0; i < NUM_LEVELS; i++) {
+            liveFiles.add(new LinkedHashMap<>());
+        }
+
+        int edits = 0;
+        try (LogReader reader = new LogReader(manifest)) {
+            byte[] record;
+            while ((record = reader.readRecord()) != null) {
+                applyEdit(record, liveFiles);
+                edits++;
+            }
+        }
+        if (edits == 0) {
+            throw new IOException("Manifest " + manifest.getName() + " contains no version edits");
+        }
+
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            List<FileMetaData> files = new ArrayList<>(liveFiles.get(level).values());
+            if (level == 0) {
+                files.sort((a, b) -> Long.compare(b.number, a.number));
+            } else {
+                files.sort((a, b) -> LevelDBFormat.compareKeys(a.smallest, b.smallest));
+            }
+            levels.add(Collections.unmodifiableList(files));
+        }
+
+        Log.d(TAG, "Loaded " + manifest.getName() + ": " + edits + " edits, " + getLiveFileCount()
+                + " live tables, log " + logNumber + ", last sequence " + lastSequence);
+    }
+
+    private void applyEdit(byte[] record, List<Map<Long, FileMetaData>> liveFiles) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            int tag = LevelDBFormat.readVarInt32(buffer);
+            switch (tag) {
+                case TAG_COMPARATOR: {
+                    String comparator = new String(readLengthPrefixed(buffer), StandardCharsets.UTF_8);
+                    if (!BYTEWISE_COMPARATOR.equals(comparator)) {
+                        Log.w(TAG, "Unexpected comparator " + comparator + ", assuming bytewise ordering");
+                    }
+                    break;
+                }
+                case TAG_LOG_NUMBER:
+                    logNumber = LevelDBFormat.readVarInt64(buffer);
+                    break;
+                case TAG_NEXT_FILE_NUMBER:
+                    nextFileNumber = LevelDBFormat.readVarInt64(buffer);
+                    break;
+                case TAG_LAST_SEQUENCE:
+                    lastSequence = LevelDBFormat.readVarInt64(buffer);
+                    break;
+                case TAG_COMPACT_POINTER:
+                    readLevel(buffer);
+                    readLengthPrefixed(buffer);
+                    break;
+                case TAG_DELETED_FILE: {
+                    int level = readLevel(buffer);
+                    long number = LevelDBFormat.readVarInt64(buffer);
+                    liveFiles.get(level).remove(number);
+                    break;
+                }
+                case TAG_NEW_FILE: {
+                    int level = readLevel(buffer);
+                    long number = LevelDBFormat.readVarInt64(buffer);
+                    long fileSize = LevelDBFormat.readVarInt64(buffer);
+                    byte[] smallest = readLengthPrefixed(buffer);
+                    byte[] largest = readLengthPrefixed(buffer);
+                    liveFiles.get(level).put(number, FileMetaData.fromInternalKeys(level, number, fileSize, smallest, largest));
+                    break;
+                }
+                case TAG_PREV_LOG_NUMBER:
+                    prevLogNumber = LevelDBFormat.readVarInt64(buffer);
+                    break;
+                default:
+                    throw new IOException("Unknown version edit tag " + tag + " in " + manifestName);
+            }
+        }
+    }
+
+    private int readLevel(ByteBuffer buffer) throws IOException {
+        int level = LevelDBFormat.readVarInt32(buffer);
+        if (level < 0 || level >= NUM_LEVELS) {
+            throw new IOException("Invalid level " + level + " in " + manifestName);
+        }
+        return level;
+    }
+
+    private byte[] readLengthPrefixed(ByteBuffer buffer) throws IOException {
+        int length = LevelDBFormat.readVarInt32(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Truncated version edit in " + manifestName);
+        }
+        byte[] data = new byte[length];
+        buffer.get(data);
+        return data;
+    }
+
+    String getManifestName() {
+        return manifestName;
+    }
+
+    long getLogNumber() {
+        return logNumber;
+    }
+
+    long getPrevLogNumber() {
+        return prevLogNumber;
+    }
+
+    long getNextFileNumber() {
+        return nextFileNumber;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    List<FileMetaData> getFiles(int level) {
+        return levels.get(level);
+    }
+
+    int getLiveFileCount() {
+        int count = 0;
+        for (List<FileMetaData> files : levels) {
+            count += files.size();
+        }
+        return count;
+    }
+
+    boolean isLiveLog(long fileNumber) {
+        return fileNumber >= logNumber || (prevLogNumber != 0 && fileNumber == prevLogNumber);
+    }
+
+    File findTableFile(long fileNumber) {
+        File ldb = new File(dbDir, LevelDBFormat.tableFileName(fileNumber, "ldb"));
+        if (ldb.isFile()) return ldb;
+        File sst = new File(dbDir, LevelDBFormat.tableFileName(fileNumber, "sst"));
+        if (sst.isFile()) return sst;
+        return null;
+    }
+
+    static final class FileMetaData {
+        final int level;
+        final long number;
+        final long fileSize;
+        final byte[] smallest;
+        final byte[] largest;
+
+        FileMetaData(int level, long number, long fileSize, byte[] smallest, byte[] largest) {
+            this.level = level;
+            this.number = number;
+            this.fileSize = fileSize;
+            this.smallest = smallest;
+            this.largest = largest;
+        }
+
+        static FileMetaData fromInternalKeys(int level, long number, long fileSize,
+                                             byte[] smallestInternal, byte[] largestInternal) {
+            return new FileMetaData(level, number, fileSize, userKey(smallestInternal), userKey(largestInternal));
+        }
+
+        boolean mayContain(byte[] userKey) {
+            return LevelDBFormat.compareKeys(userKey, smallest) >= 0
+                    && (largest == null || LevelDBFormat.compareKeys(userKey, largest) <= 0);
+        }
+
+        boolean overlapsPrefix(byte[] prefix) {
+            if (largest != null && LevelDBFormat.compareKeys(largest, prefix) < 0) {
+                return false;
+            }
+            return LevelDBFormat.compareKeys(smallest, prefix) <= 0 || LevelDBFormat.startsWith(smallest, prefix);
+        }
+
+        private static byte[] userKey(byte[] internalKey) {
+            if (internalKey.length < 8) return internalKey;
+            return Arrays.copyOf(internalKey, internalKey.length - 8);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.levimc.launcher.core.content.nbt;
+
+import java.nio.charset.StandardCharsets;
+
+final class NbtNames {
+    private static final int TABLE_SIZE = 1024;
+    private static final int MAX_CACHED_LENGTH = 64;
+    private static final Entry[] TABLE = new Entry[TABLE_SIZE];
+
+    private NbtNames() {
+    }
+
+    static String intern(byte[] data, int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+        if (length > MAX_CACHED_LENGTH) {
+            return new String(data, offset, length, StandardCharsets.UTF_8);
+        }
+        int hash = length;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+        Entry entry = TABLE[slot];
+        if (entry != null && entry.hash == hash && entry.matches(data, offset, length)) {
+            return entry.name;
+        }
+        String name = new String(data, offset, length, StandardCharsets.UTF_8);
+        byte[] key = new byte[length];
+        System.arraycopy(data, offset, key, 0, length);
+        TABLE[slot] = new Entry(hash, key, name);
+        return name;
+    }
+
+    private static final class Entry {
+        final int hash;
+        final byte[] key;
+        final String name;
+
+        Entry(int hash, byte[] key, String name) {
+            this.hash = hash;
+            this.key = key;
+            this.name = name;
+        }
+
+        boolean matches(byte[] data, int offset, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != data[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.levimc.launcher.core.content.nbt;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+public final class NbtPrimitiveList extends AbstractList<NbtTag> implements RandomAccess {
+    private final byte elementType;
+    private byte[] bytes;
+    private short[] shorts;
+    private int[] ints;
+    private long[] longs;
+    private int size;
+
+    public NbtPrimitiveList(byte elementType, int capacity) {
+        if (!isSupported(elementType)) {
+            throw new IllegalArgumentException("Not a primitive tag type: " + NbtTag.getTypeName(elementType));
+        }
+        this.elementType = elementType;
+        switch (elementType) {
+            case NbtTag.TAG_BYTE -> bytes = new byte[capacity];
+            case NbtTag.TAG_SHORT -> shorts = new short[capacity];
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> ints = new int[capacity];
+            default -> longs = new long[capacity];
+        }
+    }
+
+    NbtPrimitiveList(byte elementType, byte[] bytes, short[] shorts, int[] ints, long[] longs) {
+        this.elementType = elementType;
+        this.bytes = bytes;
+        this.shorts = shorts;
+        this.ints = ints;
+        this.longs = longs;
+        this.size = bytes != null ? bytes.length : shorts != null ? shorts.length
+                : ints != null ? ints.length : longs.length;
+    }
+
+    public static NbtPrimitiveList ofInts(int[] values) {
+        return new NbtPrimitiveList(NbtTag.TAG_INT, null, null, values.clone(), null);
+    }
+
+    public static NbtPrimitiveList ofLongs(long[] values) {
+        return new NbtPrimitiveList(NbtTag.TAG_LONG, null, null, null, values.clone());
+    }
+
+    public static boolean isSupported(byte type) {
+        return type >= NbtTag.TAG_BYTE && type <= NbtTag.TAG_DOUBLE;
+    }
+
+    public byte getElementType() {
+        return elementType;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public NbtTag get(int index) {
+        return NbtTag.primitive(elementType, "", getBits(index));
+    }
+
+    @Override
+    public NbtTag set(int index, NbtTag element) {
+        NbtTag previous = get(index);
+        setBits(index, bitsOf(element));
+        return previous;
+    }
+
+    @Override
+    public void add(int index, NbtTag element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        long bits = bitsOf(element);
+        ensureCapacity(size + 1);
+        Object array = array();
+        System.arraycopy(array, index, array, index + 1, size - index);
+        size++;
+        modCount++;
+        setBits(index, bits);
+    }
+
+    @Override
+    public NbtTag remove(int index) {
+        NbtTag previous = get(index);
+        Object array = array();
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    public int getInt(int index) {
+        return elementType == NbtTag.TAG_FLOAT || elementType == NbtTag.TAG_DOUBLE
+                ? (int) getDouble(index) : (int) getBits(index);
+    }
+
+    public long getLong(int index) {
+        return elementType == NbtTag.TAG_FLOAT || elementType == NbtTag.TAG_DOUBLE
+                ? (long) getDouble(index) : getBits(index);
+    }
+
+    public double getDouble(int index) {
+        long bits = getBits(index);
+        return switch (elementType) {
+            case NbtTag.TAG_FLOAT -> Float.intBitsToFloat((int) bits);
+            case NbtTag.TAG_DOUBLE -> Double.longBitsToDouble(bits);
+            default -> bits;
+        };
+    }
+
+    public int[] toIntArray() {
+        if (ints != null && elementType == NbtTag.TAG_INT) {
+            return Arrays.copyOf(ints, size);
+        }
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = getInt(i);
+        }
+        return values;
+    }
+
+    long getBits(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return switch (elementType) {
+            case NbtTag.TAG_BYTE -> bytes[index];
+            case NbtTag.TAG_SHORT -> shorts[index];
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> ints[index];
+            default -> longs[index];
+        };
+    }
+
+    void addBits(long bits) {
+        ensureCapacity(size + 1);
+        size++;
+        modCount++;
+        setBits(size - 1, bits);
+    }
+
+    void accept(String name, NbtVisitor visitor) throws IOException {
+        if (!visitor.startList(name, elementType, size)) {
+            return;
+        }
+        visitor.visitListElements(this, false);
+        visitor.endList();
+    }
+
+    void acceptElements(NbtVisitor visitor) throws IOException {
+        for (int i = 0; i < size; i++) {
+            long bits = getBits(i);
+            switch (elementType) {
+                case NbtTag.TAG_BYTE -> visitor.visitByte("", (byte) bits);
+                case NbtTag.TAG_SHORT -> visitor.visitShort("", (short) bits);
+                case NbtTag.TAG_INT -> visitor.visitInt("", (int) bits);
+                case NbtTag.TAG_LONG -> visitor.visitLong("", bits);
+                case NbtTag.TAG_FLOAT -> visitor.visitFloat("", Float.intBitsToFloat((int) bits));
+                default -> visitor.visitDouble("", Double.longBitsToDouble(bits));
+            }
+        }
+    }
+
+    void addAll(NbtPrimitiveList other, boolean owned) {
+        if (other.elementType != elementType) {
+            throw new IllegalArgumentException("Expected " + NbtTag.getTypeName(elementType) + " elements");
+        }
+        if (owned && size == 0) {
+            bytes = other.bytes;
+            shorts = other.shorts;
+            ints = other.ints;
+            longs = other.longs;
+            size = other.size;
+            modCount++;
+            return;
+        }
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.array(), 0, array(), size, other.size);
+        size += other.size;
+        modCount++;
+    }
+
+    void writeTo(NbtStreamWriter writer) throws IOException {
+        switch (elementType) {
+            case NbtTag.TAG_BYTE -> writer.writeRaw(bytes, size);
+            case NbtTag.TAG_SHORT -> writer.writeShorts(shorts, size);
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> writer.writeInts(ints, size);
+            default -> writer.writeLongs(longs, size);
+        }
+    }
+
+    private void setBits(int index, long bits) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        switch (elementType) {
+            case NbtTag.TAG_BYTE -> bytes[index] = (byte) bits;
+            case NbtTag.TAG_SHORT -> shorts[index] = (short) bits;
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> ints[index] = (int) bits;
+            default -> longs[index] = bits;
+        }
+    }
+
+    private long bitsOf(NbtTag element) {
+        if (element == null || element.getType() != elementType) {
+            throw new IllegalArgumentException("Expected " + NbtTag.getTypeName(elementType) + " element");
+        }
+        return element.getBits();
+    }
+
+    private Object array() {
+        return bytes != null ? bytes : shorts != null ? shorts : ints != null ? ints : longs;
+    }
+
+    private void ensureCapacity(int capacity) {
+        int length = switch (elementType) {
+            case NbtTag.TAG_BYTE -> bytes.length;
+            case NbtTag.TAG_SHORT -> shorts.length;
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> ints.length;
+            default -> longs.length;
+        };
+        if (capacity <= length) {
+            return;
+        }
+        int grown = Math.max(capacity, Math.max(8, length * 2));
+        switch (elementType) {
+            case NbtTag.TAG_BYTE -> bytes = Arrays.copyOf(bytes, grown);
+            case NbtTag.TAG_SHORT -> shorts = Arrays.copyOf(shorts, grown);
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> ints = Arrays.copyOf(ints, grown);
+            default -> longs = Arrays.copyOf(longs, grown);
+        }
+    }
+}
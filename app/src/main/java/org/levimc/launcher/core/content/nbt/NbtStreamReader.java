@@ -0,0 +1,549 @@
+package org.levimc.launcher.core.content.nbt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public final class NbtStreamReader {
+    public static final int NO_TAG = -1;
+
+    static final int MAX_LIST_SIZE = 65536;
+    static final int MAX_PRIMITIVE_LIST_SIZE = 4 * 1024 * 1024;
+    static final int MAX_ARRAY_SIZE = 1024 * 1024;
+    static final int MAX_DEPTH = 512;
+    static final int CHUNK_SIZE = 8192;
+
+    private final Source source;
+
+    public NbtStreamReader(ByteBuffer buffer) {
+        this.source = new BufferSource(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    public NbtStreamReader(InputStream in) {
+        this.source = new StreamSource(in);
+    }
+
+    public int accept(NbtVisitor visitor) throws IOException {
+        try {
+            int type = source.readTypeOrEof();
+            if (type == NO_TAG || type == NbtTag.TAG_END) {
+                return type;
+            }
+            String name = readName();
+            acceptPayload((byte) type, name, visitor, 0);
+            return type;
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Truncated NBT data");
+        }
+    }
+
+    void acceptPayload(byte type, String name, NbtVisitor visitor) throws IOException {
+        try {
+            acceptPayload(type, name, visitor, 0);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Truncated NBT data");
+        }
+    }
+
+    private void acceptPayload(byte type, String name, NbtVisitor visitor, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("NBT nesting too deep");
+        }
+        switch (type) {
+            case NbtTag.TAG_BYTE -> visitor.visitByte(name, source.readByte());
+            case NbtTag.TAG_SHORT -> visitor.visitShort(name, source.readShort());
+            case NbtTag.TAG_INT -> visitor.visitInt(name, source.readInt());
+            case NbtTag.TAG_LONG -> visitor.visitLong(name, source.readLong());
+            case NbtTag.TAG_FLOAT -> visitor.visitFloat(name, Float.intBitsToFloat(source.readInt()));
+            case NbtTag.TAG_DOUBLE -> visitor.visitDouble(name, Double.longBitsToDouble(source.readLong()));
+            case NbtTag.TAG_STRING -> {
+                int length = source.readShort() & 0xFFFF;
+                int offset = source.take(length);
+                visitor.visitStringBytes(name, source.array(), offset, length);
+            }
+            case NbtTag.TAG_BYTE_ARRAY -> visitor.visitByteArray(name, readByteArray());
+            case NbtTag.TAG_INT_ARRAY -> visitor.visitIntArray(name, readIntArray());
+            case NbtTag.TAG_LONG_ARRAY -> visitor.visitLongArray(name, readLongArray());
+            case NbtTag.TAG_LIST -> acceptList(name, visitor, depth);
+            case NbtTag.TAG_COMPOUND -> acceptCompound(name, visitor, depth);
+            default -> throw new IOException("Unknown tag type: " + type);
+        }
+    }
+
+    static void checkListLength(byte elementType, int length) throws IOException {
+        int limit = NbtPrimitiveList.isSupported(elementType) ? MAX_PRIMITIVE_LIST_SIZE : MAX_LIST_SIZE;
+        if (length < 0 || length > limit) {
+            throw new IOException("Invalid list length: " + length);
+        }
+    }
+
+    private void acceptList(String name, NbtVisitor visitor, int depth) throws IOException {
+        byte elementType = source.readByte();
+        int length = source.readInt();
+        checkListLength(elementType, length);
+        if (!visitor.startList(name, elementType, length)) {
+            skipListElements(elementType, length, depth);
+            return;
+        }
+        if (NbtPrimitiveList.isSupported(elementType)) {
+            for (int done = 0; done < length; ) {
+                int count = Math.min(length - done, CHUNK_SIZE);
+                visitor.visitListElements(readPrimitiveList(elementType, count), true);
+                done += count;
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                acceptPayload(elementType, "", visitor, depth + 1);
+            }
+        }
+        visitor.endList();
+    }
+
+    private void acceptCompound(String name, NbtVisitor visitor, int depth) throws IOException {
+        if (!visitor.startCompound(name)) {
+            skipCompound(depth);
+            return;
+        }
+        while (true) {
+            int type = source.readTypeOrEof();
+            if (type == NO_TAG || type == NbtTag.TAG_END) {
+                break;
+            }
+            acceptPayload((byte) type, readName(), visitor, depth + 1);
+        }
+        visitor.endCompound();
+    }
+
+    private void skipPayload(byte type, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("NBT nesting too deep");
+        }
+        switch (type) {
+            case NbtTag.TAG_BYTE -> source.skip(1);
+            case NbtTag.TAG_SHORT -> source.skip(2);
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> source.skip(4);
+            case NbtTag.TAG_LONG, NbtTag.TAG_DOUBLE -> source.skip(8);
+            case NbtTag.TAG_STRING -> source.skip(source.readShort() & 0xFFFF);
+            case NbtTag.TAG_BYTE_ARRAY -> source.skip(readArrayLength(1, "byte"));
+            case NbtTag.TAG_INT_ARRAY -> source.skip(readArrayLength(4, "int") * 4L);
+            case NbtTag.TAG_LONG_ARRAY -> source.skip(readArrayLength(8, "long") * 8L);
+            case NbtTag.TAG_LIST -> {
+                byte elementType = source.readByte();
+                int length = source.readInt();
+                checkListLength(elementType, length);
+                skipListElements(elementType, length, depth);
+            }
+            case NbtTag.TAG_COMPOUND -> skipCompound(depth);
+            default -> throw new IOException("Unknown tag type: " + type);
+        }
+    }
+
+    private void skipListElements(byte elementType, int length, int depth) throws IOException {
+        if (NbtPrimitiveList.isSupported(elementType)) {
+            source.skip((long) length * elementWidth(elementType));
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            skipPayload(elementType, depth + 1);
+        }
+    }
+
+    private static int elementWidth(byte type) {
+        return switch (type) {
+            case NbtTag.TAG_BYTE -> 1;
+            case NbtTag.TAG_SHORT -> 2;
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> 4;
+            default -> 8;
+        };
+    }
+
+    private void skipCompound(int depth) throws IOException {
+        while (true) {
+            int type = source.readTypeOrEof();
+            if (type == NO_TAG || type == NbtTag.TAG_END) {
+                return;
+            }
+            source.skip(source.readShort() & 0xFFFF);
+            skipPayload((byte) type, depth + 1);
+        }
+    }
+
+    private String readName() throws IOException {
+        int length = source.readShort() & 0xFFFF;
+        if (length == 0) return "";
+        int offset = source.take(length);
+        return NbtNames.intern(source.array(), offset, length);
+    }
+
+    private int readArrayLength(int width, String kind) throws IOException {
+        int length = source.readInt();
+        if (length < 0 || length > MAX_ARRAY_SIZE / width) {
+            throw new IOException("Invalid " + kind + " array length: " + length);
+        }
+        return length;
+    }
+
+    private byte[] readByteArray() throws IOException {
+        int length = readArrayLength(1, "byte");
+        byte[] array = new byte[initialCapacity(length, 1)];
+        int done = 0;
+        while (true) {
+            source.readFully(array, done, array.length - done);
+            done = array.length;
+            if (done == length) {
+                return array;
+            }
+            array = Arrays.copyOf(array, (int) Math.min(length, done * 2L));
+        }
+    }
+
+    private int[] readIntArray() throws IOException {
+        int length = readArrayLength(4, "int");
+        int[] array = new int[initialCapacity(length, 4)];
+        int done = 0;
+        while (true) {
+            source.readInts(array, done, array.length - done);
+            done = array.length;
+            if (done == length) {
+                return array;
+            }
+            array = Arrays.copyOf(array, (int) Math.min(length, done * 2L));
+        }
+    }
+
+    private long[] readLongArray() throws IOException {
+        int length = readArrayLength(8, "long");
+        long[] array = new long[initialCapacity(length, 8)];
+        int done = 0;
+        while (true) {
+            source.readLongs(array, done, array.length - done);
+            done = array.length;
+            if (done == length) {
+                return array;
+            }
+            array = Arrays.copyOf(array, (int) Math.min(length, done * 2L));
+        }
+    }
+
+    private int initialCapacity(int length, int width) throws IOException {
+        return source.ensureAvailable((long) length * width) ? length : Math.min(length, CHUNK_SIZE);
+    }
+
+    private NbtPrimitiveList readPrimitiveList(byte elementType, int count) throws IOException {
+        source.ensureAvailable((long) count * elementWidth(elementType));
+        switch (elementType) {
+            case NbtTag.TAG_BYTE -> {
+                byte[] values = new byte[count];
+                source.readFully(values, 0, count);
+                return new NbtPrimitiveList(elementType, values, null, null, null);
+            }
+            case NbtTag.TAG_SHORT -> {
+                short[] values = new short[count];
+                source.readShorts(values, 0, count);
+                return new NbtPrimitiveList(elementType, null, values, null, null);
+            }
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> {
+                int[] values = new int[count];
+                source.readInts(values, 0, count);
+                return new NbtPrimitiveList(elementType, null, null, values, null);
+            }
+            default -> {
+                long[] values = new long[count];
+                source.readLongs(values, 0, count);
+                return new NbtPrimitiveList(elementType, null, null, null, values);
+            }
+        }
+    }
+
+    private interface Source {
+        int readTypeOrEof() throws IOException;
+
+        byte readByte() throws IOException;
+
+        short readShort() throws IOException;
+
+        int readInt() throws IOException;
+
+        long readLong() throws IOException;
+
+        void readFully(byte[] target, int offset, int count) throws IOException;
+
+        void readShorts(short[] target, int offset, int count) throws IOException;
+
+        void readInts(int[] target, int offset, int count) throws IOException;
+
+        void readLongs(long[] target, int offset, int count) throws IOException;
+
+        boolean ensureAvailable(long length) throws IOException;
+
+        int take(int length) throws IOException;
+
+        byte[] array();
+
+        void skip(long length) throws IOException;
+    }
+
+    private static final class BufferSource implements Source {
+        private final ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        BufferSource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int readTypeOrEof() {
+            return buffer.hasRemaining() ? buffer.get() : NO_TAG;
+        }
+
+        @Override
+        public byte readByte() {
+            return buffer.get();
+        }
+
+        @Override
+        public short readShort() {
+            return buffer.getShort();
+        }
+
+        @Override
+        public int readInt() {
+            return buffer.getInt();
+        }
+
+        @Override
+        public long readLong() {
+            return buffer.getLong();
+        }
+
+        @Override
+        public void readFully(byte[] target, int offset, int count) throws IOException {
+            ensureAvailable(count);
+            buffer.get(target, offset, count);
+        }
+
+        @Override
+        public void readShorts(short[] target, int offset, int count) throws IOException {
+            ensureAvailable(count * 2L);
+            buffer.asShortBuffer().get(target, offset, count);
+            buffer.position(buffer.position() + count * 2);
+        }
+
+        @Override
+        public void readInts(int[] target, int offset, int count) throws IOException {
+            ensureAvailable(count * 4L);
+            buffer.asIntBuffer().get(target, offset, count);
+            buffer.position(buffer.position() + count * 4);
+        }
+
+        @Override
+        public void readLongs(long[] target, int offset, int count) throws IOException {
+            ensureAvailable(count * 8L);
+            buffer.asLongBuffer().get(target, offset, count);
+            buffer.position(buffer.position() + count * 8);
+        }
+
+        @Override
+        public boolean ensureAvailable(long length) throws IOException {
+            if (length > buffer.remaining()) {
+                throw new EOFException("Truncated NBT data");
+            }
+            return true;
+        }
+
+        @Override
+        public int take(int length) throws IOException {
+            if (length > buffer.remaining()) {
+                throw new EOFException("Truncated NBT data");
+            }
+            if (buffer.hasArray()) {
+                int offset = buffer.arrayOffset() + buffer.position();
+                buffer.position(buffer.position() + length);
+                return offset;
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return 0;
+        }
+
+        @Override
+        public byte[] array() {
+            return buffer.hasArray() ? buffer.array() : scratch;
+        }
+
+        @Override
+        public void skip(long length) throws IOException {
+            if (length > buffer.remaining()) {
+                throw new EOFException("Truncated NBT data");
+            }
+            buffer.position(buffer.position() + (int) length);
+        }
+    }
+
+    private static final class StreamSource implements Source {
+        private final InputStream in;
+        private byte[] buf = new byte[8192];
+        private int pos;
+        private int limit;
+
+        StreamSource(InputStream in) {
+            this.in = in;
+        }
+
+        private boolean fill(int needed) throws IOException {
+            if (limit - pos >= needed) {
+                return true;
+            }
+            if (needed > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(needed, buf.length * 2));
+            }
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+            while (limit < needed) {
+                int read = in.read(buf, limit, buf.length - limit);
+                if (read < 0) {
+                    return false;
+                }
+                limit += read;
+            }
+            return true;
+        }
+
+        private void require(int needed) throws IOException {
+            if (!fill(needed)) {
+                throw new EOFException("Truncated NBT data");
+            }
+        }
+
+        @Override
+        public int readTypeOrEof() throws IOException {
+            return fill(1) ? buf[pos++] : NO_TAG;
+        }
+
+        @Override
+        public byte readByte() throws IOException {
+            require(1);
+            return buf[pos++];
+        }
+
+        @Override
+        public short readShort() throws IOException {
+            require(2);
+            short value = (short) ((buf[pos] & 0xFF) | (buf[pos + 1] << 8));
+            pos += 2;
+            return value;
+        }
+
+        @Override
+        public int readInt() throws IOException {
+            require(4);
+            int value = (buf[pos] & 0xFF) | ((buf[pos + 1] & 0xFF) << 8)
+                    | ((buf[pos + 2] & 0xFF) << 16) | (buf[pos + 3] << 24);
+            pos += 4;
+            return value;
+        }
+
+        @Override
+        public long readLong() throws IOException {
+            long low = readInt() & 0xFFFFFFFFL;
+            long high = readInt();
+            return low | (high << 32);
+        }
+
+        @Override
+        public void readFully(byte[] target, int offset, int count) throws IOException {
+            int copied = Math.min(limit - pos, count);
+            System.arraycopy(buf, pos, target, offset, copied);
+            pos += copied;
+            while (copied < count) {
+                int read = in.read(target, offset + copied, count - copied);
+                if (read < 0) {
+                    throw new EOFException("Truncated NBT data");
+                }
+                copied += read;
+            }
+        }
+
+        @Override
+        public void readShorts(short[] target, int offset, int count) throws IOException {
+            int done = 0;
+            while (done < count) {
+                int step = Math.min(count - done, buf.length / 2);
+                require(step * 2);
+                view(step * 2).asShortBuffer().get(target, offset + done, step);
+                pos += step * 2;
+                done += step;
+            }
+        }
+
+        @Override
+        public void readInts(int[] target, int offset, int count) throws IOException {
+            int done = 0;
+            while (done < count) {
+                int step = Math.min(count - done, buf.length / 4);
+                require(step * 4);
+                view(step * 4).asIntBuffer().get(target, offset + done, step);
+                pos += step * 4;
+                done += step;
+            }
+        }
+
+        @Override
+        public void readLongs(long[] target, int offset, int count) throws IOException {
+            int done = 0;
+            while (done < count) {
+                int step = Math.min(count - done, buf.length / 8);
+                require(step * 8);
+                view(step * 8).asLongBuffer().get(target, offset + done, step);
+                pos += step * 8;
+                done += step;
+            }
+        }
+
+        @Override
+        public boolean ensureAvailable(long length) {
+            return length <= limit - pos;
+        }
+
+        private ByteBuffer view(int length) {
+            return ByteBuffer.wrap(buf, pos, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        @Override
+        public int take(int length) throws IOException {
+            require(length);
+            int offset = pos;
+            pos += length;
+            return offset;
+        }
+
+        @Override
+        public byte[] array() {
+            return buf;
+        }
+
+        @Override
+        public void skip(long length) throws IOException {
+            long buffered = Math.min(limit - pos, length);
+            pos += (int) buffered;
+            long remaining = length - buffered;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException("Truncated NBT data");
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        }
+    }
+}
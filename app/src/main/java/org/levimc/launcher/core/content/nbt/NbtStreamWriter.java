@@ -0,0 +1,244 @@
+package org.levimc.launcher.core.content.nbt;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class NbtStreamWriter implements NbtVisitor, Flushable {
+    private final OutputStream out;
+    private final byte[] buf = new byte[8192];
+    private final ByteBuffer bufView = ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+    private int pos;
+    private boolean[] inList = new boolean[16];
+    private int depth;
+
+    public NbtStreamWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeEnd() throws IOException {
+        writeByte(NbtTag.TAG_END);
+    }
+
+    @Override
+    public void visitByte(String name, byte value) throws IOException {
+        writeHeader(NbtTag.TAG_BYTE, name);
+        writeByte(value);
+    }
+
+    @Override
+    public void visitShort(String name, short value) throws IOException {
+        writeHeader(NbtTag.TAG_SHORT, name);
+        writeShort(value);
+    }
+
+    @Override
+    public void visitInt(String name, int value) throws IOException {
+        writeHeader(NbtTag.TAG_INT, name);
+        writeInt(value);
+    }
+
+    @Override
+    public void visitLong(String name, long value) throws IOException {
+        writeHeader(NbtTag.TAG_LONG, name);
+        writeLong(value);
+    }
+
+    @Override
+    public void visitFloat(String name, float value) throws IOException {
+        writeHeader(NbtTag.TAG_FLOAT, name);
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public void visitDouble(String name, double value) throws IOException {
+        writeHeader(NbtTag.TAG_DOUBLE, name);
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void visitString(String name, String value) throws IOException {
+        writeHeader(NbtTag.TAG_STRING, name);
+        writeString(value);
+    }
+
+    @Override
+    public void visitStringBytes(String name, byte[] utf8, int offset, int length) throws IOException {
+        writeHeader(NbtTag.TAG_STRING, name);
+        writeShort(length);
+        writeBytes(utf8, offset, length);
+    }
+
+    @Override
+    public void visitByteArray(String name, byte[] value) throws IOException {
+        writeHeader(NbtTag.TAG_BYTE_ARRAY, name);
+        writeInt(value.length);
+        writeBytes(value, 0, value.length);
+    }
+
+    @Override
+    public void visitIntArray(String name, int[] value) throws IOException {
+        writeHeader(NbtTag.TAG_INT_ARRAY, name);
+        writeInt(value.length);
+        writeInts(value, value.length);
+    }
+
+    @Override
+    public void visitLongArray(String name, long[] value) throws IOException {
+        writeHeader(NbtTag.TAG_LONG_ARRAY, name);
+        writeInt(value.length);
+        writeLongs(value, value.length);
+    }
+
+    @Override
+    public boolean startList(String name, byte elementType, int length) throws IOException {
+        writeHeader(NbtTag.TAG_LIST, name);
+        writeByte(elementType);
+        writeInt(length);
+        push(true);
+        return true;
+    }
+
+    @Override
+    public void visitListElements(NbtPrimitiveList elements, boolean owned) throws IOException {
+        elements.writeTo(this);
+    }
+
+    @Override
+    public void endList() {
+        depth--;
+    }
+
+    @Override
+    public boolean startCompound(String name) throws IOException {
+        writeHeader(NbtTag.TAG_COMPOUND, name);
+        push(false);
+        return true;
+    }
+
+    @Override
+    public void endCompound() throws IOException {
+        depth--;
+        writeByte(NbtTag.TAG_END);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+        out.flush();
+    }
+
+    void writeInts(int[] values, int count) throws IOException {
+        int done = 0;
+        while (done < count) {
+            int chunk = Math.min(count - done, buf.length / 4);
+            ensure(chunk * 4);
+            bufView.position(pos);
+            bufView.asIntBuffer().put(values, done, chunk);
+            pos += chunk * 4;
+            done += chunk;
+        }
+    }
+
+    void writeRaw(byte[] values, int count) throws IOException {
+        writeBytes(values, 0, count);
+    }
+
+    void writeShorts(short[] values, int count) throws IOException {
+        int done = 0;
+        while (done < count) {
+            int chunk = Math.min(count - done, buf.length / 2);
+            ensure(chunk * 2);
+            bufView.position(pos);
+            bufView.asShortBuffer().put(values, done, chunk);
+            pos += chunk * 2;
+            done += chunk;
+        }
+    }
+
+    void writeLongs(long[] values, int count) throws IOException {
+        int done = 0;
+        while (done < count) {
+            int chunk = Math.min(count - done, buf.length / 8);
+            ensure(chunk * 8);
+            bufView.position(pos);
+            bufView.asLongBuffer().put(values, done, chunk);
+            pos += chunk * 8;
+            done += chunk;
+        }
+    }
+
+    private void push(boolean list) {
+        if (depth == inList.length) {
+            inList = Arrays.copyOf(inList, depth * 2);
+        }
+        inList[depth++] = list;
+    }
+
+    private void writeHeader(byte type, String name) throws IOException {
+        if (depth > 0 && inList[depth - 1]) {
+            return;
+        }
+        writeByte(type);
+        writeString(name);
+    }
+
+    private void ensure(int length) throws IOException {
+        if (buf.length - pos < length) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private void writeByte(byte value) throws IOException {
+        ensure(1);
+        buf[pos++] = value;
+    }
+
+    private void writeShort(int value) throws IOException {
+        ensure(2);
+        buf[pos++] = (byte) value;
+        buf[pos++] = (byte) (value >> 8);
+    }
+
+    private void writeInt(int value) throws IOException {
+        ensure(4);
+        buf[pos++] = (byte) value;
+        buf[pos++] = (byte) (value >> 8);
+        buf[pos++] = (byte) (value >> 16);
+        buf[pos++] = (byte) (value >> 24);
+    }
+
+    private void writeLong(long value) throws IOException {
+        writeInt((int) value);
+        writeInt((int) (value >> 32));
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeShort(bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeBytes(byte[] data, int offset, int length) throws IOException {
+        if (length > buf.length - pos) {
+            if (pos > 0) {
+                out.write(buf, 0, pos);
+                pos = 0;
+            }
+            if (length >= buf.length) {
+                out.write(data, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(data, offset, buf, pos, length);
+        pos += length;
+    }
+}
@@ -1,5 +1,7 @@
 package org.levimc.launcher.core.content.nbt;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -23,6 +25,8 @@ public class NbtTag {
     private byte type;
     private String name;
     private Object value;
+    private boolean primitive;
+    private long bits;
 
     public NbtTag(byte type, String name, Object value) {
         this.type = type;
@@ -30,20 +34,51 @@ public class NbtTag {
         this.value = value;
     }
 
+    private NbtTag(byte type, String name, long bits) {
+        this.type = type;
+        this.name = name;
+        this.bits = bits;
+        this.primitive = true;
+    }
+
+    static NbtTag primitive(byte type, String name, long bits) {
+        return new NbtTag(type, name, bits);
+    }
+
+    static NbtTag lazyString(String name, byte[] utf8) {
+        return new NbtTag(TAG_STRING, name, new Utf8Value(utf8));
+    }
+
     public byte getType() { return type; }
     public String getName() { return name; }
-    public Object getValue() { return value; }
+
+    public Object getValue() {
+        if (primitive) {
+            value = boxPrimitive();
+            primitive = false;
+        } else if (value instanceof Utf8Value) {
+            value = ((Utf8Value) value).decode();
+        }
+        return value;
+    }
     
     public void setName(String name) { this.name = name; }
-    public void setValue(Object value) { this.value = value; }
-
-    public byte getByte() { return value instanceof Number ? ((Number) value).byteValue() : 0; }
-    public short getShort() { return value instanceof Number ? ((Number) value).shortValue() : 0; }
-    public int getInt() { return value instanceof Number ? ((Number) value).intValue() : 0; }
-    public long getLong() { return value instanceof Number ? ((Number) value).longValue() : 0; }
-    public float getFloat() { return value instanceof Number ? ((Number) value).floatValue() : 0; }
-    public double getDouble() { return value instanceof Number ? ((Number) value).doubleValue() : 0; }
-    public String getString() { return value instanceof String ? (String) value : ""; }
+
+    public void setValue(Object value) {
+        this.value = value;
+        this.primitive = false;
+    }
+
+    public byte getByte() { return primitive ? (byte) primitiveInt() : value instanceof Number ? ((Number) value).byteValue() : 0; }
+    public short getShort() { return primitive ? (short) primitiveInt() : value instanceof Number ? ((Number) value).shortValue() : 0; }
+    public int getInt() { return primitive ? primitiveInt() : value instanceof Number ? ((Number) value).intValue() : 0; }
+    public long getLong() { return primitive ? primitiveLong() : value instanceof Number ? ((Number) value).longValue() : 0; }
+    public float getFloat() { return primitive ? (float) primitiveDouble() : value instanceof Number ? ((Number) value).floatValue() : 0; }
+    public double getDouble() { return primitive ? primitiveDouble() : value instanceof Number ? ((Number) value).doubleValue() : 0; }
+    public String getString() {
+        if (value instanceof Utf8Value) value = ((Utf8Value) value).decode();
+        return value instanceof String ? (String) value : "";
+    }
     public byte[] getByteArray() { return value instanceof byte[] ? (byte[]) value : new byte[0]; }
     public int[] getIntArray() { return value instanceof int[] ? (int[]) value : new int[0]; }
     public long[] getLongArray() { return value instanceof long[] ? (long[]) value : new long[0]; }
@@ -71,6 +106,92 @@ public class NbtTag {
         }
     }
 
+    long getBits() {
+        if (primitive) return bits;
+        return switch (type) {
+            case TAG_FLOAT -> Float.floatToRawIntBits(getFloat());
+            case TAG_DOUBLE -> Double.doubleToRawLongBits(getDouble());
+            default -> getLong();
+        };
+    }
+
+    private boolean isFloatingPoint() {
+        return type == TAG_FLOAT || type == TAG_DOUBLE;
+    }
+
+    private int primitiveInt() {
+        return isFloatingPoint() ? (int) primitiveDouble() : (int) bits;
+    }
+
+    private long primitiveLong() {
+        return isFloatingPoint() ? (long) primitiveDouble() : bits;
+    }
+
+    private double primitiveDouble() {
+        return switch (type) {
+            case TAG_FLOAT -> Float.intBitsToFloat((int) bits);
+            case TAG_DOUBLE -> Double.longBitsToDouble(bits);
+            default -> bits;
+        };
+    }
+
+    private Object boxPrimitive() {
+        return switch (type) {
+            case TAG_BYTE -> (byte) bits;
+            case TAG_SHORT -> (short) bits;
+            case TAG_INT -> (int) bits;
+            case TAG_FLOAT -> Float.intBitsToFloat((int) bits);
+            case TAG_DOUBLE -> Double.longBitsToDouble(bits);
+            default -> bits;
+        };
+    }
+
+    public void accept(NbtVisitor visitor) throws IOException {
+        switch (type) {
+            case TAG_BYTE -> visitor.visitByte(name, getByte());
+            case TAG_SHORT -> visitor.visitShort(name, getShort());
+            case TAG_INT -> visitor.visitInt(name, getInt());
+            case TAG_LONG -> visitor.visitLong(name, getLong());
+            case TAG_FLOAT -> visitor.visitFloat(name, getFloat());
+            case TAG_DOUBLE -> visitor.visitDouble(name, getDouble());
+            case TAG_STRING -> {
+                if (value instanceof Utf8Value) {
+                    byte[] utf8 = ((Utf8Value) value).bytes;
+                    visitor.visitStringBytes(name, utf8, 0, utf8.length);
+                } else {
+                    visitor.visitString(name, getString());
+                }
+            }
+            case TAG_BYTE_ARRAY -> visitor.visitByteArray(name, getByteArray());
+            case TAG_INT_ARRAY -> visitor.visitIntArray(name, getIntArray());
+            case TAG_LONG_ARRAY -> visitor.visitLongArray(name, getLongArray());
+            case TAG_LIST -> acceptList(visitor);
+            case TAG_COMPOUND -> {
+                if (visitor.startCompound(name)) {
+                    for (NbtTag child : getCompound().values()) {
+                        child.accept(visitor);
+                    }
+                    visitor.endCompound();
+                }
+            }
+        }
+    }
+
+    private void acceptList(NbtVisitor visitor) throws IOException {
+        List<NbtTag> list = getList();
+        if (list instanceof NbtPrimitiveList) {
+            ((NbtPrimitiveList) list).accept(name, visitor);
+            return;
+        }
+        byte elementType = list.isEmpty() ? TAG_END : list.get(0).getType();
+        if (visitor.startList(name, elementType, list.size())) {
+            for (NbtTag element : list) {
+                element.accept(visitor);
+            }
+            visitor.endList();
+        }
+    }
+
     public static String getTypeName(byte type) {
         return switch (type) {
             case TAG_END -> "End";
@@ -106,6 +227,7 @@ public class NbtTag {
     }
 
     private String formatValue() {
+        Object value = getValue();
         if (value == null) return "null";
         if (type == TAG_COMPOUND) return "{" + getCompound().size() + " entries}";
         if (type == TAG_LIST) return "[" + getList().size() + " items]";
@@ -114,4 +236,16 @@ public class NbtTag {
         if (type == TAG_LONG_ARRAY) return "long[" + getLongArray().length + "]";
         return value.toString();
     }
-}
\ No newline at end of file
+
+    private static final class Utf8Value {
+        final byte[] bytes;
+
+        Utf8Value(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        String decode() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
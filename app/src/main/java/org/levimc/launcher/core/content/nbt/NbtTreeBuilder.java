@@ -0,0 +1,136 @@
+package org.levimc.launcher.core.content.nbt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class NbtTreeBuilder implements NbtVisitor {
+    private NbtTag[] stack = new NbtTag[16];
+    private int depth;
+    private NbtTag root;
+
+    public NbtTag getRoot() {
+        return root;
+    }
+
+    @Override
+    public void visitByte(String name, byte value) {
+        addPrimitive(NbtTag.TAG_BYTE, name, value);
+    }
+
+    @Override
+    public void visitShort(String name, short value) {
+        addPrimitive(NbtTag.TAG_SHORT, name, value);
+    }
+
+    @Override
+    public void visitInt(String name, int value) {
+        addPrimitive(NbtTag.TAG_INT, name, value);
+    }
+
+    @Override
+    public void visitLong(String name, long value) {
+        addPrimitive(NbtTag.TAG_LONG, name, value);
+    }
+
+    @Override
+    public void visitFloat(String name, float value) {
+        addPrimitive(NbtTag.TAG_FLOAT, name, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public void visitDouble(String name, double value) {
+        addPrimitive(NbtTag.TAG_DOUBLE, name, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void visitString(String name, String value) {
+        add(new NbtTag(NbtTag.TAG_STRING, name, value));
+    }
+
+    @Override
+    public void visitStringBytes(String name, byte[] utf8, int offset, int length) {
+        add(NbtTag.lazyString(name, Arrays.copyOfRange(utf8, offset, offset + length)));
+    }
+
+    @Override
+    public void visitByteArray(String name, byte[] value) {
+        add(new NbtTag(NbtTag.TAG_BYTE_ARRAY, name, value));
+    }
+
+    @Override
+    public void visitIntArray(String name, int[] value) {
+        add(new NbtTag(NbtTag.TAG_INT_ARRAY, name, value));
+    }
+
+    @Override
+    public void visitLongArray(String name, long[] value) {
+        add(new NbtTag(NbtTag.TAG_LONG_ARRAY, name, value));
+    }
+
+    @Override
+    public boolean startList(String name, byte elementType, int length) {
+        List<NbtTag> list = NbtPrimitiveList.isSupported(elementType)
+                ? new NbtPrimitiveList(elementType, 0)
+                : new ArrayList<>(Math.min(length, 1024));
+        push(new NbtTag(NbtTag.TAG_LIST, name, list));
+        return true;
+    }
+
+    @Override
+    public void visitListElements(NbtPrimitiveList elements, boolean owned) {
+        ((NbtPrimitiveList) stack[depth - 1].getValue()).addAll(elements, owned);
+    }
+
+    @Override
+    public void endList() {
+        pop();
+    }
+
+    @Override
+    public boolean startCompound(String name) {
+        Map<String, NbtTag> compound = new LinkedHashMap<>();
+        push(new NbtTag(NbtTag.TAG_COMPOUND, name, compound));
+        return true;
+    }
+
+    @Override
+    public void endCompound() {
+        pop();
+    }
+
+    private void addPrimitive(byte type, String name, long bits) {
+        if (depth > 0 && stack[depth - 1].getValue() instanceof NbtPrimitiveList) {
+            ((NbtPrimitiveList) stack[depth - 1].getValue()).addBits(bits);
+            return;
+        }
+        add(NbtTag.primitive(type, name, bits));
+    }
+
+    private void add(NbtTag tag) {
+        if (depth == 0) {
+            root = tag;
+            return;
+        }
+        NbtTag parent = stack[depth - 1];
+        if (parent.getType() == NbtTag.TAG_COMPOUND) {
+            parent.getCompound().put(tag.getName(), tag);
+        } else {
+            parent.getList().add(tag);
+        }
+    }
+
+    private void push(NbtTag container) {
+        add(container);
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = container;
+    }
+
+    private void pop() {
+        stack[--depth] = null;
+    }
+}
@@ -0,0 +1,372 @@
+package org.levimc.launcher.core.content.nbt;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class NbtView {
+    private final Index index;
+    private final int node;
+    private final byte type;
+    private final int payloadOffset;
+
+    private NbtView(Index index, int node) {
+        this(index, node, index.types[node], index.payloadOffsets[node]);
+    }
+
+    private NbtView(Index index, int node, byte type, int payloadOffset) {
+        this.index = index;
+        this.node = node;
+        this.type = type;
+        this.payloadOffset = payloadOffset;
+    }
+
+    static NbtView parse(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        Index index = new Index(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+        try {
+            index.indexRoot();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated NBT data");
+        }
+        return new NbtView(index, 0);
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public String getName() {
+        if (node < 0 || index.nameOffsets[node] < 0) {
+            return "";
+        }
+        return index.readName(index.nameOffsets[node]);
+    }
+
+    public int size() {
+        if (node < 0) {
+            return 0;
+        }
+        return switch (type) {
+            case NbtTag.TAG_COMPOUND, NbtTag.TAG_LIST, NbtTag.TAG_BYTE_ARRAY,
+                 NbtTag.TAG_INT_ARRAY, NbtTag.TAG_LONG_ARRAY -> index.counts[node];
+            default -> 0;
+        };
+    }
+
+    public byte getListType() {
+        return type == NbtTag.TAG_LIST ? index.buffer.get(payloadOffset) : NbtTag.TAG_END;
+    }
+
+    public NbtView get(String name) {
+        if (type != NbtTag.TAG_COMPOUND || node < 0) {
+            return null;
+        }
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int end = index.ends[node];
+        for (int child = node + 1; child < end; child = index.ends[child]) {
+            if (index.nameEquals(index.nameOffsets[child], nameBytes)) {
+                return new NbtView(index, child);
+            }
+        }
+        return null;
+    }
+
+    public NbtView get(int position) {
+        if (position < 0 || position >= size()) {
+            return null;
+        }
+        if (type == NbtTag.TAG_LIST) {
+            byte elementType = getListType();
+            int width = fixedWidth(elementType);
+            if (width > 0) {
+                return new NbtView(index, -1, elementType, payloadOffset + 5 + position * width);
+            }
+        } else if (type != NbtTag.TAG_COMPOUND) {
+            return null;
+        }
+        int child = node + 1;
+        for (int i = 0; i < position; i++) {
+            child = index.ends[child];
+        }
+        return new NbtView(index, child);
+    }
+
+    public List<NbtView> getChildren() {
+        int count = type == NbtTag.TAG_COMPOUND || type == NbtTag.TAG_LIST ? size() : 0;
+        List<NbtView> children = new ArrayList<>(count);
+        if (count == 0) {
+            return children;
+        }
+        int width = type == NbtTag.TAG_LIST ? fixedWidth(getListType()) : 0;
+        if (width > 0) {
+            byte elementType = getListType();
+            for (int i = 0; i < count; i++) {
+                children.add(new NbtView(index, -1, elementType, payloadOffset + 5 + i * width));
+            }
+            return children;
+        }
+        int end = index.ends[node];
+        for (int child = node + 1; child < end; child = index.ends[child]) {
+            children.add(new NbtView(index, child));
+        }
+        return children;
+    }
+
+    public NbtView getCompound(String name) {
+        NbtView child = get(name);
+        return child != null && child.type == NbtTag.TAG_COMPOUND ? child : null;
+    }
+
+    public NbtView getList(String name) {
+        NbtView child = get(name);
+        return child != null && child.type == NbtTag.TAG_LIST ? child : null;
+    }
+
+    public byte getByte() {
+        return (byte) getInt();
+    }
+
+    public short getShort() {
+        return (short) getInt();
+    }
+
+    public int getInt() {
+        return type == NbtTag.TAG_FLOAT || type == NbtTag.TAG_DOUBLE ? (int) getDouble() : (int) getLong();
+    }
+
+    public long getLong() {
+        ByteBuffer buffer = index.buffer;
+        return switch (type) {
+            case NbtTag.TAG_BYTE -> buffer.get(payloadOffset);
+            case NbtTag.TAG_SHORT -> buffer.getShort(payloadOffset);
+            case NbtTag.TAG_INT -> buffer.getInt(payloadOffset);
+            case NbtTag.TAG_LONG -> buffer.getLong(payloadOffset);
+            case NbtTag.TAG_FLOAT -> (long) buffer.getFloat(payloadOffset);
+            case NbtTag.TAG_DOUBLE -> (long) buffer.getDouble(payloadOffset);
+            default -> 0;
+        };
+    }
+
+    public float getFloat() {
+        return (float) getDouble();
+    }
+
+    public double getDouble() {
+        return switch (type) {
+            case NbtTag.TAG_FLOAT -> index.buffer.getFloat(payloadOffset);
+            case NbtTag.TAG_DOUBLE -> index.buffer.getDouble(payloadOffset);
+            default -> getLong();
+        };
+    }
+
+    public String getString() {
+        return type == NbtTag.TAG_STRING ? index.readString(payloadOffset) : "";
+    }
+
+    public byte[] getByteArray() {
+        if (type != NbtTag.TAG_BYTE_ARRAY) {
+            return new byte[0];
+        }
+        byte[] array = new byte[size()];
+        ByteBuffer view = index.buffer.duplicate();
+        view.position(payloadOffset + 4);
+        view.get(array);
+        return array;
+    }
+
+    public int[] getIntArray() {
+        if (type != NbtTag.TAG_INT_ARRAY) {
+            return new int[0];
+        }
+        int[] array = new int[size()];
+        ByteBuffer view = index.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        view.position(payloadOffset + 4);
+        view.asIntBuffer().get(array);
+        return array;
+    }
+
+    public long[] getLongArray() {
+        if (type != NbtTag.TAG_LONG_ARRAY) {
+            return new long[0];
+        }
+        long[] array = new long[size()];
+        ByteBuffer view = index.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        view.position(payloadOffset + 4);
+        view.asLongBuffer().get(array);
+        return array;
+    }
+
+    public NbtTag toTag() throws IOException {
+        return new BedrockNbtReader().readTagAt(index.buffer, payloadOffset, type, getName());
+    }
+
+    public int getIndexedTagCount() {
+        return index.size;
+    }
+
+    @Override
+    public String toString() {
+        return "NbtView{type=" + NbtTag.getTypeName(type) + ", name='" + getName() + "', size=" + size() + "}";
+    }
+
+    private static int fixedWidth(byte type) {
+        return switch (type) {
+            case NbtTag.TAG_BYTE -> 1;
+            case NbtTag.TAG_SHORT -> 2;
+            case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> 4;
+            case NbtTag.TAG_LONG, NbtTag.TAG_DOUBLE -> 8;
+            default -> 0;
+        };
+    }
+
+    private static final class Index {
+        final ByteBuffer buffer;
+        byte[] types = new byte[64];
+        int[] nameOffsets = new int[64];
+        int[] payloadOffsets = new int[64];
+        int[] ends = new int[64];
+        int[] counts = new int[64];
+        int size;
+
+        Index(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void indexRoot() throws IOException {
+            byte type = buffer.get();
+            if (type == NbtTag.TAG_END) {
+                addNode(NbtTag.TAG_END, -1, buffer.position());
+                ends[0] = 1;
+                return;
+            }
+            int nameOffset = buffer.position();
+            skip(buffer.getShort() & 0xFFFF);
+            indexPayload(type, addNode(type, nameOffset, buffer.position()), 0);
+        }
+
+        private int addNode(byte type, int nameOffset, int payloadOffset) {
+            if (size == types.length) {
+                int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+                payloadOffsets = Arrays.copyOf(payloadOffsets, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            types[size] = type;
+            nameOffsets[size] = nameOffset;
+            payloadOffsets[size] = payloadOffset;
+            counts[size] = 0;
+            return size++;
+        }
+
+        private void indexPayload(byte type, int node, int depth) throws IOException {
+            if (depth > NbtStreamReader.MAX_DEPTH) {
+                throw new IOException("NBT nesting too deep");
+            }
+            switch (type) {
+                case NbtTag.TAG_BYTE -> skip(1);
+                case NbtTag.TAG_SHORT -> skip(2);
+                case NbtTag.TAG_INT, NbtTag.TAG_FLOAT -> skip(4);
+                case NbtTag.TAG_LONG, NbtTag.TAG_DOUBLE -> skip(8);
+                case NbtTag.TAG_STRING -> skip(buffer.getShort() & 0xFFFF);
+                case NbtTag.TAG_BYTE_ARRAY -> counts[node] = skipArray(1, "byte");
+                case NbtTag.TAG_INT_ARRAY -> counts[node] = skipArray(4, "int");
+                case NbtTag.TAG_LONG_ARRAY -> counts[node] = skipArray(8, "long");
+                case NbtTag.TAG_LIST -> indexList(node, depth);
+                case NbtTag.TAG_COMPOUND -> indexCompound(node, depth);
+                default -> throw new IOException("Unknown tag type: " + type);
+            }
+            ends[node] = size;
+        }
+
+        private void indexList(int node, int depth) throws IOException {
+            byte elementType = buffer.get();
+            int length = buffer.getInt();
+            NbtStreamReader.checkListLength(elementType, length);
+            counts[node] = length;
+            int width = fixedWidth(elementType);
+            if (width > 0) {
+                skip(length * width);
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                indexPayload(elementType, addNode(elementType, -1, buffer.position()), depth + 1);
+            }
+        }
+
+        private void indexCompound(int node, int depth) throws IOException {
+            int count = 0;
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                if (type == NbtTag.TAG_END) {
+                    break;
+                }
+                int nameOffset = buffer.position();
+                skip(buffer.getShort() & 0xFFFF);
+                indexPayload(type, addNode(type, nameOffset, buffer.position()), depth + 1);
+                count++;
+            }
+            counts[node] = count;
+        }
+
+        private int skipArray(int width, String kind) throws IOException {
+            int length = buffer.getInt();
+            if (length < 0 || length > NbtStreamReader.MAX_ARRAY_SIZE / width) {
+                throw new IOException("Invalid " + kind + " array length: " + length);
+            }
+            skip(length * width);
+            return length;
+        }
+
+        private void skip(int length) throws IOException {
+            if (length > buffer.remaining()) {
+                throw new IOException("Truncated NBT data");
+            }
+            buffer.position(buffer.position() + length);
+        }
+
+        String readName(int offset) {
+            int length = buffer.getShort(offset) & 0xFFFF;
+            if (!buffer.hasArray()) {
+                return readString(offset);
+            }
+            return NbtNames.intern(buffer.array(), buffer.arrayOffset() + offset + 2, length);
+        }
+
+        String readString(int offset) {
+            int length = buffer.getShort(offset) & 0xFFFF;
+            if (length == 0) {
+                return "";
+            }
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + offset + 2, length, StandardCharsets.UTF_8);
+            }
+            byte[] bytes = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + 2);
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        boolean nameEquals(int offset, byte[] name) {
+            if (offset < 0 || (buffer.getShort(offset) & 0xFFFF) != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (buffer.get(offset + 2 + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
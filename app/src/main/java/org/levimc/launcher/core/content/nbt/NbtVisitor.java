@@ -0,0 +1,46 @@
+package org.levimc.launcher.core.content.nbt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public interface NbtVisitor {
+    default void visitByte(String name, byte value) throws IOException {}
+
+    default void visitShort(String name, short value) throws IOException {}
+
+    default void visitInt(String name, int value) throws IOException {}
+
+    default void visitLong(String name, long value) throws IOException {}
+
+    default void visitFloat(String name, float value) throws IOException {}
+
+    default void visitDouble(String name, double value) throws IOException {}
+
+    default void visitString(String name, String value) throws IOException {}
+
+    default void visitStringBytes(String name, byte[] utf8, int offset, int length) throws IOException {
+        visitString(name, length == 0 ? "" : new String(utf8, offset, length, StandardCharsets.UTF_8));
+    }
+
+    default void visitByteArray(String name, byte[] value) throws IOException {}
+
+    default void visitIntArray(String name, int[] value) throws IOException {}
+
+    default void visitLongArray(String name, long[] value) throws IOException {}
+
+    default boolean startList(String name, byte elementType, int length) throws IOException {
+        return true;
+    }
+
+    default void visitListElements(NbtPrimitiveList elements, boolean owned) throws IOException {
+        elements.acceptElements(this);
+    }
+
+    default void endList() throws IOException {}
+
+    default boolean startCompound(String name) throws IOException {
+        return true;
+    }
+
+    default void endCompound() throws IOException {}
+}
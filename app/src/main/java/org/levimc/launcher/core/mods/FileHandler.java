@@ -21,6 +21,7 @@ import org.levimc.launcher.core.versions.GameVersion;
 import org.levimc.launcher.core.versions.VersionManager;
 import org.levimc.launcher.ui.dialogs.CustomAlertDialog;
 import org.levimc.launcher.ui.views.MainViewModel;
+import org.levimc.launcher.util.FileIOUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -28,7 +29,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -42,7 +42,6 @@ import java.util.zip.ZipInputStream;
 
 public class FileHandler {
     private static final String TAG = "FileHandler";
-    private static final int BUFFER_SIZE = 8192;
     private static final String MANIFEST_FILE_NAME = "manifest.json";
     private static final String PRELOAD_NATIVE_TYPE = "preload-native";
     private static final String DEFAULT_MOD_AUTHOR = "Unknown";
@@ -217,7 +216,7 @@ public class FileHandler {
             try (ZipInputStream zis = new ZipInputStream(raw)) {
                 ZipEntry entry;
                 while ((entry = zis.getNextEntry()) != null) {
-                    String name = normalizeZipEntryName(entry.getName());
+                    String name = FileIOUtils.normalizeZipEntryName(entry.getName());
                     if (name.isEmpty() || isIgnoredZipEntry(name)) {
                         zis.closeEntry();
                         continue;
@@ -427,7 +426,7 @@ public class FileHandler {
                     if (destinationDir.exists()) {
                         copyDirectoryPreservingExisting(preparedImport.packageDir, destinationDir, preparedImport.entryPath);
                     } else {
-                        copyDirectory(preparedImport.packageDir, destinationDir);
+                        FileIOUtils.copyDirectory(preparedImport.packageDir, destinationDir);
                     }
                     ++processed;
                 } catch (Exception e) {
@@ -435,7 +434,7 @@ public class FileHandler {
                     Log.e(TAG, "Failed to import mod", e);
                 } finally {
                     if (preparedImport != null) {
-                        deleteRecursively(preparedImport.cleanupRoot);
+                        FileIOUtils.deleteRecursively(preparedImport.cleanupRoot);
                     }
                     ++completed;
                     postProgress(callback, completed, fileUris.size());
@@ -497,7 +496,7 @@ public class FileHandler {
         File stagingRoot = createTempDirectory("mod_import_zip");
         try {
             copyUriToFile(uri, tempZip);
-            extractZip(tempZip, stagingRoot);
+            FileIOUtils.extractZip(tempZip, stagingRoot);
         } finally {
             if (tempZip.exists()) {
                 //noinspection ResultOfMethodCallIgnored
@@ -922,104 +921,7 @@ public class FileHandler {
             if (in == null) {
                 throw new IOException("Cannot open input file");
             }
-            copyStreamToFile(in, destination);
-        }
-    }
-
-    private void extractZip(File zipFile, File targetDir) throws IOException {
-        try (FileInputStream fis = new FileInputStream(zipFile);
-             ZipInputStream zis = new ZipInputStream(fis)) {
-            ZipEntry entry;
-            byte[] buffer = new byte[BUFFER_SIZE];
-
-            while ((entry = zis.getNextEntry()) != null) {
-                String normalizedName = normalizeZipEntryName(entry.getName());
-                if (normalizedName.isEmpty()) {
-                    continue;
-                }
-
-                File entryFile = new File(targetDir, normalizedName);
-                String targetCanonicalPath = targetDir.getCanonicalPath();
-                String entryCanonicalPath = entryFile.getCanonicalPath();
-                if (!entryCanonicalPath.startsWith(targetCanonicalPath + File.separator)
-                        && !entryCanonicalPath.equals(targetCanonicalPath)) {
-                    continue;
-                }
-
-                if (entry.isDirectory()) {
-                    if (!entryFile.exists() && !entryFile.mkdirs()) {
-                        throw new IOException("Failed to create directory: " + entryFile.getAbsolutePath());
-                    }
-                    continue;
-                }
-
-                File parent = entryFile.getParentFile();
-                if (parent != null && !parent.exists() && !parent.mkdirs()) {
-                    throw new IOException("Failed to create directory: " + parent.getAbsolutePath());
-                }
-
-                try (FileOutputStream fos = new FileOutputStream(entryFile)) {
-                    int len;
-                    while ((len = zis.read(buffer)) > 0) {
-                        fos.write(buffer, 0, len);
-                    }
-                }
-            }
-        }
-    }
-
-    private String normalizeZipEntryName(String name) {
-        if (name == null) {
-            return "";
-        }
-
-        String normalized = name.trim().replace('\\', '/');
-        if (normalized.startsWith("./")) {
-            normalized = normalized.substring(2);
-        }
-        while (normalized.startsWith("/")) {
-            normalized = normalized.substring(1);
-        }
-        while (normalized.contains("//")) {
-            normalized = normalized.replace("//", "/");
-        }
-        return normalized;
-    }
-
-    private void copyStreamToFile(InputStream input, File output) throws IOException {
-        File parent = output.getParentFile();
-        if (parent != null && !parent.exists() && !parent.mkdirs()) {
-            throw new IOException("Failed to create directory: " + parent.getAbsolutePath());
-        }
-
-        try (OutputStream out = new FileOutputStream(output)) {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int read;
-            while ((read = input.read(buffer)) > 0) {
-                out.write(buffer, 0, read);
-            }
-        }
-    }
-
-    private void copyDirectory(File source, File target) throws IOException {
-        if (source.isDirectory()) {
-            if (!target.exists() && !target.mkdirs()) {
-                throw new IOException("Failed to create directory: " + target.getAbsolutePath());
-            }
-
-            File[] files = source.listFiles();
-            if (files == null) {
-                return;
-            }
-
-            for (File file : files) {
-                copyDirectory(file, new File(target, file.getName()));
-            }
-            return;
-        }
-
-        try (FileInputStream fis = new FileInputStream(source)) {
-            copyStreamToFile(fis, target);
+            FileIOUtils.copyToFile(in, destination);
         }
     }
 
@@ -1050,9 +952,7 @@ public class FileHandler {
             return;
         }
 
-        try (FileInputStream fis = new FileInputStream(source)) {
-            copyStreamToFile(fis, target);
-        }
+        FileIOUtils.copyFile(source, target);
     }
 
     private File createTempDirectory(String prefix) throws IOException {
@@ -1066,24 +966,6 @@ public class FileHandler {
         throw new IOException("Failed to create temporary directory");
     }
 
-    private boolean deleteRecursively(File file) {
-        if (file == null || !file.exists()) {
-            return true;
-        }
-
-        if (file.isDirectory()) {
-            File[] files = file.listFiles();
-            if (files != null) {
-                for (File child : files) {
-                    if (!deleteRecursively(child)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return file.delete();
-    }
-
     private void postProgress(FileOperationCallback callback, int completed, int total) {
         if (callback == null || total <= 0) {
             return;
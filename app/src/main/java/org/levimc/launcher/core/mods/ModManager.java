@@ -14,12 +14,11 @@ import com.google.gson.reflect.TypeToken;
 
 import org.levimc.launcher.core.versions.GameVersion;
 import org.levimc.launcher.core.mods.config.ModConfigManager;
+import org.levimc.launcher.util.FileIOUtils;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -40,7 +39,6 @@ public class ModManager {
     private static final String DEFAULT_MOD_AUTHOR = "Unknown";
     private static final String DEFAULT_MOD_ICON = "";
     private static final String DEFAULT_MOD_VERSION = "1.0.0";
-    private static final int COPY_BUFFER_SIZE = 8192;
 
     private static volatile ModManager instance;
     private static volatile boolean preloaderLoadAttempted;
@@ -324,7 +322,7 @@ public class ModManager {
         if (modsDir == null) return;
 
         File modDirectory = new File(modsDir, modId);
-        boolean deleted = modDirectory.isDirectory() && deleteRecursively(modDirectory);
+        boolean deleted = modDirectory.isDirectory() && FileIOUtils.deleteRecursively(modDirectory);
 
         if (deleted) {
             enabledMap.remove(modId);
@@ -472,7 +470,7 @@ public class ModManager {
             return;
         }
 
-        copyFile(source, target);
+        FileIOUtils.copyFile(source, target);
         if (!source.delete()) {
             throw new IOException("Failed to delete original file after migration: " + source.getAbsolutePath());
         }
@@ -493,22 +491,6 @@ public class ModManager {
         }
     }
 
-    private void copyFile(File source, File target) throws IOException {
-        File parent = target.getParentFile();
-        if (parent != null && !parent.exists() && !parent.mkdirs()) {
-            throw new IOException("Failed to create directory: " + parent.getAbsolutePath());
-        }
-
-        try (FileInputStream in = new FileInputStream(source);
-             FileOutputStream out = new FileOutputStream(target)) {
-            byte[] buffer = new byte[COPY_BUFFER_SIZE];
-            int read;
-            while ((read = in.read(buffer)) > 0) {
-                out.write(buffer, 0, read);
-            }
-        }
-    }
-
     private ModDescriptor parseDirectoryMod(File modDirectory) {
         File manifestFile = new File(modDirectory, MANIFEST_FILE_NAME);
         if (!manifestFile.isFile()) {
@@ -684,23 +666,6 @@ public class ModManager {
         return changed;
     }
 
-    private boolean deleteRecursively(File file) {
-        if (!file.exists()) {
-            return true;
-        }
-        if (file.isDirectory()) {
-            File[] children = file.listFiles();
-            if (children != null) {
-                for (File child : children) {
-                    if (!deleteRecursively(child)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return file.delete();
-    }
-
     private String sanitizeEntryPath(String entryPath) {
         if (entryPath == null) {
             return null;
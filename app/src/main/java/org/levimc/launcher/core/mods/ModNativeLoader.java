@@ -2,12 +2,13 @@ package org.levimc.launcher.core.mods;
 
 import android.util.Log;
 
+import org.levimc.launcher.util.FileIOUtils;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -216,18 +217,18 @@ public class ModNativeLoader {
         }
 
         File tempDirectory = new File(cacheModsDir, mod.getId() + ".tmp");
-        if (tempDirectory.exists() && !deleteRecursively(tempDirectory)) {
+        if (tempDirectory.exists() && !FileIOUtils.deleteRecursively(tempDirectory)) {
             throw new IOException("Failed to clear temporary mod directory: " + tempDirectory.getAbsolutePath());
         }
         copyPackageDirectory(sourceDirectory, tempDirectory);
         writeManifest(new File(tempDirectory, ".mod_cache_manifest"), sourceFingerprint);
 
-        if (targetDirectory.exists() && !deleteRecursively(targetDirectory)) {
-            deleteRecursively(tempDirectory);
+        if (targetDirectory.exists() && !FileIOUtils.deleteRecursively(targetDirectory)) {
+            FileIOUtils.deleteRecursively(tempDirectory);
             throw new IOException("Failed to prepare native mod directory: " + targetDirectory.getAbsolutePath());
         }
         if (!tempDirectory.renameTo(targetDirectory)) {
-            deleteRecursively(tempDirectory);
+            FileIOUtils.deleteRecursively(tempDirectory);
             throw new IOException("Failed to prepare native mod directory: " + targetDirectory.getAbsolutePath());
         }
 
@@ -308,14 +309,10 @@ public class ModNativeLoader {
             throw new IOException("Failed to replace existing file: " + dst.getAbsolutePath());
         }
 
-        try (InputStream in = new FileInputStream(src);
+        try (FileInputStream in = new FileInputStream(src);
              FileOutputStream out = new FileOutputStream(dst)) {
             markReadOnlyBeforeWrite(dst);
-            byte[] buf = new byte[8192];
-            int len;
-            while ((len = in.read(buf)) > 0) {
-                out.write(buf, 0, len);
-            }
+            FileIOUtils.transfer(in.getChannel(), out.getChannel(), in.getChannel().size());
             out.getFD().sync();
         }
 
@@ -401,28 +398,11 @@ public class ModNativeLoader {
                 continue;
             }
             if (cachedEntry.getName().endsWith(".tmp")) {
-                deleteRecursively(cachedEntry);
+                FileIOUtils.deleteRecursively(cachedEntry);
                 continue;
             }
 
-            deleteRecursively(cachedEntry);
-        }
-    }
-
-    private static boolean deleteRecursively(File file) {
-        if (!file.exists()) {
-            return true;
-        }
-        if (file.isDirectory()) {
-            File[] children = file.listFiles();
-            if (children != null) {
-                for (File child : children) {
-                    if (!deleteRecursively(child)) {
-                        return false;
-                    }
-                }
-            }
+            FileIOUtils.deleteRecursively(cachedEntry);
         }
-        return file.delete();
     }
 }
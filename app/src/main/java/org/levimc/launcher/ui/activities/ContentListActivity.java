@@ -28,6 +28,7 @@ import org.levimc.launcher.core.content.ResourcePackItem;
 import org.levimc.launcher.core.content.ResourcePackManager;
 import org.levimc.launcher.core.content.ServerItem;
 import org.levimc.launcher.core.content.StructureExtractor;
+import org.levimc.launcher.core.content.WorldBackupItem;
 import org.levimc.launcher.core.content.WorldItem;
 import org.levimc.launcher.core.content.WorldManager;
 import org.levimc.launcher.core.versions.GameVersion;
@@ -47,8 +48,11 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import java.io.OutputStream;
 import java.io.File;
+import java.text.DateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class ContentListActivity extends BaseActivity {
@@ -79,11 +83,14 @@ public class ContentListActivity extends BaseActivity {
     private ActivityResultLauncher<Intent> exportPackLauncher;
     private ActivityResultLauncher<Intent> customFlatWorldLauncher;
     private ActivityResultLauncher<Intent> structureExportLauncher;
+    private ActivityResultLauncher<Intent> structurePackExportLauncher;
     private WorldItem pendingExportWorld;
     private ResourcePackItem pendingExportPack;
     private WorldItem pendingStructureExportWorld;
     private StructureExtractor.StructureInfo pendingStructureInfo;
+    private WorldItem pendingStructurePackWorld;
     private StructureExtractor structureExtractor;
+    private CompletableFuture<List<StructureExtractor.StructureInfo>> structureLoad;
 
     private List<WorldItem> allWorlds = new ArrayList<>();
     private List<ResourcePackItem> allPacks = new ArrayList<>();
@@ -182,6 +189,19 @@ public class ContentListActivity extends BaseActivity {
             }
         );
 
+        structurePackExportLauncher = registerForActivityResult(
+            new ActivityResultContracts.StartActivityForResult(),
+            result -> {
+                if (result.getResultCode() == RESULT_OK && result.getData() != null && pendingStructurePackWorld != null) {
+                    Uri uri = result.getData().getData();
+                    if (uri != null) {
+                        exportAllStructures(pendingStructurePackWorld, uri);
+                    }
+                }
+                pendingStructurePackWorld = null;
+            }
+        );
+
         structureExtractor = new StructureExtractor(this);
     }
 
@@ -196,6 +216,8 @@ public class ContentListActivity extends BaseActivity {
             case TYPE_WORLDS:
                 binding.titleText.setText(getString(R.string.worlds_title));
                 binding.customFlatButton.setVisibility(View.VISIBLE);
+                binding.worldBackupsButton.setVisibility(View.VISIBLE);
+                binding.worldBackupsButton.setOnClickListener(v -> showWorldBackupsDialog());
                 setupWorldsRecyclerView();
                 break;
             case TYPE_SKIN_PACKS:
@@ -499,7 +521,13 @@ public class ContentListActivity extends BaseActivity {
             }
 
             @Override
-            public void onProgress(int progress) {}
+            public void onProgress(int progress) {
+                runOnUiThread(() -> {
+                    if (progressDialog != null && progressDialog.isShowing()) {
+                        progressDialog.setMessage(getString(R.string.exporting_world_progress, progress));
+                    }
+                });
+            }
         });
     }
 
@@ -560,6 +588,64 @@ public class ContentListActivity extends BaseActivity {
         });
     }
 
+    private void showWorldBackupsDialog() {
+        showLoading(true);
+        contentManager.loadWorldBackups(backups -> runOnUiThread(() -> {
+            showLoading(false);
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            if (backups.isEmpty()) {
+                Toast.makeText(this, R.string.no_world_backups, Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT);
+            CharSequence[] labels = new CharSequence[backups.size()];
+            for (int i = 0; i < labels.length; i++) {
+                WorldBackupItem backup = backups.get(i);
+                labels[i] = getString(R.string.world_backup_entry, backup.getName(),
+                        dateFormat.format(new Date(backup.getCreated())));
+            }
+
+            AlertDialog dialog = new MaterialAlertDialogBuilder(this)
+                .setTitle(R.string.world_backups)
+                .setItems(labels, (d, which) -> restoreWorldBackup(backups.get(which)))
+                .setNegativeButton(R.string.cancel, null)
+                .show();
+
+            org.levimc.launcher.util.PersonalizationManager backupPm = new org.levimc.launcher.util.PersonalizationManager(this);
+            int backupAccent = backupPm.getAccentColor();
+            if (backupAccent != 0) {
+                dialog.getButton(AlertDialog.BUTTON_NEGATIVE).setTextColor(backupAccent);
+            }
+        }));
+    }
+
+    private void restoreWorldBackup(WorldBackupItem backup) {
+        showProgressDialog(getString(R.string.restoring_world));
+        contentManager.restoreWorldBackup(backup, new WorldManager.WorldOperationCallback() {
+            @Override
+            public void onSuccess(String message) {
+                runOnUiThread(() -> {
+                    hideProgressDialog();
+                    Toast.makeText(ContentListActivity.this, message, Toast.LENGTH_SHORT).show();
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> {
+                    hideProgressDialog();
+                    Toast.makeText(ContentListActivity.this, error, Toast.LENGTH_LONG).show();
+                });
+            }
+
+            @Override
+            public void onProgress(int progress) {}
+        });
+    }
+
     private void showDeleteWorldDialog(WorldItem world) {
         new CustomAlertDialog(this)
             .setTitleText(getString(R.string.delete_world))
@@ -810,15 +896,37 @@ public class ContentListActivity extends BaseActivity {
 
         binding.loadingOverlay.setVisibility(View.VISIBLE);
 
-        structureExtractor.loadStructures(worldFile, new StructureExtractor.StructureListCallback() {
+        StructuresAdapter adapter = new StructuresAdapter();
+        AlertDialog[] dialog = new AlertDialog[1];
+        structureLoad = structureExtractor.loadStructures(worldFile, new StructureExtractor.StructureListCallback() {
+            @Override
+            public void onStructuresFound(List<StructureExtractor.StructureInfo> structures) {
+                runOnUiThread(() -> {
+                    if (dialog[0] == null) {
+                        hideStructureLoading();
+                        dialog[0] = showStructureSelectionDialog(world, adapter);
+                    }
+                    adapter.addStructures(structures);
+                });
+            }
+
+            @Override
+            public void onProgress(int tablesDone, int tablesTotal) {
+                runOnUiThread(() -> {
+                    if (dialog[0] != null || binding.loadingOverlay.getVisibility() != View.VISIBLE) {
+                        return;
+                    }
+                    binding.loadingText.setText(getString(R.string.reading_world_tables, tablesDone, tablesTotal));
+                    binding.loadingText.setVisibility(View.VISIBLE);
+                });
+            }
+
             @Override
             public void onComplete(List<StructureExtractor.StructureInfo> structures) {
                 runOnUiThread(() -> {
-                    binding.loadingOverlay.setVisibility(View.GONE);
+                    hideStructureLoading();
                     if (structures.isEmpty()) {
                         showNoStructuresFoundDialog();
-                    } else {
-                        showStructureSelectionDialog(world, structures);
                     }
                 });
             }
@@ -826,13 +934,18 @@ public class ContentListActivity extends BaseActivity {
             @Override
             public void onError(String error) {
                 runOnUiThread(() -> {
-                    binding.loadingOverlay.setVisibility(View.GONE);
+                    hideStructureLoading();
                     Toast.makeText(ContentListActivity.this, error, Toast.LENGTH_LONG).show();
                 });
             }
         });
     }
 
+    private void hideStructureLoading() {
+        binding.loadingOverlay.setVisibility(View.GONE);
+        binding.loadingText.setVisibility(View.GONE);
+    }
+
     private void showNoStructuresFoundDialog() {
         new CustomAlertDialog(this)
             .setTitleText(getString(R.string.no_structures_found_title))
@@ -841,16 +954,19 @@ public class ContentListActivity extends BaseActivity {
             .show();
     }
 
-    private void showStructureSelectionDialog(WorldItem world, List<StructureExtractor.StructureInfo> structures) {
+    private AlertDialog showStructureSelectionDialog(WorldItem world, StructuresAdapter adapter) {
         View dialogView = getLayoutInflater().inflate(R.layout.dialog_structure_list, null);
         
         TextView structureCount = dialogView.findViewById(R.id.structure_count);
         RecyclerView recyclerView = dialogView.findViewById(R.id.structures_recycler_view);
         
-        structureCount.setText(getString(R.string.structures_found_count, structures.size()));
-        
-        StructuresAdapter adapter = new StructuresAdapter();
-        adapter.setStructures(structures);
+        structureCount.setText(getString(R.string.structures_found_count, adapter.getItemCount()));
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                structureCount.setText(getString(R.string.structures_found_count, adapter.getItemCount()));
+            }
+        });
         
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(adapter);
@@ -858,6 +974,7 @@ public class ContentListActivity extends BaseActivity {
         AlertDialog dialog = new MaterialAlertDialogBuilder(this)
             .setTitle(R.string.structures_found_title)
             .setView(dialogView)
+            .setNeutralButton(R.string.export_all_structures, (d, which) -> startStructurePackExport(world))
             .setNegativeButton(R.string.cancel, null)
             .create();
         
@@ -865,6 +982,7 @@ public class ContentListActivity extends BaseActivity {
             dialog.dismiss();
             startStructureExport(world, structure);
         });
+        dialog.setOnDismissListener(d -> cancelStructureLoad());
         
         dialog.show();
 
@@ -872,6 +990,15 @@ public class ContentListActivity extends BaseActivity {
         int structAccent = structPm.getAccentColor();
         if (structAccent != 0) {
             dialog.getButton(AlertDialog.BUTTON_NEGATIVE).setTextColor(structAccent);
+            dialog.getButton(AlertDialog.BUTTON_NEUTRAL).setTextColor(structAccent);
+        }
+        return dialog;
+    }
+
+    private void cancelStructureLoad() {
+        if (structureLoad != null) {
+            structureLoad.cancel(false);
+            structureLoad = null;
         }
     }
 
@@ -886,6 +1013,49 @@ public class ContentListActivity extends BaseActivity {
         structureExportLauncher.launch(intent);
     }
 
+    private void startStructurePackExport(WorldItem world) {
+        pendingStructurePackWorld = world;
+
+        Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType("application/zip");
+        intent.putExtra(Intent.EXTRA_TITLE, world.getName() + "_structures.mcpack");
+        structurePackExportLauncher.launch(intent);
+    }
+
+    private void exportAllStructures(WorldItem world, Uri uri) {
+        showProgressDialog(getString(R.string.exporting_structures));
+        structureExtractor.exportAllStructures(world.getFile(), uri, new StructureExtractor.ExtractionCallback() {
+            @Override
+            public void onProgress(long bytesWritten, long bytesRead) {
+                runOnUiThread(() -> {
+                    if (progressDialog != null && progressDialog.isShowing()) {
+                        progressDialog.setMessage(getString(R.string.exporting_structures_progress,
+                                android.text.format.Formatter.formatShortFileSize(ContentListActivity.this, bytesWritten)));
+                    }
+                });
+            }
+
+            @Override
+            public void onComplete(int extractedCount, String outputPath) {
+                runOnUiThread(() -> {
+                    hideProgressDialog();
+                    Toast.makeText(ContentListActivity.this,
+                            getString(R.string.structures_exported_pack, extractedCount),
+                            Toast.LENGTH_SHORT).show();
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> {
+                    hideProgressDialog();
+                    Toast.makeText(ContentListActivity.this, error, Toast.LENGTH_LONG).show();
+                });
+            }
+        });
+    }
+
     private void exportStructureToFile(WorldItem world, StructureExtractor.StructureInfo structure, Uri uri) {
         binding.loadingOverlay.setVisibility(View.VISIBLE);
 
@@ -159,6 +159,11 @@ public class ContentManagementActivity extends BaseActivity {
 
                 @Override
                 public void onProgress(int progress) {
+                    runOnUiThread(() -> {
+                        if (progressDialog != null && progressDialog.isShowing()) {
+                            progressDialog.setMessage(getString(R.string.importing_content_progress, progress));
+                        }
+                    });
                 }
             });
     }
@@ -10,6 +10,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import org.levimc.launcher.R;
+import org.levimc.launcher.core.content.StructureAnalyzer;
 import org.levimc.launcher.core.content.StructureExtractor.StructureInfo;
 
 import java.util.ArrayList;
@@ -29,10 +30,19 @@ public class StructuresAdapter extends RecyclerView.Adapter<StructuresAdapter.St
     }
 
     public void setStructures(List<StructureInfo> structures) {
-        this.structures = structures != null ? structures : new ArrayList<>();
+        this.structures = structures != null ? new ArrayList<>(structures) : new ArrayList<>();
         notifyDataSetChanged();
     }
 
+    public void addStructures(List<StructureInfo> added) {
+        if (added == null || added.isEmpty()) {
+            return;
+        }
+        int start = structures.size();
+        structures.addAll(added);
+        notifyItemRangeInserted(start, added.size());
+    }
+
     @NonNull
     @Override
     public StructureViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -66,7 +76,14 @@ public class StructuresAdapter extends RecyclerView.Adapter<StructuresAdapter.St
 
         void bind(StructureInfo structure, OnStructureExportListener listener) {
             structureName.setText(structure.getName());
-            structureSize.setText(structure.getFormattedSize());
+            StructureAnalyzer.Summary summary = structure.getSummary();
+            if (summary != null) {
+                structureSize.setText(itemView.getContext().getString(R.string.structure_summary,
+                        summary.getSizeX(), summary.getSizeY(), summary.getSizeZ(),
+                        summary.getBlockCount(), summary.getEntityCount(), structure.getFormattedSize()));
+            } else {
+                structureSize.setText(structure.getFormattedSize());
+            }
             
             exportButton.setOnClickListener(v -> {
                 if (listener != null) {
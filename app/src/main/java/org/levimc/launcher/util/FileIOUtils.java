@@ -0,0 +1,329 @@
+package org.levimc.launcher.util;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+public final class FileIOUtils {
+
+    public static final int BUFFER_SIZE = 128 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 8;
+    private static final int COPY_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final ConcurrentLinkedQueue<byte[]> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED_BUFFERS = new AtomicInteger();
+    private static volatile ExecutorService copyPool;
+
+    public interface ProgressListener {
+        void onBytesCopied(long bytes);
+    }
+
+    private FileIOUtils() {}
+
+    public static byte[] acquireBuffer() {
+        byte[] buffer = BUFFER_POOL.poll();
+        if (buffer == null) {
+            return new byte[BUFFER_SIZE];
+        }
+        POOLED_BUFFERS.decrementAndGet();
+        return buffer;
+    }
+
+    public static void releaseBuffer(byte[] buffer) {
+        if (buffer == null || buffer.length != BUFFER_SIZE) return;
+        if (POOLED_BUFFERS.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        } else {
+            POOLED_BUFFERS.decrementAndGet();
+        }
+    }
+
+    public static long copy(InputStream input, OutputStream output) throws IOException {
+        return copy(input, output, null);
+    }
+
+    public static long copy(InputStream input, OutputStream output, ProgressListener listener) throws IOException {
+        if (listener == null && input instanceof FileInputStream && output instanceof FileOutputStream) {
+            FileChannel source = ((FileInputStream) input).getChannel();
+            return transfer(source, ((FileOutputStream) output).getChannel(), source.size() - source.position());
+        }
+        byte[] buffer = acquireBuffer();
+        try {
+            long total = 0;
+            int len;
+            while ((len = input.read(buffer)) != -1) {
+                output.write(buffer, 0, len);
+                total += len;
+                if (listener != null) {
+                    listener.onBytesCopied(len);
+                }
+            }
+            return total;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    public static long copyToFile(InputStream input, File target) throws IOException {
+        return copyToFile(input, target, null);
+    }
+
+    public static long copyToFile(InputStream input, File target, ProgressListener listener) throws IOException {
+        ensureParentDirectory(target);
+        try (FileOutputStream output = new FileOutputStream(target)) {
+            return copy(input, output, listener);
+        }
+    }
+
+    public static long transfer(FileChannel source, FileChannel target, long count) throws IOException {
+        long start = source.position();
+        long done = 0;
+        while (done < count) {
+            long moved = source.transferTo(start + done, count - done, target);
+            if (moved <= 0) {
+                if (source.size() <= start + done) break;
+                throw new IOException("Channel transfer stalled after " + done + " of " + count + " bytes");
+            }
+            done += moved;
+        }
+        source.position(start + done);
+        return done;
+    }
+
+    public static void copyFile(File source, File target) throws IOException {
+        ensureParentDirectory(target);
+        try (FileInputStream in = new FileInputStream(source);
+             FileOutputStream out = new FileOutputStream(target)) {
+            FileChannel channel = in.getChannel();
+            transfer(channel, out.getChannel(), channel.size());
+        }
+    }
+
+    public static void copyDirectory(File source, File target) throws IOException {
+        copyDirectory(source, target, null, false);
+    }
+
+    public static void copyDirectory(File source, File target, FileFilter filter, boolean parallel) throws IOException {
+        List<File[]> files = new ArrayList<>();
+        collectCopies(source, target, filter, files);
+        if (!parallel || files.size() < 2) {
+            for (File[] pair : files) {
+                copyFile(pair[0], pair[1]);
+            }
+            return;
+        }
+
+        ExecutorService pool = getCopyPool();
+        List<Future<?>> futures = new ArrayList<>(files.size());
+        for (File[] pair : files) {
+            futures.add(pool.submit(() -> {
+                copyFile(pair[0], pair[1]);
+                return null;
+            }));
+        }
+        IOException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    Throwable cause = e.getCause();
+                    failure = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<?> pending : futures) {
+                    pending.cancel(true);
+                }
+                throw new IOException("Directory copy interrupted", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public static void moveDirectory(File source, File target) throws IOException {
+        File parent = target.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Failed to create directory: " + parent.getAbsolutePath());
+        }
+        if (!target.exists() && source.renameTo(target)) {
+            return;
+        }
+        copyDirectory(source, target, null, true);
+        if (!deleteRecursively(source)) {
+            throw new IOException("Failed to delete original after move: " + source.getAbsolutePath());
+        }
+    }
+
+    public static boolean deleteRecursively(File file) {
+        if (file == null || !file.exists() && !Files.isSymbolicLink(file.toPath())) {
+            return true;
+        }
+        boolean deleted = true;
+        if (file.isDirectory() && !Files.isSymbolicLink(file.toPath())) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    deleted &= deleteRecursively(child);
+                }
+            }
+        }
+        return file.delete() && deleted;
+    }
+
+    public static String normalizeZipEntryName(String name) {
+        if (name == null) return "";
+        String normalized = name.trim().replace('\\', '/');
+        while (normalized.startsWith("./")) {
+            normalized = normalized.substring(2);
+        }
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.contains("//")) {
+            normalized = normalized.replace("//", "/");
+        }
+        return normalized;
+    }
+
+    public static boolean isSafeZipEntryName(String name) {
+        if (name == null) return false;
+        String raw = name.trim();
+        if (raw.isEmpty() || raw.indexOf('\0') >= 0) return false;
+        if (raw.startsWith("/") || raw.startsWith("\\") || raw.matches("^[A-Za-z]:.*")) {
+            return false;
+        }
+
+        String normalized = normalizeZipEntryName(raw);
+        if (normalized.isEmpty() || normalized.matches("^[A-Za-z]:.*")) {
+            return false;
+        }
+
+        for (String segment : normalized.split("/")) {
+            if ("..".equals(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isWithinDirectory(File root, File child) throws IOException {
+        String rootPath = root.getCanonicalPath();
+        String childPath = child.getCanonicalPath();
+        return childPath.equals(rootPath) || childPath.startsWith(rootPath + File.separator);
+    }
+
+    public static File resolveZipEntry(File targetDir, String entryName) throws IOException {
+        String normalized = normalizeZipEntryName(entryName);
+        if (!isSafeZipEntryName(normalized)) {
+            return null;
+        }
+        File target = new File(targetDir, normalized);
+        return isWithinDirectory(targetDir, target) ? target : null;
+    }
+
+    public static void extractZip(File zipFile, File targetDir) throws IOException {
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                File target = resolveZipEntry(targetDir, entry.getName());
+                if (target == null) {
+                    continue;
+                }
+                if (entry.isDirectory()) {
+                    ensureDirectory(target);
+                    continue;
+                }
+                try (InputStream input = zip.getInputStream(entry)) {
+                    copyToFile(input, target);
+                }
+            }
+        }
+    }
+
+    public static void extractZip(InputStream inputStream, File targetDir) throws IOException {
+        ZipInputStream zis = new ZipInputStream(inputStream);
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null) {
+            File target = resolveZipEntry(targetDir, entry.getName());
+            if (target == null) {
+                continue;
+            }
+            if (entry.isDirectory()) {
+                ensureDirectory(target);
+                continue;
+            }
+            copyToFile(zis, target);
+        }
+    }
+
+    public static void ensureDirectory(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("Failed to create directory: " + dir.getAbsolutePath());
+        }
+    }
+
+    private static void ensureParentDirectory(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null) {
+            ensureDirectory(parent);
+        }
+    }
+
+    private static void collectCopies(File source, File target, FileFilter filter, List<File[]> files)
+            throws IOException {
+        if (!source.isDirectory()) {
+            files.add(new File[]{source, target});
+            return;
+        }
+        ensureDirectory(target);
+        File[] children = source.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (filter == null || filter.accept(child)) {
+                collectCopies(child, new File(target, child.getName()), filter, files);
+            }
+        }
+    }
+
+    private static ExecutorService getCopyPool() {
+        ExecutorService pool = copyPool;
+        if (pool == null) {
+            synchronized (FileIOUtils.class) {
+                pool = copyPool;
+                if (pool == null) {
+                    pool = Executors.newFixedThreadPool(COPY_THREADS, runnable -> {
+                        Thread thread = new Thread(runnable, "FileIOUtils-copy");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    copyPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+}
@@ -26,7 +26,6 @@ import org.levimc.launcher.core.versions.GameVersion;
 import org.levimc.launcher.core.versions.VersionManager;
 import org.levimc.launcher.core.versions.VersionProfileMetadataStore;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -57,7 +56,6 @@ public class InstanceBackupManager {
     private static final String TAG = "InstanceBackupManager";
     private static final String FORMAT_ID = "levilauncher_instance_backup";
     private static final int SCHEMA_VERSION = 1;
-    private static final int BUFFER_SIZE = 131072;
     private static final String MANIFEST_ENTRY = "manifest.json";
     private static final String PROFILE_PREFIX = "profile/";
     private static final String SHARED_PREFIX = "shared/";
@@ -259,37 +257,11 @@ public class InstanceBackupManager {
     }
 
     public static String normalizeZipEntryName(String name) {
-        if (name == null) return "";
-        String normalized = name.trim().replace('\\', '/');
-        while (normalized.startsWith("./")) {
-            normalized = normalized.substring(2);
-        }
-        while (normalized.contains("//")) {
-            normalized = normalized.replace("//", "/");
-        }
-        return normalized;
+        return FileIOUtils.normalizeZipEntryName(name);
     }
 
     public static boolean isSafeZipEntryName(String name) {
-        if (name == null) return false;
-        String raw = name.trim();
-        if (raw.isEmpty() || raw.indexOf('\0') >= 0) return false;
-        if (raw.startsWith("/") || raw.startsWith("\\") || raw.matches("^[A-Za-z]:.*")) {
-            return false;
-        }
-
-        String normalized = normalizeZipEntryName(raw);
-        if (normalized.isEmpty() || normalized.startsWith("/") || normalized.matches("^[A-Za-z]:.*")) {
-            return false;
-        }
-
-        String[] segments = normalized.split("/");
-        for (String segment : segments) {
-            if ("..".equals(segment)) {
-                return false;
-            }
-        }
-        return true;
+        return FileIOUtils.isSafeZipEntryName(name);
     }
 
     private BackupManifest createManifest(GameVersion version) {
@@ -540,14 +512,11 @@ public class InstanceBackupManager {
         ZipEntry entry = new ZipEntry(normalizedEntryPath);
         entry.setTime(file.lastModified());
         zos.putNextEntry(entry);
-        try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = input.read(buffer)) != -1) {
-                zos.write(buffer, 0, len);
-                copiedBytes[0] += len;
+        try (InputStream input = new FileInputStream(file)) {
+            FileIOUtils.copy(input, zos, bytes -> {
+                copiedBytes[0] += bytes;
                 postProgressFromBytes(callback, copiedBytes[0], totalBytes, 2, 99, lastProgress);
-            }
+            });
         }
         zos.closeEntry();
     }
@@ -564,16 +533,13 @@ public class InstanceBackupManager {
             if (input == null) {
                 throw new IOException("Cannot open backup file");
             }
-            byte[] buffer = new byte[BUFFER_SIZE];
-            long copied = 0L;
-            int len;
-            while ((len = input.read(buffer)) != -1) {
-                output.write(buffer, 0, len);
-                copied += len;
+            long[] copied = {0L};
+            FileIOUtils.copy(input, output, bytes -> {
+                copied[0] += bytes;
                 if (totalBytes > 0) {
-                    postProgressFromBytes(callback, copied, totalBytes, 0, 10, lastProgress);
+                    postProgressFromBytes(callback, copied[0], totalBytes, 0, 10, lastProgress);
                 }
-            }
+            });
         }
     }
 
@@ -606,7 +572,7 @@ public class InstanceBackupManager {
         while (entries.hasMoreElements()) {
             ZipEntry entry = entries.nextElement();
             String entryName = normalizeZipEntryName(entry.getName());
-            if (!isSafeZipEntryName(entryName)) {
+            if (!isSafeZipEntryName(entry.getName())) {
                 throw new IOException("Unsafe backup entry: " + entry.getName());
             }
             if (MANIFEST_ENTRY.equals(entryName)) {
@@ -676,8 +642,8 @@ public class InstanceBackupManager {
             return targetName;
         } finally {
             if (!success) {
-                deleteDir(targetProfileRoot);
-                deleteDir(targetRuntimeRoot);
+                FileIOUtils.deleteRecursively(targetProfileRoot);
+                FileIOUtils.deleteRecursively(targetRuntimeRoot);
             }
         }
     }
@@ -784,20 +750,11 @@ public class InstanceBackupManager {
     ) throws IOException {
         if (baseDir == null || TextUtils.isEmpty(relativePath)) return;
         File target = resolveTargetFile(baseDir, relativePath);
-        File parent = target.getParentFile();
-        if (parent != null && !parent.exists() && !parent.mkdirs()) {
-            throw new IOException("Failed to create directory: " + parent.getAbsolutePath());
-        }
-
-        try (InputStream input = zipFile.getInputStream(entry);
-             OutputStream output = new FileOutputStream(target)) {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int len;
-            while ((len = input.read(buffer)) != -1) {
-                output.write(buffer, 0, len);
-                copiedBytes[0] += len;
+        try (InputStream input = zipFile.getInputStream(entry)) {
+            FileIOUtils.copyToFile(input, target, bytes -> {
+                copiedBytes[0] += bytes;
                 postProgressFromBytes(callback, copiedBytes[0], totalBytes, 10, 99, lastProgress);
-            }
+            });
         }
         if (entry.getTime() > 0) {
             target.setLastModified(entry.getTime());
@@ -809,9 +766,7 @@ public class InstanceBackupManager {
             throw new IOException("Failed to create directory: " + baseDir.getAbsolutePath());
         }
         File target = new File(baseDir, relativePath);
-        String basePath = baseDir.getCanonicalPath();
-        String targetPath = target.getCanonicalPath();
-        if (!isWithinRoot(basePath, targetPath)) {
+        if (!FileIOUtils.isWithinDirectory(baseDir, target)) {
             throw new IOException("Unsafe backup entry target: " + relativePath);
         }
         return target;
@@ -885,13 +840,9 @@ public class InstanceBackupManager {
 
     private byte[] readAllBytes(InputStream input, long expectedSize) throws IOException {
         java.io.ByteArrayOutputStream output = new java.io.ByteArrayOutputStream(
-                expectedSize > 0 && expectedSize < Integer.MAX_VALUE ? (int) expectedSize : BUFFER_SIZE
+                expectedSize > 0 && expectedSize < Integer.MAX_VALUE ? (int) expectedSize : FileIOUtils.BUFFER_SIZE
         );
-        byte[] buffer = new byte[8192];
-        int len;
-        while ((len = input.read(buffer)) != -1) {
-            output.write(buffer, 0, len);
-        }
+        FileIOUtils.copy(input, output);
         return output.toByteArray();
     }
 
@@ -1027,19 +978,6 @@ public class InstanceBackupManager {
         return "";
     }
 
-    private boolean deleteDir(File file) {
-        if (file == null || !file.exists()) return true;
-        if (file.isDirectory()) {
-            File[] children = file.listFiles();
-            if (children != null) {
-                for (File child : children) {
-                    if (!deleteDir(child)) return false;
-                }
-            }
-        }
-        return file.delete();
-    }
-
     private interface RestoreTargetResolver {
         RestoreTarget resolve(String entryName, String relativePath) throws IOException;
     }
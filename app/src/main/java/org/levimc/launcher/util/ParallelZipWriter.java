@@ -0,0 +1,492 @@
+package org.levimc.launcher.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public final class ParallelZipWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BUFFERED_ENTRY = 16 * 1024 * 1024;
+    private static final long MAX_PENDING_BYTES = 64L * 1024 * 1024;
+    private static final long ZIP32_LIMIT = 0xFFFFFFFFL;
+    private static final int ZIP16_LIMIT = 0xFFFF;
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int DATA_DESCRIPTOR = 0x08074b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+    private static final int FLAG_UTF8 = 1 << 11;
+    private static final int VERSION_DEFAULT = 20;
+    private static final int VERSION_ZIP64 = 45;
+
+    private static final Set<String> STORED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "ldb", "sst", "png", "jpg", "jpeg", "zip", "mcpack", "mcworld"));
+
+    public interface ProgressListener {
+        void onProgress(long bytesDone, long bytesTotal);
+    }
+
+    private final OutputStream out;
+    private final ExecutorService pool;
+    private final int maxPending;
+    private final long expectedBytes;
+    private final ProgressListener listener;
+    private final Deque<Pending> pending = new ArrayDeque<>();
+    private final List<CentralEntry> central = new ArrayList<>();
+    private final byte[] header = new byte[64];
+    private long position;
+    private long pendingBytes;
+    private long bytesDone;
+    private boolean finished;
+
+    public ParallelZipWriter(OutputStream out, long expectedBytes, ProgressListener listener) {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.maxPending = threads * 4;
+        this.expectedBytes = expectedBytes;
+        this.listener = listener;
+    }
+
+    public static void writeDirectory(File dir, OutputStream out, ProgressListener listener) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        collectFiles(dir, "", names, files);
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        try (ParallelZipWriter writer = new ParallelZipWriter(out, total, listener)) {
+            for (int i = 0; i < files.size(); i++) {
+                writer.addFile(names.get(i), files.get(i));
+            }
+            writer.finish();
+        }
+    }
+
+    public static boolean isStored(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && STORED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    public void addFile(String name, File file) throws IOException {
+        if (finished) {
+            throw new IOException("Zip already finished");
+        }
+        long size = file.length();
+        if (size >= ZIP32_LIMIT) {
+            throw new IOException("Entry too large for zip: " + name);
+        }
+        boolean store = isStored(name);
+        long reserved = size <= MAX_BUFFERED_ENTRY ? size : 0;
+        while (!pending.isEmpty() && (pending.size() >= maxPending || pendingBytes + reserved > MAX_PENDING_BYTES)) {
+            writeNext();
+        }
+        Future<Prepared> future = pool.submit(() -> prepare(file, store));
+        pending.addLast(new Pending(name, file, reserved, future));
+        pendingBytes += reserved;
+    }
+
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        writeCentralDirectory();
+        out.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() {
+        for (Pending entry : pending) {
+            entry.future.cancel(true);
+        }
+        pending.clear();
+        pool.shutdownNow();
+    }
+
+    private static void collectFiles(File dir, String basePath, List<String> names, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            String entryPath = basePath.isEmpty() ? child.getName() : basePath + "/" + child.getName();
+            if (child.isDirectory()) {
+                collectFiles(child, entryPath, names, files);
+            } else {
+                names.add(entryPath);
+                files.add(child);
+            }
+        }
+    }
+
+    private static Prepared prepare(File file, boolean store) throws IOException {
+        long size = file.length();
+        if (size > MAX_BUFFERED_ENTRY) {
+            if (!store) {
+                return new Prepared(null, 0, 0, 0, METHOD_DEFLATED);
+            }
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long read = 0;
+            try (InputStream in = new FileInputStream(file)) {
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, n);
+                    read += n;
+                }
+            }
+            return new Prepared(null, 0, read, crc.getValue(), METHOD_STORED);
+        }
+
+        byte[] data = readFile(file, (int) size);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        if (store || data.length == 0) {
+            return new Prepared(data, data.length, data.length, crc.getValue(), METHOD_STORED);
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] compressed = new byte[Math.max(64, data.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    if (length >= data.length) {
+                        return new Prepared(data, data.length, data.length, crc.getValue(), METHOD_STORED);
+                    }
+                    compressed = Arrays.copyOf(compressed, Math.min(data.length, length * 2));
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            if (length >= data.length) {
+                return new Prepared(data, data.length, data.length, crc.getValue(), METHOD_STORED);
+            }
+            return new Prepared(compressed, length, data.length, crc.getValue(), METHOD_DEFLATED);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] readFile(File file, int expected) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] data = new byte[expected];
+            int length = 0;
+            while (true) {
+                if (length == data.length) {
+                    int next = in.read();
+                    if (next < 0) {
+                        return data;
+                    }
+                    data = Arrays.copyOf(data, Math.max(BUFFER_SIZE, data.length * 2));
+                    data[length++] = (byte) next;
+                }
+                int n = in.read(data, length, data.length - length);
+                if (n < 0) {
+                    return length == data.length ? data : Arrays.copyOf(data, length);
+                }
+                length += n;
+            }
+        }
+    }
+
+    private void writeNext() throws IOException {
+        Pending entry = pending.removeFirst();
+        pendingBytes -= entry.reserved;
+        Prepared prepared;
+        try {
+            prepared = entry.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing " + entry.name, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to compress " + entry.name, cause);
+        }
+
+        byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+        long time = dosTime(entry.file.lastModified());
+        long offset = position;
+        CentralEntry record;
+
+        if (prepared.data != null) {
+            writeLocalHeader(name, FLAG_UTF8, prepared.method, time, prepared.crc, prepared.length, prepared.size);
+            write(prepared.data, 0, prepared.length);
+            record = new CentralEntry(name, FLAG_UTF8, prepared.method, time, prepared.crc,
+                    prepared.length, prepared.size, offset);
+        } else if (prepared.method == METHOD_STORED) {
+            writeLocalHeader(name, FLAG_UTF8, METHOD_STORED, time, prepared.crc, prepared.size, prepared.size);
+            long copied = copyStored(entry.file);
+            if (copied != prepared.size) {
+                throw new IOException(entry.name + " changed while it was being archived");
+            }
+            record = new CentralEntry(name, FLAG_UTF8, METHOD_STORED, time, prepared.crc,
+                    prepared.size, prepared.size, offset);
+        } else {
+            int flags = FLAG_UTF8 | FLAG_DATA_DESCRIPTOR;
+            writeLocalHeader(name, flags, METHOD_DEFLATED, time, 0, 0, 0);
+            record = copyDeflated(entry.file, name, flags, time, offset);
+        }
+        central.add(record);
+
+        bytesDone += record.size;
+        if (listener != null) {
+            listener.onProgress(bytesDone, Math.max(bytesDone, expectedBytes));
+        }
+    }
+
+    private long copyStored(File file) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long copied = 0;
+        try (InputStream in = new FileInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                write(buffer, 0, n);
+                copied += n;
+            }
+        }
+        return copied;
+    }
+
+    private CentralEntry copyDeflated(File file, byte[] name, int flags, long time, long offset) throws IOException {
+        byte[] input = new byte[BUFFER_SIZE];
+        byte[] output = new byte[BUFFER_SIZE];
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long size = 0;
+        long compressed = 0;
+        try (InputStream in = new FileInputStream(file)) {
+            int n;
+            while ((n = in.read(input)) > 0) {
+                crc.update(input, 0, n);
+                size += n;
+                deflater.setInput(input, 0, n);
+                while (!deflater.needsInput()) {
+                    int length = deflater.deflate(output);
+                    write(output, 0, length);
+                    compressed += length;
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                int length = deflater.deflate(output);
+                write(output, 0, length);
+                compressed += length;
+            }
+        } finally {
+            deflater.end();
+        }
+        if (size >= ZIP32_LIMIT || compressed >= ZIP32_LIMIT) {
+            throw new IOException("Entry too large for zip: " + new String(name, StandardCharsets.UTF_8));
+        }
+        putInt(0, DATA_DESCRIPTOR);
+        putInt(4, (int) crc.getValue());
+        putInt(8, (int) compressed);
+        putInt(12, (int) size);
+        write(header, 0, 16);
+        return new CentralEntry(name, flags, METHOD_DEFLATED, time, crc.getValue(), compressed, size, offset);
+    }
+
+    private void writeLocalHeader(byte[] name, int flags, int method, long time, long crc, long compressed,
+                                  long size) throws IOException {
+        putInt(0, LOCAL_HEADER);
+        putShort(4, VERSION_DEFAULT);
+        putShort(6, flags);
+        putShort(8, method);
+        putInt(10, (int) time);
+        putInt(14, (int) crc);
+        putInt(18, (int) compressed);
+        putInt(22, (int) size);
+        putShort(26, name.length);
+        putShort(28, 0);
+        write(header, 0, 30);
+        write(name, 0, name.length);
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long start = position;
+        for (CentralEntry entry : central) {
+            boolean zip64 = entry.offset >= ZIP32_LIMIT;
+            putInt(0, CENTRAL_HEADER);
+            putShort(4, zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+            putShort(6, zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+            putShort(8, entry.flags);
+            putShort(10, entry.method);
+            putInt(12, (int) entry.time);
+            putInt(16, (int) entry.crc);
+            putInt(20, (int) entry.compressed);
+            putInt(24, (int) entry.size);
+            putShort(28, entry.name.length);
+            putShort(30, zip64 ? 12 : 0);
+            putShort(32, 0);
+            putShort(34, 0);
+            putShort(36, 0);
+            putInt(38, 0);
+            putInt(42, zip64 ? (int) ZIP32_LIMIT : (int) entry.offset);
+            write(header, 0, 46);
+            write(entry.name, 0, entry.name.length);
+            if (zip64) {
+                putShort(0, 0x0001);
+                putShort(2, 8);
+                putLong(4, entry.offset);
+                write(header, 0, 12);
+            }
+        }
+        long size = position - start;
+        int count = central.size();
+
+        if (count >= ZIP16_LIMIT || start >= ZIP32_LIMIT || size >= ZIP32_LIMIT) {
+            long zip64End = position;
+            putInt(0, ZIP64_END_OF_CENTRAL);
+            putLong(4, 44);
+            putShort(12, VERSION_ZIP64);
+            putShort(14, VERSION_ZIP64);
+            putInt(16, 0);
+            putInt(20, 0);
+            putLong(24, count);
+            putLong(32, count);
+            putLong(40, size);
+            putLong(48, start);
+            write(header, 0, 56);
+
+            putInt(0, ZIP64_LOCATOR);
+            putInt(4, 0);
+            putLong(8, zip64End);
+            putInt(16, 1);
+            write(header, 0, 20);
+        }
+
+        putInt(0, END_OF_CENTRAL);
+        putShort(4, 0);
+        putShort(6, 0);
+        putShort(8, Math.min(count, ZIP16_LIMIT));
+        putShort(10, Math.min(count, ZIP16_LIMIT));
+        putInt(12, (int) Math.min(size, ZIP32_LIMIT));
+        putInt(16, (int) Math.min(start, ZIP32_LIMIT));
+        putShort(20, 0);
+        write(header, 0, 22);
+    }
+
+    private static long dosTime(long millis) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(millis);
+        int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) (year - 1980) << 25)
+                | ((calendar.get(Calendar.MONTH) + 1) << 21)
+                | (calendar.get(Calendar.DAY_OF_MONTH) << 16)
+                | (calendar.get(Calendar.HOUR_OF_DAY) << 11)
+                | (calendar.get(Calendar.MINUTE) << 5)
+                | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    private void write(byte[] data, int offset, int length) throws IOException {
+        out.write(data, offset, length);
+        position += length;
+    }
+
+    private void putShort(int offset, int value) {
+        header[offset] = (byte) value;
+        header[offset + 1] = (byte) (value >> 8);
+    }
+
+    private void putInt(int offset, int value) {
+        putShort(offset, value);
+        putShort(offset + 2, value >> 16);
+    }
+
+    private void putLong(int offset, long value) {
+        putInt(offset, (int) value);
+        putInt(offset + 4, (int) (value >> 32));
+    }
+
+    private static final class Pending {
+        final String name;
+        final File file;
+        final long reserved;
+        final Future<Prepared> future;
+
+        Pending(String name, File file, long reserved, Future<Prepared> future) {
+            this.name = name;
+            this.file = file;
+            this.reserved = reserved;
+            this.future = future;
+        }
+    }
+
+    private static final class Prepared {
+        final byte[] data;
+        final int length;
+        final long size;
+        final long crc;
+        final int method;
+
+        Prepared(byte[] data, int length, long size, long crc, int method) {
+            this.data = data;
+            this.length = length;
+            this.size = size;
+            this.crc = crc;
+            this.method = method;
+        }
+    }
+
+    private static final class CentralEntry {
+        final byte[] name;
+        final int flags;
+        final int method;
+        final long time;
+        final long crc;
+        final long compressed;
+        final long size;
+        final long offset;
+
+        CentralEntry(byte[] name, int flags, int method, long time, long crc, long compressed, long size, long offset) {
+            this.name = name;
+            this.flags = flags;
+            this.method = method;
+            this.time = time;
+            this.crc = crc;
+            this.compressed = compressed;
+            this.size = size;
+            this.offset = offset;
+        }
+    }
+}
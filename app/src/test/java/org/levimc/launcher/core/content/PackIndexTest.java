@@ -0,0 +1,90 @@
+package org.levimc.launcher.core.content;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class PackIndexTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void persistedIndexServesUnchangedPacksWithoutReadingManifests() throws Exception {
+        File packs = temporaryFolder.newFolder("resource_packs");
+        File pack = writePack(packs, "alpha", "Alpha Pack", "resources");
+        writePack(packs, "broken", null, "resources");
+        File indexFile = new File(temporaryFolder.getRoot(), "pack_index.json");
+
+        PackIndex index = new PackIndex(indexFile);
+        List<ResourcePackItem> first = index.list(packs, ResourcePackItem.PackType.RESOURCE_PACK);
+        assertEquals(1, first.size());
+        assertEquals("Alpha Pack", first.get(0).getName());
+        assertTrue(index.isDirty());
+        index.save();
+        assertFalse(index.isDirty());
+        assertTrue(indexFile.isFile());
+
+        File manifest = new File(pack, "manifest.json");
+        long manifestModified = manifest.lastModified();
+        long directoryModified = pack.lastModified();
+        Files.write(manifest.toPath(), manifestJson("Omega Pack", "resources").getBytes(StandardCharsets.UTF_8));
+        assertTrue(manifest.setLastModified(manifestModified));
+        assertTrue(pack.setLastModified(directoryModified));
+
+        PackIndex reloaded = new PackIndex(indexFile);
+        List<ResourcePackItem> cached = reloaded.list(packs, ResourcePackItem.PackType.RESOURCE_PACK);
+        assertEquals(1, cached.size());
+        assertEquals("Alpha Pack", cached.get(0).getName());
+        assertEquals("1.2.3", cached.get(0).getVersion());
+        assertEquals(manifest.length(), cached.get(0).getSize());
+        assertFalse(reloaded.isDirty());
+
+        assertTrue(manifest.setLastModified(manifestModified + 5000));
+        List<ResourcePackItem> refreshed = reloaded.list(packs, ResourcePackItem.PackType.RESOURCE_PACK);
+        assertEquals("Omega Pack", refreshed.get(0).getName());
+        assertTrue(reloaded.isDirty());
+    }
+
+    @Test
+    public void removedPacksArePrunedAndNewPacksPickedUp() throws Exception {
+        File packs = temporaryFolder.newFolder("behavior_packs");
+        File first = writePack(packs, "first", "First", "data");
+        PackIndex index = new PackIndex(new File(temporaryFolder.getRoot(), "pack_index.json"));
+        assertEquals(1, index.list(packs, ResourcePackItem.PackType.BEHAVIOR_PACK).size());
+        index.save();
+
+        Files.delete(new File(first, "manifest.json").toPath());
+        Files.delete(first.toPath());
+        writePack(packs, "second", "Second", "data");
+
+        List<ResourcePackItem> listed = index.list(packs, ResourcePackItem.PackType.BEHAVIOR_PACK);
+        assertEquals(1, listed.size());
+        assertEquals("Second", listed.get(0).getName());
+        assertTrue(listed.get(0).isBehaviorPack());
+        assertTrue(index.isDirty());
+    }
+
+    private static File writePack(File parent, String dirName, String name, String moduleType) throws IOException {
+        File pack = new File(parent, dirName);
+        assertTrue(pack.mkdirs());
+        String json = name != null ? manifestJson(name, moduleType) : "{ not json";
+        Files.write(new File(pack, "manifest.json").toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return pack;
+    }
+
+    private static String manifestJson(String name, String moduleType) {
+        return "{\"format_version\":2,\"header\":{\"name\":\"" + name + "\",\"description\":\"Test\","
+                + "\"uuid\":\"00000000-0000-0000-0000-000000000001\",\"version\":[1,2,3]},"
+                + "\"modules\":[{\"type\":\"" + moduleType + "\"}]}";
+    }
+}
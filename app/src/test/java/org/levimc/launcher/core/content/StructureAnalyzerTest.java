@@ -0,0 +1,79 @@
+package org.levimc.launcher.core.content;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.levimc.launcher.core.content.nbt.NbtStreamWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+public class StructureAnalyzerTest {
+    private static byte[] structure() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        NbtStreamWriter writer = new NbtStreamWriter(output);
+        writer.startCompound("");
+        writer.visitInt("format_version", 1);
+        writer.startList("size", (byte) 3, 3);
+        writer.visitInt("", 2);
+        writer.visitInt("", 1);
+        writer.visitInt("", 2);
+        writer.endList();
+        writer.startCompound("structure");
+        writer.startList("block_indices", (byte) 9, 2);
+        writer.startList("", (byte) 3, 4);
+        for (int index : new int[]{0, 1, 1, -1}) {
+            writer.visitInt("", index);
+        }
+        writer.endList();
+        writer.startList("", (byte) 3, 4);
+        for (int i = 0; i < 4; i++) {
+            writer.visitInt("", 0);
+        }
+        writer.endList();
+        writer.endList();
+        writer.startList("entities", (byte) 10, 1);
+        writer.startCompound("");
+        writer.visitString("identifier", "minecraft:pig");
+        writer.endCompound();
+        writer.endList();
+        writer.startCompound("palette");
+        writer.startCompound("default");
+        writer.startList("block_palette", (byte) 10, 2);
+        for (String name : new String[]{"minecraft:air", "minecraft:stone"}) {
+            writer.startCompound("");
+            writer.visitString("name", name);
+            writer.startCompound("states");
+            writer.endCompound();
+            writer.visitInt("version", 18100737);
+            writer.endCompound();
+        }
+        writer.endList();
+        writer.startCompound("block_position_data");
+        writer.startCompound("1");
+        writer.endCompound();
+        writer.endCompound();
+        writer.endCompound();
+        writer.endCompound();
+        writer.endCompound();
+        writer.endCompound();
+        writer.flush();
+        return output.toByteArray();
+    }
+
+    @Test
+    public void summarizesSizePaletteAndCounts() throws Exception {
+        StructureAnalyzer.Summary summary = StructureAnalyzer.analyze(structure());
+
+        assertEquals(2, summary.getSizeX());
+        assertEquals(1, summary.getSizeY());
+        assertEquals(2, summary.getSizeZ());
+        assertEquals(2, summary.getPaletteSize());
+        assertEquals(1, summary.getEntityCount());
+        assertEquals(1, summary.getBlockEntityCount());
+        assertEquals(2, summary.getBlockCount());
+        Map<String, Integer> counts = summary.getBlockCounts();
+        assertEquals(Integer.valueOf(2), counts.get("minecraft:stone"));
+        assertEquals(Integer.valueOf(1), counts.get("minecraft:air"));
+    }
+}
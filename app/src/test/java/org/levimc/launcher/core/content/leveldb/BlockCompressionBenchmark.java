@@ -0,0 +1,191 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import com.github.luben.zstd.Zstd;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class BlockCompressionBenchmark {
+    private static final int BLOCKS = 64;
+    private static final int BLOCK_SIZE = 32 * 1024;
+    private static final int BENCHMARK_ROUNDS = 10;
+
+    @Test
+    public void codecThroughput() throws Exception {
+        byte[][] plain = new byte[BLOCKS][];
+        Random random = new Random(17);
+        for (int i = 0; i < BLOCKS; i++) {
+            plain[i] = blockContents(random);
+        }
+
+        report("snappy", BlockCompression.SNAPPY, plain, encodeAll(plain, BlockCompression.SNAPPY));
+        report("lz4", BlockCompression.LZ4, plain, encodeAll(plain, BlockCompression.LZ4));
+        byte[][] zstd;
+        try {
+            zstd = encodeAll(plain, BlockCompression.ZSTD);
+        } catch (LinkageError e) {
+            System.out.println("zstd: native library not available on this JVM, skipped");
+            return;
+        }
+        report("zstd", BlockCompression.ZSTD, plain, zstd);
+    }
+
+    private static void report(String codec, byte type, byte[][] plain, byte[][] compressed) {
+        long compressedBytes = 0;
+        ByteBuffer[] contents = new ByteBuffer[compressed.length];
+        for (int i = 0; i < compressed.length; i++) {
+            contents[i] = ByteBuffer.wrap(compressed[i]);
+            compressedBytes += compressed[i].length;
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            byte[][] decoded = new byte[contents.length][];
+            long start = System.nanoTime();
+            for (int i = 0; i < contents.length; i++) {
+                decoded[i] = BlockCompression.decompress(type, contents[i]);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            for (int i = 0; i < plain.length; i++) {
+                assertArrayEquals(plain[i], decoded[i]);
+            }
+        }
+        double megabytes = (double) BLOCKS * BLOCK_SIZE / (1024.0 * 1024.0);
+        System.out.println(String.format(Locale.ROOT, "%s: %.1f MB/s decoded, ratio %.2f",
+                codec, megabytes / (best / 1_000_000_000.0), (double) BLOCKS * BLOCK_SIZE / compressedBytes));
+    }
+
+    private static byte[][] encodeAll(byte[][] plain, byte type) {
+        byte[][] encoded = new byte[plain.length][];
+        for (int i = 0; i < plain.length; i++) {
+            encoded[i] = type == BlockCompression.SNAPPY ? snappy(plain[i])
+                    : type == BlockCompression.LZ4 ? lz4(plain[i]) : Zstd.compress(plain[i], 3);
+        }
+        return encoded;
+    }
+
+    private static byte[] blockContents(Random random) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BLOCK_SIZE);
+        byte[] record = new byte[96];
+        while (out.size() < BLOCK_SIZE) {
+            for (int i = 0; i < 8; i++) {
+                record[i] = (byte) random.nextInt(256);
+            }
+            Arrays.fill(record, 8, 40, (byte) random.nextInt(4));
+            if (random.nextInt(3) != 0) {
+                for (int i = 40; i < 96; i++) {
+                    record[i] = (byte) random.nextInt(256);
+                }
+            }
+            out.write(record, 0, Math.min(record.length, BLOCK_SIZE - out.size()));
+        }
+        return out.toByteArray();
+    }
+
+    private static List<int[]> sequences(byte[] data) {
+        List<int[]> sequences = new ArrayList<>();
+        int[] table = new int[1 << 14];
+        Arrays.fill(table, -1);
+        int anchor = 0;
+        int pos = 0;
+        while (pos + 12 <= data.length) {
+            int word = word(data, pos);
+            int hash = (word * 0x9E3779B1) >>> 18;
+            int candidate = table[hash];
+            table[hash] = pos;
+            if (candidate >= 0 && pos - candidate <= 0xFFFF && word(data, candidate) == word) {
+                int length = 4;
+                while (pos + length < data.length - 5 && data[candidate + length] == data[pos + length]) {
+                    length++;
+                }
+                sequences.add(new int[]{anchor, pos - anchor, pos - candidate, length});
+                pos += length;
+                anchor = pos;
+            } else {
+                pos++;
+            }
+        }
+        sequences.add(new int[]{anchor, data.length - anchor, 0, 0});
+        return sequences;
+    }
+
+    private static int word(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8
+                | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static byte[] snappy(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int length = data.length;
+        while (length >= 0x80) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        for (int[] sequence : sequences(data)) {
+            for (int start = sequence[0], end = sequence[0] + sequence[1]; start < end; ) {
+                int literal = Math.min(end - start, 65536);
+                if (literal <= 60) {
+                    out.write((literal - 1) << 2);
+                } else if (literal <= 256) {
+                    out.write(60 << 2);
+                    out.write(literal - 1);
+                } else {
+                    out.write(61 << 2);
+                    out.write((literal - 1) & 0xFF);
+                    out.write((literal - 1) >>> 8);
+                }
+                out.write(data, start, literal);
+                start += literal;
+            }
+            for (int remaining = sequence[3]; remaining > 0; ) {
+                int copy = Math.min(remaining, 64);
+                out.write(((copy - 1) << 2) | 2);
+                out.write(sequence[2] & 0xFF);
+                out.write(sequence[2] >>> 8);
+                remaining -= copy;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] lz4(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 4; i++) {
+            out.write(data.length >>> (i * 8));
+        }
+        for (int[] sequence : sequences(data)) {
+            int literal = sequence[1];
+            int match = sequence[3] - 4;
+            out.write(Math.min(literal, 15) << 4 | (sequence[3] > 0 ? Math.min(match, 15) : 0));
+            writeLength(out, literal);
+            out.write(data, sequence[0], literal);
+            if (sequence[3] > 0) {
+                out.write(sequence[2] & 0xFF);
+                out.write(sequence[2] >>> 8);
+                writeLength(out, match);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeLength(ByteArrayOutputStream out, int length) {
+        if (length < 15) {
+            return;
+        }
+        length -= 15;
+        while (length >= 255) {
+            out.write(255);
+            length -= 255;
+        }
+        out.write(length);
+    }
+}
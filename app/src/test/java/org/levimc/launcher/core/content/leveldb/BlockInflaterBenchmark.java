@@ -0,0 +1,118 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class BlockInflaterBenchmark {
+    private static final int BLOCKS = 2048;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int BENCHMARK_ROUNDS = 5;
+
+    @Test
+    public void perBlockAllocation() throws Exception {
+        byte[][] plain = new byte[BLOCKS][];
+        ByteBuffer[] compressed = new ByteBuffer[BLOCKS];
+        Random random = new Random(13);
+        for (int i = 0; i < BLOCKS; i++) {
+            plain[i] = blockContents(random);
+            compressed[i] = ByteBuffer.wrap(deflateRaw(plain[i]));
+        }
+
+        long legacyNanos = Long.MAX_VALUE;
+        long pooledNanos = Long.MAX_VALUE;
+        long legacyBytes = Long.MAX_VALUE;
+        long pooledBytes = Long.MAX_VALUE;
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < BLOCKS; i++) {
+                assertArrayEquals(plain[i], legacyInflate(compressed[i]));
+            }
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+            legacyBytes = Math.min(legacyBytes, allocatedBytes() - allocated);
+
+            allocated = allocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < BLOCKS; i++) {
+                assertArrayEquals(plain[i], BlockCompression.decompress(BlockCompression.ZLIB_RAW, compressed[i]));
+            }
+            pooledNanos = Math.min(pooledNanos, System.nanoTime() - start);
+            pooledBytes = Math.min(pooledBytes, allocatedBytes() - allocated);
+        }
+        BlockCompression.releaseThreadResources();
+
+        System.out.println(String.format(Locale.ROOT,
+                "raw deflate blocks: new Inflater per block %.1f us/block %d B/block, pooled %.1f us/block %d B/block",
+                legacyNanos / 1000.0 / BLOCKS, legacyBytes / BLOCKS, pooledNanos / 1000.0 / BLOCKS, pooledBytes / BLOCKS));
+    }
+
+    private static byte[] legacyInflate(ByteBuffer contents) throws DataFormatException {
+        byte[] data = new byte[contents.remaining()];
+        contents.duplicate().get(data);
+        try {
+            return inflate(data, new Inflater());
+        } catch (DataFormatException e) {
+            return inflate(data, new Inflater(true));
+        }
+    }
+
+    private static byte[] inflate(byte[] data, Inflater inflater) throws DataFormatException {
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && inflater.needsInput()) {
+                    break;
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] blockContents(Random random) {
+        byte[] block = new byte[BLOCK_SIZE];
+        for (int pos = 0; pos < BLOCK_SIZE; pos += 64) {
+            Arrays.fill(block, pos, pos + 48, (byte) random.nextInt(8));
+            for (int i = pos + 48; i < pos + 64; i++) {
+                block[i] = (byte) random.nextInt(256);
+            }
+        }
+        return block;
+    }
+
+    private static byte[] deflateRaw(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[data.length * 2 + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
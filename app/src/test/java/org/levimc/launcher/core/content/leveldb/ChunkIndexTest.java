@@ -0,0 +1,82 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.levimc.launcher.core.content.leveldb.LevelDBFixtures.bytes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChunkIndexTest {
+    private static final int SUB_CHUNK = LevelDBKey.KeyType.SUB_CHUNK.id;
+    private static final int DATA_2D = LevelDBKey.KeyType.DATA_2D.id;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static byte[] subChunk(int x, int z, int index) {
+        return LevelDBKey.chunkKey(x, z, 0, SUB_CHUNK, index);
+    }
+
+    private LevelDBReader openWorld() throws Exception {
+        File db = temporaryFolder.newFolder("db");
+        List<byte[]> keys = new ArrayList<>();
+        keys.add(subChunk(0, 0, 0));
+        keys.add(subChunk(0, 0, 1));
+        keys.add(subChunk(1, 0, 0));
+        keys.add(subChunk(5, 5, 0));
+        keys.add(LevelDBKey.chunkKey(0, 0, 0, DATA_2D, LevelDBKey.NO_SUB_CHUNK));
+        keys.sort(LevelDBFormat::compareKeys);
+        LevelDBFixtures.TableBuilder table = new LevelDBFixtures.TableBuilder(2);
+        long sequence = 1;
+        for (byte[] key : keys) {
+            table.put(key, sequence++, bytes("table"));
+        }
+        table.writeTo(new File(db, "000005.ldb"));
+        new LevelDBFixtures.LogBuilder()
+                .batch(20).put(subChunk(1, 0, 0), bytes("log")).put(subChunk(0, 1, 0), bytes("new"))
+                .writeTo(new File(db, "000007.log"));
+        return new LevelDBReader(db, new BlockCache(1024 * 1024));
+    }
+
+    @Test
+    public void locationsPointAtTableBlocks() throws Exception {
+        LevelDBReader reader = openWorld();
+        try {
+            List<PrefixIndex.KeyLocation> locations = reader.getChunkIndex()
+                    .findLocations(0, 0, 0, 1, 1, LevelDBKey.KeyType.SUB_CHUNK);
+            assertEquals(4, locations.size());
+            for (PrefixIndex.KeyLocation location : locations) {
+                boolean fromLog = location.sequence >= 20;
+                assertEquals(fromLog ? -1 : 5, location.tableNumber);
+                assertTrue(fromLog || location.blockSize > 0);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void readChunksReturnsNewestValuesInRegion() throws Exception {
+        LevelDBReader reader = openWorld();
+        try {
+            List<LevelDBEntry> entries = reader.readChunks(0, 0, 0, 1, 1, LevelDBKey.KeyType.SUB_CHUNK);
+            assertEquals(4, entries.size());
+            assertArrayEquals(subChunk(0, 0, 0), entries.get(0).getKey().getRawKey());
+            assertArrayEquals(bytes("table"), entries.get(0).getValue());
+            assertArrayEquals(subChunk(0, 0, 1), entries.get(1).getKey().getRawKey());
+            assertArrayEquals(subChunk(0, 1, 0), entries.get(2).getKey().getRawKey());
+            assertArrayEquals(bytes("new"), entries.get(2).getValue());
+            assertArrayEquals(subChunk(1, 0, 0), entries.get(3).getKey().getRawKey());
+            assertArrayEquals(bytes("log"), entries.get(3).getValue());
+        } finally {
+            reader.close();
+        }
+    }
+}
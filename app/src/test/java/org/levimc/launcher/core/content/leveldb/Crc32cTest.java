@@ -0,0 +1,51 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class Crc32cTest {
+    @Test
+    public void matchesStandardVectors() {
+        byte[] zeros = new byte[32];
+        byte[] ones = new byte[32];
+        Arrays.fill(ones, (byte) 0xFF);
+        byte[] digits = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(0x8a9136aa, Crc32c.value(zeros, 0, zeros.length));
+        assertEquals(0x62a8ab43, Crc32c.value(ones, 0, ones.length));
+        assertEquals(0xe3069283, Crc32c.value(digits, 0, digits.length));
+    }
+
+    @Test
+    public void extendMatchesWholeValue() {
+        byte[] data = "hello world".getBytes(StandardCharsets.US_ASCII);
+        int crc = Crc32c.extend(Crc32c.value(data, 0, 5), ByteBuffer.wrap(data), 5, data.length - 5);
+
+        assertEquals(Crc32c.value(data, 0, data.length), crc);
+    }
+
+    @Test
+    public void maskRoundTrips() {
+        int crc = Crc32c.value(new byte[]{1, 2, 3}, 0, 3);
+
+        assertEquals(crc, Crc32c.unmask(Crc32c.mask(crc)));
+    }
+
+    @Test
+    public void reverseMatchesForwardForEverySuffix() {
+        byte[] data = new byte[257];
+        new Random(7).nextBytes(data);
+
+        Crc32c.Reverse reverse = new Crc32c.Reverse();
+        for (int start = data.length - 1; start >= 0; start--) {
+            reverse.prepend(data[start]);
+            assertEquals(Crc32c.value(data, start, data.length - start), reverse.value());
+        }
+    }
+}
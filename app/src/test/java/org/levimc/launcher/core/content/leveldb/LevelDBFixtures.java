@@ -0,0 +1,221 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+final class LevelDBFixtures {
+    private LevelDBFixtures() {
+    }
+
+    static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static final class TableBuilder {
+        private final int entriesPerBlock;
+        private final ByteArrayOutputStream file = new ByteArrayOutputStream();
+        private final List<BlockHandle> dataBlocks = new ArrayList<>();
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final List<Integer> indexRestarts = new ArrayList<>();
+        private ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private List<Integer> restarts = new ArrayList<>();
+        private byte[] lastKey;
+
+        TableBuilder(int entriesPerBlock) {
+            this.entriesPerBlock = entriesPerBlock;
+        }
+
+        TableBuilder put(String key, long sequence, String value) {
+            return put(bytes(key), sequence, bytes(value));
+        }
+
+        TableBuilder put(byte[] key, long sequence, byte[] value) {
+            return add(key, sequence, LevelDBFormat.TYPE_VALUE, value);
+        }
+
+        TableBuilder delete(String key, long sequence) {
+            return add(bytes(key), sequence, LevelDBFormat.TYPE_DELETION, new byte[0]);
+        }
+
+        List<BlockHandle> getDataBlocks() {
+            return dataBlocks;
+        }
+
+        byte[] build() {
+            flushBlock();
+            BlockHandle metaIndex = writeBlock(finishBlock(new ByteArrayOutputStream(), new ArrayList<>()));
+            BlockHandle indexHandle = writeBlock(finishBlock(index, indexRestarts));
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            writeHandle(footer, metaIndex);
+            writeHandle(footer, indexHandle);
+            while (footer.size() < 40) {
+                footer.write(0);
+            }
+            writeFixed64(footer, LevelDBFormat.TABLE_MAGIC_NUMBER);
+            file.write(footer.toByteArray(), 0, footer.size());
+            return file.toByteArray();
+        }
+
+        void writeTo(File target) throws IOException {
+            try (OutputStream out = new FileOutputStream(target)) {
+                out.write(build());
+            }
+        }
+
+        private TableBuilder add(byte[] key, long sequence, int valueType, byte[] value) {
+            byte[] internalKey = internalKey(key, sequence, valueType);
+            writeEntry(block, restarts, internalKey, value);
+            lastKey = internalKey;
+            if (restarts.size() == entriesPerBlock) {
+                flushBlock();
+            }
+            return this;
+        }
+
+        private void flushBlock() {
+            if (restarts.isEmpty()) {
+                return;
+            }
+            BlockHandle handle = writeBlock(finishBlock(block, restarts));
+            dataBlocks.add(handle);
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            writeHandle(encoded, handle);
+            writeEntry(index, indexRestarts, lastKey, encoded.toByteArray());
+            block = new ByteArrayOutputStream();
+            restarts = new ArrayList<>();
+        }
+
+        private BlockHandle writeBlock(byte[] contents) {
+            BlockHandle handle = new BlockHandle(file.size(), contents.length);
+            byte[] trailed = new byte[contents.length + 1];
+            System.arraycopy(contents, 0, trailed, 0, contents.length);
+            trailed[contents.length] = BlockCompression.NONE;
+            file.write(trailed, 0, trailed.length);
+            writeFixed32(file, Crc32c.mask(Crc32c.value(trailed, 0, trailed.length)));
+            return handle;
+        }
+
+        private static byte[] finishBlock(ByteArrayOutputStream contents, List<Integer> restarts) {
+            if (restarts.isEmpty()) {
+                restarts.add(0);
+            }
+            for (int restart : restarts) {
+                writeFixed32(contents, restart);
+            }
+            writeFixed32(contents, restarts.size());
+            return contents.toByteArray();
+        }
+
+        private static void writeEntry(ByteArrayOutputStream out, List<Integer> restarts, byte[] key, byte[] value) {
+            restarts.add(out.size());
+            writeVarInt(out, 0);
+            writeVarInt(out, key.length);
+            writeVarInt(out, value.length);
+            out.write(key, 0, key.length);
+            out.write(value, 0, value.length);
+        }
+
+        private static void writeHandle(ByteArrayOutputStream out, BlockHandle handle) {
+            writeVarInt(out, handle.offset);
+            writeVarInt(out, handle.size);
+        }
+    }
+
+    static final class LogBuilder {
+        private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        private ByteArrayOutputStream batch;
+        private int count;
+
+        LogBuilder batch(long sequence) {
+            finishBatch();
+            batch = new ByteArrayOutputStream();
+            writeFixed64(batch, sequence);
+            writeFixed32(batch, 0);
+            count = 0;
+            return this;
+        }
+
+        LogBuilder put(String key, String value) {
+            return put(bytes(key), bytes(value));
+        }
+
+        LogBuilder put(byte[] key, byte[] value) {
+            batch.write(LevelDBFormat.TYPE_VALUE);
+            writeLengthPrefixed(batch, key);
+            writeLengthPrefixed(batch, value);
+            count++;
+            return this;
+        }
+
+        LogBuilder delete(String key) {
+            batch.write(LevelDBFormat.TYPE_DELETION);
+            writeLengthPrefixed(batch, bytes(key));
+            count++;
+            return this;
+        }
+
+        void writeTo(File target) throws IOException {
+            finishBatch();
+            try (OutputStream out = new FileOutputStream(target)) {
+                log.writeTo(out);
+            }
+        }
+
+        private void finishBatch() {
+            if (batch == null) {
+                return;
+            }
+            byte[] record = batch.toByteArray();
+            record[8] = (byte) count;
+            record[9] = (byte) (count >>> 8);
+            record[10] = (byte) (count >>> 16);
+            record[11] = (byte) (count >>> 24);
+            byte[] typed = new byte[record.length + 1];
+            typed[0] = 1;
+            System.arraycopy(record, 0, typed, 1, record.length);
+            writeFixed32(log, Crc32c.mask(Crc32c.value(typed, 0, typed.length)));
+            log.write(record.length & 0xFF);
+            log.write(record.length >>> 8);
+            log.write(typed, 0, typed.length);
+            batch = null;
+        }
+
+        private static void writeLengthPrefixed(ByteArrayOutputStream out, byte[] data) {
+            writeVarInt(out, data.length);
+            out.write(data, 0, data.length);
+        }
+    }
+
+    private static byte[] internalKey(byte[] userKey, long sequence, int valueType) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(userKey, 0, userKey.length);
+        writeFixed64(out, (sequence << 8) | valueType);
+        return out.toByteArray();
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeFixed32(ByteArrayOutputStream out, int value) {
+        for (int i = 0; i < 4; i++) {
+            out.write(value >>> (i * 8));
+        }
+    }
+
+    private static void writeFixed64(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (value >>> (i * 8)));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.levimc.launcher.core.content.leveldb.LevelDBFixtures.bytes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LevelDBReaderTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private LevelDBReader openWorld() throws Exception {
+        File db = temporaryFolder.newFolder("db");
+        new LevelDBFixtures.TableBuilder(2)
+                .put("a1", 1, "old")
+                .put("a2", 2, "gone")
+                .put("b1", 3, "block")
+                .put("c1", 4, "table")
+                .writeTo(new File(db, "000005.ldb"));
+        new LevelDBFixtures.TableBuilder(2)
+                .put("a1", 5, "new")
+                .delete("a2", 6)
+                .writeTo(new File(db, "000007.ldb"));
+        new LevelDBFixtures.LogBuilder()
+                .batch(10).put("c1", "log").put("a3", "fresh")
+                .batch(12).delete("b1")
+                .writeTo(new File(db, "000009.log"));
+        return new LevelDBReader(db, new BlockCache(1024 * 1024));
+    }
+
+    @Test
+    public void newestSequenceWins() throws Exception {
+        LevelDBReader reader = openWorld();
+        try {
+            assertArrayEquals(bytes("new"), reader.get(bytes("a1")));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void deletionsHideOlderValues() throws Exception {
+        LevelDBReader reader = openWorld();
+        try {
+            assertNull(reader.get(bytes("a2")));
+            assertNull(reader.get(bytes("b1")));
+            assertNull(reader.get(bytes("missing")));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void memtableEntriesOverrideTables() throws Exception {
+        LevelDBReader reader = openWorld();
+        try {
+            assertArrayEquals(bytes("log"), reader.get(bytes("c1")));
+            assertArrayEquals(bytes("fresh"), reader.get(bytes("a3")));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void scanPrefixReturnsLiveEntriesInKeyOrder() throws Exception {
+        LevelDBReader reader = openWorld();
+        try {
+            assertEquals(Arrays.asList("a1=new", "a3=fresh"), scan(reader, "a"));
+            assertEquals(Collections.emptyList(), scan(reader, "b"));
+            assertEquals(Collections.singletonList("c1=log"), scan(reader, "c"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static List<String> scan(LevelDBReader reader, String prefix) throws Exception {
+        List<String> entries = new ArrayList<>();
+        try (LevelDBIterator iterator = reader.scanPrefix(bytes(prefix))) {
+            while (iterator.hasNext()) {
+                LevelDBEntry entry = iterator.next();
+                entries.add(new String(entry.getKey().getRawKey(), StandardCharsets.UTF_8) + "="
+                        + new String(entry.getValue(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
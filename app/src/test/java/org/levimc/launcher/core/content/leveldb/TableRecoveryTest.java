@@ -0,0 +1,61 @@
+package org.levimc.launcher.core.content.leveldb;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.levimc.launcher.core.content.leveldb.LevelDBFixtures.bytes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+public class TableRecoveryTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BlockHandle damaged;
+
+    private File corruptTable(File dir) throws Exception {
+        LevelDBFixtures.TableBuilder builder = new LevelDBFixtures.TableBuilder(2)
+                .put("k1", 1, "one")
+                .put("k2", 2, "two")
+                .put("k3", 3, "three")
+                .put("k4", 4, "four")
+                .put("k5", 5, "five")
+                .put("k6", 6, "six");
+        byte[] table = builder.build();
+        List<BlockHandle> blocks = builder.getDataBlocks();
+        assertEquals(3, blocks.size());
+        damaged = blocks.get(1);
+        table[(int) (damaged.offset + damaged.size + 1)] ^= 0x5A;
+        File file = new File(dir, "000011.ldb");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(table);
+        }
+        return file;
+    }
+
+    @Test
+    public void recoversIntactBlocksAroundBadChecksum() throws Exception {
+        File file = corruptTable(temporaryFolder.getRoot());
+
+        TableRecovery recovery = TableRecovery.recover(file);
+        MemTable salvaged = recovery.toMemTable();
+
+        assertEquals(4, salvaged.size());
+        assertArrayEquals(bytes("one"), salvaged.get(bytes("k1")).value);
+        assertArrayEquals(bytes("two"), salvaged.get(bytes("k2")).value);
+        assertNull(salvaged.get(bytes("k3")));
+        assertNull(salvaged.get(bytes("k4")));
+        assertArrayEquals(bytes("five"), salvaged.get(bytes("k5")).value);
+        assertArrayEquals(bytes("six"), salvaged.get(bytes("k6")).value);
+        assertEquals(Collections.singletonList(new LostRange(file.getName(), damaged.offset,
+                damaged.size + LevelDBFormat.BLOCK_TRAILER_SIZE, "checksum mismatch")), recovery.getLostRanges());
+    }
+}
@@ -0,0 +1,165 @@
+package org.levimc.launcher.core.content.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BedrockNbtRoundTripTest {
+    private static NbtTag sampleRoot() {
+        Map<String, NbtTag> root = new LinkedHashMap<>();
+        root.put("GameType", new NbtTag(NbtTag.TAG_INT, "GameType", 1));
+        root.put("RandomSeed", new NbtTag(NbtTag.TAG_LONG, "RandomSeed", -42L));
+        root.put("LevelName", new NbtTag(NbtTag.TAG_STRING, "LevelName", "Test World"));
+        List<NbtTag> size = new ArrayList<>();
+        for (int value : new int[]{4, 5, 6}) {
+            size.add(new NbtTag(NbtTag.TAG_INT, "", value));
+        }
+        root.put("size", new NbtTag(NbtTag.TAG_LIST, "size", size));
+        List<NbtTag> pos = new ArrayList<>();
+        pos.add(new NbtTag(NbtTag.TAG_FLOAT, "", 1.5f));
+        pos.add(new NbtTag(NbtTag.TAG_FLOAT, "", -2f));
+        root.put("Pos", new NbtTag(NbtTag.TAG_LIST, "Pos", pos));
+        return new NbtTag(NbtTag.TAG_COMPOUND, "", root);
+    }
+
+    @Test
+    public void primitiveListsRoundTripWithoutBoxedElements() throws Exception {
+        byte[] data = new BedrockNbtWriter().writeToBytes(sampleRoot());
+        NbtTag root = new BedrockNbtReader().readFromBytes(data);
+
+        List<NbtTag> size = root.getTag("size").getList();
+        assertTrue(size instanceof NbtPrimitiveList);
+        assertArrayEquals(new int[]{4, 5, 6}, ((NbtPrimitiveList) size).toIntArray());
+        assertEquals(-2f, root.getTag("Pos").getList().get(1).getFloat(), 0f);
+        assertEquals(-42L, root.getTag("RandomSeed").getLong());
+        assertArrayEquals(data, new BedrockNbtWriter().writeToBytes(root));
+    }
+
+    @Test
+    public void viewReadsValuesLazily() throws Exception {
+        byte[] data = new BedrockNbtWriter().writeToBytes(sampleRoot());
+        NbtView root = new BedrockNbtReader().readView(data);
+
+        assertEquals(1, root.get("GameType").getInt());
+        assertEquals("Test World", root.get("LevelName").getString());
+        assertEquals(6, root.getList("size").get(2).getInt());
+        assertEquals(1.5, root.getList("Pos").get(0).getDouble(), 0.0);
+        assertEquals(5, root.size());
+    }
+
+    @Test
+    public void streamingReaderFeedsWriterAndSkipsRejectedSubtrees() throws Exception {
+        byte[] data = new BedrockNbtWriter().writeToBytes(sampleRoot());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        NbtStreamWriter writer = new NbtStreamWriter(output);
+        NbtVisitor filter = new NbtVisitor() {
+            @Override
+            public void visitInt(String name, int value) throws IOException {
+                writer.visitInt(name, value);
+            }
+
+            @Override
+            public void visitLong(String name, long value) throws IOException {
+                writer.visitLong(name, value);
+            }
+
+            @Override
+            public void visitString(String name, String value) throws IOException {
+                writer.visitString(name, value);
+            }
+
+            @Override
+            public boolean startList(String name, byte elementType, int length) throws IOException {
+                return !name.equals("Pos") && writer.startList(name, elementType, length);
+            }
+
+            @Override
+            public void endList() {
+                writer.endList();
+            }
+
+            @Override
+            public boolean startCompound(String name) throws IOException {
+                return writer.startCompound(name);
+            }
+
+            @Override
+            public void endCompound() throws IOException {
+                writer.endCompound();
+            }
+        };
+        new NbtStreamReader(new ByteArrayInputStream(data, 8, data.length - 8)).accept(filter);
+        writer.flush();
+
+        NbtTreeBuilder builder = new NbtTreeBuilder();
+        new NbtStreamReader(ByteBuffer.wrap(output.toByteArray())).accept(builder);
+        NbtTag root = builder.getRoot();
+        assertNull(root.getTag("Pos"));
+        assertEquals("Test World", root.getTag("LevelName").getString());
+        assertEquals(3, root.getTag("size").getList().size());
+    }
+
+    @Test
+    public void longListsArriveInChunksFromStreams() throws Exception {
+        long[] values = new long[NbtStreamReader.CHUNK_SIZE * 2 + 5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 31L - 7;
+        }
+        Map<String, NbtTag> root = new LinkedHashMap<>();
+        root.put("values", new NbtTag(NbtTag.TAG_LIST, "values", NbtPrimitiveList.ofLongs(values)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        NbtStreamWriter writer = new NbtStreamWriter(output);
+        new NbtTag(NbtTag.TAG_COMPOUND, "", root).accept(writer);
+        writer.flush();
+
+        byte[] data = output.toByteArray();
+        int[] chunks = new int[2];
+        new NbtStreamReader(new ByteArrayInputStream(data)).accept(new NbtVisitor() {
+            @Override
+            public void visitListElements(NbtPrimitiveList elements, boolean owned) {
+                chunks[0]++;
+                chunks[1] += elements.size();
+            }
+        });
+        NbtTreeBuilder builder = new NbtTreeBuilder();
+        new NbtStreamReader(new ByteArrayInputStream(data)).accept(builder);
+        NbtPrimitiveList list = (NbtPrimitiveList) builder.getRoot().getTag("values").getList();
+        assertEquals(3, chunks[0]);
+        assertEquals(values.length, chunks[1]);
+        assertEquals(values.length, list.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], list.getLong(i));
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedStreamFailsOnDeclaredListLength() throws Exception {
+        ByteBuffer data = ByteBuffer.allocate(10).order(ByteOrder.LITTLE_ENDIAN);
+        data.put(NbtTag.TAG_LIST).putShort((short) 0).put(NbtTag.TAG_LONG)
+                .putInt(NbtStreamReader.MAX_PRIMITIVE_LIST_SIZE).put((byte) 1).put((byte) 2);
+        new NbtStreamReader(new ByteArrayInputStream(data.array())).accept(new NbtTreeBuilder());
+    }
+
+    @Test
+    public void treeBuilderCopiesListsItDoesNotOwn() throws Exception {
+        NbtPrimitiveList source = NbtPrimitiveList.ofInts(new int[]{1, 2, 3});
+        NbtTreeBuilder builder = new NbtTreeBuilder();
+        new NbtTag(NbtTag.TAG_LIST, "size", source).accept(builder);
+        source.set(0, new NbtTag(NbtTag.TAG_INT, "", 9));
+        assertArrayEquals(new int[]{1, 2, 3}, ((NbtPrimitiveList) builder.getRoot().getList()).toIntArray());
+    }
+}
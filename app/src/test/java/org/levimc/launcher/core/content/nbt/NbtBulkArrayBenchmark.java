@@ -0,0 +1,110 @@
+package org.levimc.launcher.core.content.nbt;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+import java.util.Random;
+
+public class NbtBulkArrayBenchmark {
+    private static final int ELEMENTS = 64 * 64 * 64;
+    private static final int BENCHMARK_ROUNDS = 20;
+
+    @Test
+    public void blockIndexThroughput() throws Exception {
+        int[] indices = new int[ELEMENTS];
+        Random random = new Random(5);
+        for (int i = 0; i < ELEMENTS; i++) {
+            indices[i] = random.nextInt(256);
+        }
+        NbtPrimitiveList list = NbtPrimitiveList.ofInts(indices);
+
+        long elementWriteNanos = Long.MAX_VALUE;
+        long bulkWriteNanos = Long.MAX_VALUE;
+        byte[] data = null;
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(ELEMENTS * 4 + 64);
+            NbtStreamWriter writer = new NbtStreamWriter(output);
+            long start = System.nanoTime();
+            writer.startList("", NbtTag.TAG_INT, ELEMENTS);
+            for (int index : indices) {
+                writer.visitInt("", index);
+            }
+            writer.endList();
+            writer.flush();
+            elementWriteNanos = Math.min(elementWriteNanos, System.nanoTime() - start);
+
+            output = new ByteArrayOutputStream(ELEMENTS * 4 + 64);
+            writer = new NbtStreamWriter(output);
+            start = System.nanoTime();
+            writer.startList("", NbtTag.TAG_INT, ELEMENTS);
+            writer.visitListElements(list, false);
+            writer.endList();
+            writer.flush();
+            bulkWriteNanos = Math.min(bulkWriteNanos, System.nanoTime() - start);
+            data = output.toByteArray();
+        }
+
+        ByteArrayOutputStream arrayOutput = new ByteArrayOutputStream(ELEMENTS * 4 + 64);
+        NbtStreamWriter arrayWriter = new NbtStreamWriter(arrayOutput);
+        arrayWriter.visitIntArray("", indices);
+        arrayWriter.flush();
+        byte[] array = arrayOutput.toByteArray();
+
+        long elementReadNanos = Long.MAX_VALUE;
+        long arrayReadNanos = Long.MAX_VALUE;
+        long listReadNanos = Long.MAX_VALUE;
+        long streamReadNanos = Long.MAX_VALUE;
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            long start = System.nanoTime();
+            int[] decoded = readElementwise(array);
+            elementReadNanos = Math.min(elementReadNanos, System.nanoTime() - start);
+            assertArrayEquals(indices, decoded);
+
+            start = System.nanoTime();
+            NbtTreeBuilder builder = new NbtTreeBuilder();
+            new NbtStreamReader(ByteBuffer.wrap(array)).accept(builder);
+            arrayReadNanos = Math.min(arrayReadNanos, System.nanoTime() - start);
+            assertArrayEquals(indices, builder.getRoot().getIntArray());
+
+            start = System.nanoTime();
+            builder = new NbtTreeBuilder();
+            new NbtStreamReader(ByteBuffer.wrap(data)).accept(builder);
+            listReadNanos = Math.min(listReadNanos, System.nanoTime() - start);
+            assertArrayEquals(indices, ((NbtPrimitiveList) builder.getRoot().getList()).toIntArray());
+
+            start = System.nanoTime();
+            builder = new NbtTreeBuilder();
+            new NbtStreamReader(new ByteArrayInputStream(data)).accept(builder);
+            streamReadNanos = Math.min(streamReadNanos, System.nanoTime() - start);
+            assertArrayEquals(indices, ((NbtPrimitiveList) builder.getRoot().getList()).toIntArray());
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "block index write: per element %.1f MB/s, bulk %.1f MB/s",
+                throughput(elementWriteNanos), throughput(bulkWriteNanos)));
+        System.out.println(String.format(Locale.ROOT,
+                "block index read: getInt loop %.1f MB/s, bulk int array %.1f MB/s, list from buffer %.1f MB/s, list from stream %.1f MB/s",
+                throughput(elementReadNanos), throughput(arrayReadNanos), throughput(listReadNanos),
+                throughput(streamReadNanos)));
+    }
+
+    private static int[] readElementwise(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(1 + 2);
+        int[] values = new int[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+
+    private static double throughput(long nanos) {
+        return ELEMENTS * 4 / (1024.0 * 1024.0) / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,126 @@
+package org.levimc.launcher.core.content.nbt;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class NbtHeapBenchmark {
+    private static final int SIDE = 64;
+    private static final int PALETTE_SIZE = 48;
+
+    @Test
+    public void structureHeapFootprint() throws Exception {
+        byte[] data = structure();
+        int blocks = SIDE * SIDE * SIDE;
+
+        long before = usedHeap();
+        NbtTag boxed = read(data);
+        box(boxed);
+        long boxedBytes = usedHeap() - before;
+        assertEquals(blocks, layer(boxed).size());
+        boxed = null;
+
+        before = usedHeap();
+        NbtTag primitive = read(data);
+        long primitiveBytes = usedHeap() - before;
+        assertEquals(blocks, layer(primitive).size());
+
+        System.out.println(String.format(Locale.ROOT,
+                "structure heap (%d blocks, %d KiB NBT): NbtTag per element %.1f MiB, primitive lists %.1f MiB",
+                blocks, data.length / 1024, boxedBytes / (1024.0 * 1024.0), primitiveBytes / (1024.0 * 1024.0)));
+    }
+
+    private static NbtTag read(byte[] data) throws Exception {
+        NbtTreeBuilder builder = new NbtTreeBuilder();
+        new NbtStreamReader(ByteBuffer.wrap(data)).accept(builder);
+        return builder.getRoot();
+    }
+
+    private static List<NbtTag> layer(NbtTag root) {
+        return root.getTag("structure").getTag("block_indices").getList().get(0).getList();
+    }
+
+    private static void box(NbtTag tag) {
+        if (tag.getType() == NbtTag.TAG_COMPOUND) {
+            for (NbtTag child : tag.getCompound().values()) {
+                box(child);
+            }
+        } else if (tag.getType() == NbtTag.TAG_LIST) {
+            List<NbtTag> list = tag.getList();
+            List<NbtTag> boxed = new ArrayList<>(list.size());
+            for (NbtTag element : list) {
+                box(element);
+                boxed.add(new NbtTag(element.getType(), element.getName(), element.getValue()));
+            }
+            tag.setValue(boxed);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static byte[] structure() throws Exception {
+        Random random = new Random(3);
+        int blocks = SIDE * SIDE * SIDE;
+        int[] indices = new int[blocks];
+        int[] waterlogged = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            indices[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(PALETTE_SIZE);
+            waterlogged[i] = -1;
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        NbtStreamWriter writer = new NbtStreamWriter(output);
+        writer.startCompound("");
+        writer.visitInt("format_version", 1);
+        writeInts(writer, "size", new int[]{SIDE, SIDE, SIDE});
+        writer.startCompound("structure");
+        writer.startList("block_indices", NbtTag.TAG_LIST, 2);
+        writeInts(writer, "", indices);
+        writeInts(writer, "", waterlogged);
+        writer.endList();
+        writer.startList("entities", NbtTag.TAG_COMPOUND, 0);
+        writer.endList();
+        writer.startCompound("palette");
+        writer.startCompound("default");
+        writer.startList("block_palette", NbtTag.TAG_COMPOUND, PALETTE_SIZE);
+        for (int i = 0; i < PALETTE_SIZE; i++) {
+            writer.startCompound("");
+            writer.visitString("name", i == 0 ? "minecraft:air" : "minecraft:block_" + i);
+            writer.startCompound("states");
+            writer.visitInt("facing_direction", i % 6);
+            writer.endCompound();
+            writer.visitInt("version", 18100737);
+            writer.endCompound();
+        }
+        writer.endList();
+        writer.startCompound("block_position_data");
+        writer.endCompound();
+        writer.endCompound();
+        writer.endCompound();
+        writer.endCompound();
+        writeInts(writer, "structure_world_origin", new int[]{0, 64, 0});
+        writer.endCompound();
+        writer.flush();
+        return output.toByteArray();
+    }
+
+    private static void writeInts(NbtStreamWriter writer, String name, int[] values) throws Exception {
+        writer.startList(name, NbtTag.TAG_INT, values.length);
+        writer.visitListElements(NbtPrimitiveList.ofInts(values), false);
+        writer.endList();
+    }
+}
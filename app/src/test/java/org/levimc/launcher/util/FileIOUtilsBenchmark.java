@@ -0,0 +1,64 @@
+package org.levimc.launcher.util;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+
+public class FileIOUtilsBenchmark {
+    private static final int BENCHMARK_BYTES = 32 * 1024 * 1024;
+    private static final int BENCHMARK_ROUNDS = 3;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void copyThroughput() throws Exception {
+        byte[] data = new byte[BENCHMARK_BYTES];
+        new Random(11).nextBytes(data);
+        File source = temporaryFolder.newFile("benchmark.bin");
+        Files.write(source.toPath(), data);
+        File legacyTarget = new File(temporaryFolder.getRoot(), "legacy.bin");
+        File channelTarget = new File(temporaryFolder.getRoot(), "channel.bin");
+
+        long legacyNanos = Long.MAX_VALUE;
+        long channelNanos = Long.MAX_VALUE;
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            long start = System.nanoTime();
+            legacyCopy(source, legacyTarget);
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            FileIOUtils.copyFile(source, channelTarget);
+            channelNanos = Math.min(channelNanos, System.nanoTime() - start);
+        }
+
+        assertArrayEquals(data, Files.readAllBytes(channelTarget.toPath()));
+        System.out.println(String.format(Locale.ROOT, "copy throughput: 8 KiB stream loop %.1f MB/s, channel transfer %.1f MB/s",
+                throughput(legacyNanos), throughput(channelNanos)));
+    }
+
+    private static void legacyCopy(File source, File target) throws IOException {
+        try (FileInputStream fis = new FileInputStream(source);
+             FileOutputStream fos = new FileOutputStream(target)) {
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = fis.read(buffer)) > 0) {
+                fos.write(buffer, 0, len);
+            }
+        }
+    }
+
+    private static double throughput(long nanos) {
+        return BENCHMARK_BYTES / (1024.0 * 1024.0) / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,119 @@
+package org.levimc.launcher.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class FileIOUtilsTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void parallelDirectoryCopyMatchesSource() throws Exception {
+        File source = temporaryFolder.newFolder("source");
+        Random random = new Random(7);
+        for (int i = 0; i < 40; i++) {
+            byte[] data = new byte[random.nextInt(300_000)];
+            random.nextBytes(data);
+            write(new File(source, "dir" + (i % 5) + "/file" + i + ".bin"), data);
+        }
+        assertTrue(new File(source, "empty").mkdirs());
+
+        File target = new File(temporaryFolder.getRoot(), "target");
+        FileIOUtils.copyDirectory(source, target, null, true);
+
+        assertTrue(new File(target, "empty").isDirectory());
+        for (int i = 0; i < 40; i++) {
+            String path = "dir" + (i % 5) + "/file" + i + ".bin";
+            assertArrayEquals(read(new File(source, path)), read(new File(target, path)));
+        }
+    }
+
+    @Test
+    public void extractZipSkipsEntriesOutsideTarget() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bytes)) {
+            putEntry(zos, "pack/manifest.json", "{}");
+            putEntry(zos, "../evil.txt", "evil");
+            putEntry(zos, "pack/../../evil2.txt", "evil");
+            putEntry(zos, "/rooted.txt", "rooted");
+        }
+        File target = temporaryFolder.newFolder("extract");
+
+        FileIOUtils.extractZip(new ByteArrayInputStream(bytes.toByteArray()), target);
+
+        assertTrue(new File(target, "pack/manifest.json").isFile());
+        assertTrue(new File(target, "rooted.txt").isFile());
+        assertFalse(new File(temporaryFolder.getRoot(), "evil.txt").exists());
+        assertFalse(new File(temporaryFolder.getRoot(), "evil2.txt").exists());
+        assertNull(FileIOUtils.resolveZipEntry(target, "a/../../b"));
+    }
+
+    @Test
+    public void moveDirectoryRenamesAndRemovesSource() throws Exception {
+        File source = temporaryFolder.newFolder("move_source");
+        write(new File(source, "level.dat"), new byte[]{1, 2, 3});
+        File target = new File(temporaryFolder.getRoot(), "nested/move_target");
+
+        FileIOUtils.moveDirectory(source, target);
+
+        assertFalse(source.exists());
+        assertArrayEquals(new byte[]{1, 2, 3}, read(new File(target, "level.dat")));
+    }
+
+    @Test
+    public void deleteRecursivelyTreatsMissingFileAsDeleted() throws Exception {
+        File dir = temporaryFolder.newFolder("delete");
+        write(new File(dir, "a/b/c.txt"), new byte[]{4});
+
+        assertTrue(FileIOUtils.deleteRecursively(dir));
+        assertFalse(dir.exists());
+        assertTrue(FileIOUtils.deleteRecursively(dir));
+    }
+
+    @Test
+    public void copyFileReplacesTargetWithSourceBytes() throws Exception {
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random(11).nextBytes(data);
+        File source = temporaryFolder.newFile("copy.bin");
+        write(source, data);
+        File target = new File(temporaryFolder.getRoot(), "copy/target.bin");
+        write(target, new byte[data.length + 4096]);
+
+        FileIOUtils.copyFile(source, target);
+
+        assertArrayEquals(data, read(target));
+    }
+
+    private static void putEntry(ZipOutputStream zos, String name, String content) throws IOException {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(content.getBytes());
+        zos.closeEntry();
+    }
+
+    private static void write(File file, byte[] data) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        Files.write(file.toPath(), data);
+    }
+
+    private static byte[] read(File file) throws IOException {
+        return Files.readAllBytes(file.toPath());
+    }
+}